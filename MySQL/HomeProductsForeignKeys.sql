@@ -35,3 +35,18 @@ FOREIGN KEY (OrderID) REFERENCES tblOrder(OrderID);
 ALTER TABLE tblProductsOrder
 ADD CONSTRAINT FK_OrdersProduct_Product
 FOREIGN KEY (ProductID) REFERENCES tblProduct(ProductID);
+
+-- Customer balance foreign key
+ALTER TABLE tblCustomerBalance
+ADD CONSTRAINT FK_CustomerBalance_Customer
+FOREIGN KEY (CustomerID) REFERENCES tblCustomer(CustomerID);
+
+-- Customer search word foreign key
+ALTER TABLE tblCustomerSearchWord
+ADD CONSTRAINT FK_CustomerSearchWord_Customer
+FOREIGN KEY (CustomerID) REFERENCES tblCustomer(CustomerID);
+
+-- Commission payout foreign key
+ALTER TABLE tblCommissionPayout
+ADD CONSTRAINT FK_CommissionPayout_SalesRep
+FOREIGN KEY (SalesRepID) REFERENCES tblSalesRep(SalesRepID);
@@ -80,7 +80,9 @@ CREATE TABLE `tblOrder` (
   `ShippingMethod` varchar(30)  NOT NULL COMMENT 'How the order was shipped',
   `SalesTax` Decimal(10,2)  COMMENT 'Tax on the order depending on state',
   `CustomerID` int NOT NULL COMMENT 'ID of orderer',
-  PRIMARY KEY (`OrderID`) COMMENT 'We set the OrderID to the primary key'
+  PRIMARY KEY (`OrderID`) COMMENT 'We set the OrderID to the primary key',
+  INDEX `IX_Order_Customer_Date` (`CustomerID`, `Date`, `OrderID`) COMMENT 'A customer''s orders by date, for the paged order history',
+  INDEX `IX_Order_Date` (`Date`) COMMENT 'Orders in a date range, for the commission run'
   -- FOREIGN KEY (`CustomerID`) REFERENCES `tblCustomer`(`CustomerID`)
 );
 
@@ -111,3 +113,39 @@ CREATE TABLE `tblProductsOrder` (
   -- FOREIGN KEY (`OrderID`) REFERENCES `tblOrder`(`OrderID`),
   -- FOREIGN KEY (`ProductID`) REFERENCES `tblProduct`(`ProductID`)
 );
+
+-- Creating customer balance table
+-- Running totals kept up to date by the application whenever order lines or payments are written
+CREATE TABLE `tblCustomerBalance` (
+  `CustomerID` int NOT NULL COMMENT 'ID of the customer (both primary and foreign key)',
+  `LifetimeOrderTotal` Decimal(14,2) NOT NULL DEFAULT 0 COMMENT 'Total of all order lines the customer placed',
+  `PaymentTotal` Decimal(14,2) NOT NULL DEFAULT 0 COMMENT 'Total of all payments the customer made',
+  PRIMARY KEY (`CustomerID`) COMMENT 'One row per customer'
+  -- FOREIGN KEY (`CustomerID`) REFERENCES `tblCustomer`(`CustomerID`)
+);
+
+-- Creating customer search word table
+-- One row per word of a customer's last name, first name, company, email and city, so the
+-- customer search finds any word of a field and not only the start of the field
+CREATE TABLE `tblCustomerSearchWord` (
+  `Word` varchar(100) NOT NULL COMMENT 'Lower case word, split the same way as the search text',
+  `CustomerID` int NOT NULL COMMENT 'ID of the customer the word belongs to',
+  PRIMARY KEY (`Word`, `CustomerID`) COMMENT 'Exact and prefix searches on the word',
+  INDEX `IX_CustomerSearchWord_Customer` (`CustomerID`) COMMENT 'Replacing one customer''s words'
+  -- FOREIGN KEY (`CustomerID`) REFERENCES `tblCustomer`(`CustomerID`)
+);
+
+-- Creating commission payout table
+-- Written by the commission job, one row per sales rep per period
+CREATE TABLE `tblCommissionPayout` (
+  `SalesRepID` int NOT NULL COMMENT 'ID of the sales rep being paid',
+  `PeriodStart` Date NOT NULL COMMENT 'First day of the period',
+  `PeriodEnd` Date NOT NULL COMMENT 'Day after the last day of the period',
+  `Orders` int NOT NULL COMMENT 'Orders placed by the rep''s customers in the period',
+  `LineItems` int NOT NULL COMMENT 'Order lines in those orders',
+  `Sales` Decimal(14,2) NOT NULL COMMENT 'Total of those order lines',
+  `Rate` Decimal(10,2) NOT NULL COMMENT 'Commission rate the payout was worked out with',
+  `Commission` Decimal(14,2) NOT NULL COMMENT 'Amount owed to the rep',
+  PRIMARY KEY (`SalesRepID`, `PeriodStart`) COMMENT 'One payout per rep per period'
+  -- FOREIGN KEY (`SalesRepID`) REFERENCES `tblSalesRep`(`SalesRepID`)
+);
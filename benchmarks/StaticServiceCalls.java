@@ -0,0 +1,121 @@
+import benchmark.ServiceCalls;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Calls the static services for ServiceBenchmark, picking random IDs from the ranges in the database.
+ * @author Ethan C and Aarav S
+ */
+public class StaticServiceCalls implements ServiceCalls {
+    public static final String SEED_PROPERTY = "homeproducts.bench.seed";
+
+    private int customers;
+    private int orders;
+    private String[] productIds;
+
+    @Override
+    public void setUp() throws Exception {
+        String seedScale = System.getProperty(SEED_PROPERTY);
+        if (seedScale != null) {
+            BenchmarkSeeder.seed(Integer.parseInt(seedScale));
+        }
+
+        customers = Math.max(1, CustomerService.getCustomerCount());
+        orders = Math.max(1, OrderService.getOrderCount());
+        List<Product> products = ProductService.getAllProducts();
+        productIds = new String[Math.max(1, products.size())];
+        for (int i = 0; i < products.size(); i++) {
+            productIds[i] = products.get(i).getProductID();
+        }
+        System.out.println(customers + " customers, " + orders + " orders, " + products.size() + " products");
+    }
+
+    @Override
+    public void tearDown() {
+        // Per-statement split, including time spent waiting for a connection
+        System.out.println();
+        System.out.print(QueryStats.report());
+        System.out.print(ProductService.cacheReport());
+        System.out.print(CustomerBalanceService.cacheReport());
+        DatabaseConfig.shutdown();
+    }
+
+    private int customerId(Random random) {
+        return 1 + random.nextInt(customers);
+    }
+
+    private int orderId(Random random) {
+        return 1 + random.nextInt(orders);
+    }
+
+    @Override
+    public Object getCustomerByID(Random random) {
+        return CustomerService.getCustomerByID(customerId(random));
+    }
+
+    @Override
+    public Object getAllCustomerProducts(Random random) {
+        return CustomerService.getAllCustomerProducts(customerId(random));
+    }
+
+    @Override
+    public Object getAllCustomerPaymentsDetailed(Random random) {
+        return CustomerService.getAllCustomerPaymentsDetailed(customerId(random));
+    }
+
+    @Override
+    public Object getCustomerDetail(Random random) throws InterruptedException {
+        return CustomerService.getCustomerDetail(customerId(random), 100);
+    }
+
+    @Override
+    public Object getCustomerPage(Random random) {
+        return CustomerService.getCustomerPage(random.nextInt(customers), 200);
+    }
+
+    @Override
+    public Object getAllCustomers() {
+        return CustomerService.getAllCustomers();
+    }
+
+    @Override
+    public Object getOrderByID(Random random) {
+        return OrderService.getOrderByID(orderId(random));
+    }
+
+    @Override
+    public Object getOrderProducts(Random random) {
+        return OrderService.getOrderProducts(orderId(random));
+    }
+
+    @Override
+    public Object getOrderPayments(Random random) {
+        return OrderService.getOrderPayments(orderId(random));
+    }
+
+    @Override
+    public Object getAllOrders() {
+        return OrderService.getAllOrders();
+    }
+
+    @Override
+    public Object getProductByID(Random random) {
+        return ProductService.getProductByID(productIds[random.nextInt(productIds.length)]);
+    }
+
+    @Override
+    public Object getAllProducts() {
+        return ProductService.getAllProducts();
+    }
+
+    @Override
+    public Object getAllSalesReps() {
+        return SalesRepService.getAllSalesReps();
+    }
+
+    @Override
+    public Object getHierarchyRollups() {
+        return SalesRepService.getHierarchyRollups();
+    }
+}
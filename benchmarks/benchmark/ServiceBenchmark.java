@@ -0,0 +1,133 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the service methods against whatever database DatabaseConfig points at.
+ * Each benchmark samples single calls, so the results give the median and p99 latency, and
+ * running with "-prof gc" adds the bytes allocated per call. Build and run with:
+ * mvn -P benchmarks package
+ * java -Dhomeproducts.db.url=jdbc:mysql://localhost:3306/HomeProductsBench -jar target/benchmarks.jar
+ * Seed the database first with BenchmarkSeeder, or set -Dhomeproducts.bench.seed=SCALE to seed it in
+ * every fork, which an in-memory H2 database needs as each fork is a new JVM.
+ * @author Ethan C and Aarav S
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ServiceBenchmark {
+    private ServiceCalls calls;
+
+    /**
+     * Picks the IDs to look up for each thread, seeded the same way every run.
+     */
+    @State(Scope.Thread)
+    public static class Ids {
+        private final Random random = new Random(7);
+    }
+
+    /**
+     * Loads the service calls, seeding the database first if asked to
+     * @throws Exception If seeding or reading the IDs failed
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        calls = (ServiceCalls) Class.forName(ServiceCalls.IMPLEMENTATION).getDeclaredConstructor().newInstance();
+        calls.setUp();
+    }
+
+    /**
+     * Prints the per-statement timings and closes the connection pool
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        calls.tearDown();
+    }
+
+    @Benchmark
+    public Object getCustomerByID(Ids ids) {
+        return calls.getCustomerByID(ids.random);
+    }
+
+    @Benchmark
+    public Object getAllCustomerProducts(Ids ids) {
+        return calls.getAllCustomerProducts(ids.random);
+    }
+
+    @Benchmark
+    public Object getAllCustomerPaymentsDetailed(Ids ids) {
+        return calls.getAllCustomerPaymentsDetailed(ids.random);
+    }
+
+    @Benchmark
+    public Object getCustomerDetail(Ids ids) throws InterruptedException {
+        return calls.getCustomerDetail(ids.random);
+    }
+
+    @Benchmark
+    public Object getCustomerPage(Ids ids) {
+        return calls.getCustomerPage(ids.random);
+    }
+
+    @Benchmark
+    public Object getAllCustomers() {
+        return calls.getAllCustomers();
+    }
+
+    @Benchmark
+    public Object getOrderByID(Ids ids) {
+        return calls.getOrderByID(ids.random);
+    }
+
+    @Benchmark
+    public Object getOrderProducts(Ids ids) {
+        return calls.getOrderProducts(ids.random);
+    }
+
+    @Benchmark
+    public Object getOrderPayments(Ids ids) {
+        return calls.getOrderPayments(ids.random);
+    }
+
+    @Benchmark
+    public Object getAllOrders() {
+        return calls.getAllOrders();
+    }
+
+    @Benchmark
+    public Object getProductByID(Ids ids) {
+        return calls.getProductByID(ids.random);
+    }
+
+    @Benchmark
+    public Object getAllProducts() {
+        return calls.getAllProducts();
+    }
+
+    @Benchmark
+    public Object getAllSalesReps() {
+        return calls.getAllSalesReps();
+    }
+
+    @Benchmark
+    public Object getHierarchyRollups() {
+        return calls.getHierarchyRollups();
+    }
+}
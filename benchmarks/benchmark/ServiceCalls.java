@@ -0,0 +1,55 @@
+package benchmark;
+
+import java.util.Random;
+
+/**
+ * The service calls ServiceBenchmark measures. JMH needs benchmarks in a named package, and a
+ * named package cannot see the application's classes, so they are reached through this interface.
+ * Every call returns what the service returned, so JMH can keep it from being optimised away.
+ * @author Ethan C and Aarav S
+ */
+public interface ServiceCalls {
+    /**
+     * The class implementing the calls, in the application's package
+     */
+    String IMPLEMENTATION = "StaticServiceCalls";
+
+    /**
+     * Seeds the database if asked to and reads the ranges of IDs present
+     * @throws Exception If seeding or reading the IDs failed
+     */
+    void setUp() throws Exception;
+
+    /**
+     * Prints the per-statement timings and closes the connection pool
+     */
+    void tearDown();
+
+    Object getCustomerByID(Random random);
+
+    Object getAllCustomerProducts(Random random);
+
+    Object getAllCustomerPaymentsDetailed(Random random);
+
+    Object getCustomerDetail(Random random) throws InterruptedException;
+
+    Object getCustomerPage(Random random);
+
+    Object getAllCustomers();
+
+    Object getOrderByID(Random random);
+
+    Object getOrderProducts(Random random);
+
+    Object getOrderPayments(Random random);
+
+    Object getAllOrders();
+
+    Object getProductByID(Random random);
+
+    Object getAllProducts();
+
+    Object getAllSalesReps();
+
+    Object getHierarchyRollups();
+}
@@ -0,0 +1,132 @@
+/**
+ * Holds the repositories the screens use. The screens ask AppContext for their repositories instead
+ * of calling the services directly, so the backend or the layers around it (caching, timing) can be
+ * changed in one place, and a different context can be set before the screens are opened.
+ * @author Ethan C and Aarav S
+ */
+public class AppContext {
+    public static final int CACHE_SIZE = 1000;
+    public static final long CACHE_TTL_MILLIS = 30_000;
+
+    private static volatile AppContext current;
+
+    private final CustomerRepository customers;
+    private final OrderRepository orders;
+    private final PaymentRepository payments;
+    private final ProductRepository products;
+    private final SalesRepRepository salesReps;
+
+    /**
+     * Creates a context from the given repositories
+     * @param customers The customer repository
+     * @param orders The order repository
+     * @param payments The payment repository
+     * @param products The product repository
+     * @param salesReps The sales rep repository
+     */
+    public AppContext(CustomerRepository customers, OrderRepository orders, PaymentRepository payments,
+                      ProductRepository products, SalesRepRepository salesReps) {
+        this.customers = customers;
+        this.orders = orders;
+        this.payments = payments;
+        this.products = products;
+        this.salesReps = salesReps;
+    }
+
+    /**
+     * Method to create the database backed repositories wrapped in the given decorators,
+     * the first decorator is the innermost
+     * @param decorators The layers to add
+     * @return The context
+     */
+    public static AppContext createDefault(RepositoryDecorator... decorators) {
+        CustomerRepository customers = new JdbcCustomerRepository();
+        OrderRepository orders = new JdbcOrderRepository();
+        PaymentRepository payments = new JdbcPaymentRepository();
+        ProductRepository products = new JdbcProductRepository();
+        SalesRepRepository salesReps = new JdbcSalesRepRepository();
+
+        for (RepositoryDecorator decorator : decorators) {
+            customers = decorator.decorate(CustomerRepository.class, customers);
+            orders = decorator.decorate(OrderRepository.class, orders);
+            payments = decorator.decorate(PaymentRepository.class, payments);
+            products = decorator.decorate(ProductRepository.class, products);
+            salesReps = decorator.decorate(SalesRepRepository.class, salesReps);
+        }
+        return new AppContext(customers, orders, payments, products, salesReps);
+    }
+
+    /**
+     * Method to create the context the application normally runs with: cached lookups, with the
+     * timings taken outside the cache so they show what the screens actually waited
+     * @return The context
+     */
+    public static AppContext createStandard() {
+        return createDefault(new CachingDecorator(CACHE_SIZE, CACHE_TTL_MILLIS), new TimingDecorator());
+    }
+
+    /**
+     * Gets the context in use, creating the standard one if none has been set
+     * @return The context
+     */
+    public static AppContext get() {
+        AppContext context = current;
+        if (context == null) {
+            synchronized (AppContext.class) {
+                if (current == null) {
+                    current = createStandard();
+                }
+                context = current;
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Sets the context the screens opened from now on use
+     * @param context The context
+     */
+    public static void set(AppContext context) {
+        current = context;
+    }
+
+    /**
+     * Gets the customer repository
+     * @return The repository
+     */
+    public CustomerRepository getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Gets the order repository
+     * @return The repository
+     */
+    public OrderRepository getOrders() {
+        return orders;
+    }
+
+    /**
+     * Gets the payment repository
+     * @return The repository
+     */
+    public PaymentRepository getPayments() {
+        return payments;
+    }
+
+    /**
+     * Gets the product repository
+     * @return The repository
+     */
+    public ProductRepository getProducts() {
+        return products;
+    }
+
+    /**
+     * Gets the sales rep repository
+     * @return The repository
+     */
+    public SalesRepRepository getSalesReps() {
+        return salesReps;
+    }
+}
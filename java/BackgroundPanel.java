@@ -0,0 +1,127 @@
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Panel used as the content pane of every window, painting either a solid colour or the
+ * background image. The image is decoded once, off the Event Dispatch Thread, and each panel keeps
+ * a copy already scaled to its size with the readability overlay drawn in, so a repaint is a single
+ * unscaled copy. The copy is only rebuilt when the panel changes size.
+ * @author Ethan C and Aarav S
+ */
+public class BackgroundPanel extends JPanel {
+    public static final String IMAGE_FILE = "NewBackground.png";
+
+    private static final Color OVERLAY_COLOR = new Color(255, 255, 255, 30);
+    private static final Color GRADIENT_TOP = new Color(41, 128, 185, 220);
+    private static final Color GRADIENT_BOTTOM = new Color(44, 62, 80, 220);
+
+    // Decoded once for the whole application
+    private static CompletableFuture<BufferedImage> image;
+
+    private final boolean showImage;
+    private BufferedImage scaled;
+    private BufferedImage scaledFrom;
+
+    /**
+     * Creates a panel painted with a solid colour
+     * @param layout The layout manager
+     * @param color The background colour
+     */
+    public BackgroundPanel(LayoutManager layout, Color color) {
+        super(layout);
+        this.showImage = false;
+        setBackground(color);
+        setOpaque(true);
+    }
+
+    /**
+     * Creates a panel painted with the background image, or a gradient until the image has loaded
+     * @param layout The layout manager
+     */
+    public BackgroundPanel(LayoutManager layout) {
+        super(layout);
+        this.showImage = true;
+        setOpaque(true);
+        // Repaint once the image arrives if it was still loading
+        loadImage().thenRun(() -> SwingUtilities.invokeLater(this::repaint));
+    }
+
+    /**
+     * Method to start decoding the background image in the background, called at startup so the
+     * image is ready by the time the main menu is shown
+     * @return The image being loaded, which completes with null if it could not be read
+     */
+    public static synchronized CompletableFuture<BufferedImage> loadImage() {
+        if (image == null) {
+            image = CompletableFuture.supplyAsync(() -> {
+                try {
+                    BufferedImage loaded = ImageIO.read(new File(IMAGE_FILE));
+                    System.out.println("Background image loaded successfully.");
+                    return loaded;
+                } catch (IOException e) {
+                    System.err.println("Error loading background image: " + e.getMessage());
+                    return null;
+                }
+            });
+        }
+        return image;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (!showImage) {
+            super.paintComponent(g);
+            return;
+        }
+
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        BufferedImage source = loadImage().getNow(null);
+        if (scaled == null || scaled.getWidth() != width || scaled.getHeight() != height || scaledFrom != source) {
+            scaled = render(source, width, height);
+            scaledFrom = source;
+        }
+        g.drawImage(scaled, 0, 0, null);
+    }
+
+    /**
+     * Draws the image, or the gradient if there is none, scaled to the size with the overlay on top
+     */
+    private BufferedImage render(BufferedImage source, int width, int height) {
+        // A compatible image can be copied to the screen without converting its pixels
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        BufferedImage target = configuration != null
+            ? configuration.createCompatibleImage(width, height)
+            : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g2d = target.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setColor(getBackground());
+            g2d.fillRect(0, 0, width, height);
+
+            if (source != null) {
+                g2d.drawImage(source, 0, 0, width, height, null);
+            } else {
+                g2d.setPaint(new GradientPaint(0, 0, GRADIENT_TOP, 0, height, GRADIENT_BOTTOM));
+                g2d.fillRect(0, 0, width, height);
+            }
+
+            // Overlay for better readability
+            g2d.setColor(OVERLAY_COLOR);
+            g2d.fillRect(0, 0, width, height);
+        } finally {
+            g2d.dispose();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,179 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Shared helper for running database work off the Event Dispatch Thread.
+ * Work runs on a SwingWorker thread and the result is handed back to the EDT.
+ * While a window has work running it shows a wait cursor, and any work still running
+ * when the window is disposed is cancelled and its result dropped. Buttons that must not be
+ * clicked twice, like Save, can be disabled until all of a window's work has finished.
+ * @author Ethan C and Aarav S
+ */
+public final class BackgroundTask {
+    // Tasks still running for each window, only touched on the EDT
+    private static final Map<Window, List<SwingWorker<?, ?>>> RUNNING = new WeakHashMap<>();
+    // Buttons to enable again once a window's work is done, only touched on the EDT
+    private static final Map<Window, List<AbstractButton>> DISABLED = new WeakHashMap<>();
+
+    private BackgroundTask() {
+    }
+
+    /**
+     * Runs work in the background, showing a generic error dialog if it fails
+     * @param owner The window the work belongs to
+     * @param work The work to run off the EDT
+     * @param onSuccess Called on the EDT with the result
+     * @param <T> The result type
+     * @return The running worker
+     */
+    public static <T> SwingWorker<T, Void> run(Window owner, Callable<T> work, Consumer<T> onSuccess) {
+        return run(owner, work, onSuccess, e -> {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(owner,
+                "An error occurred while contacting the database.",
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    /**
+     * Runs work in the background
+     * @param owner The window the work belongs to
+     * @param work The work to run off the EDT
+     * @param onSuccess Called on the EDT with the result
+     * @param onFailure Called on the EDT with the exception thrown by the work
+     * @param <T> The result type
+     * @return The running worker
+     */
+    public static <T> SwingWorker<T, Void> run(Window owner, Callable<T> work, Consumer<T> onSuccess,
+            Consumer<Exception> onFailure) {
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return work.call();
+            }
+
+            @Override
+            protected void done() {
+                finished(owner, this);
+                try {
+                    // Window was closed while we were working, nobody is waiting for the result
+                    if (isCancelled()) {
+                        return;
+                    }
+                    onSuccess.accept(get());
+                } catch (CancellationException e) {
+                    // cancelled between the check and get()
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    onFailure.accept(cause instanceof Exception ? (Exception) cause : e);
+                } finally {
+                    // Checked after the callbacks, as they often start the next step of the same save
+                    enableIfIdle(owner);
+                }
+            }
+        };
+
+        started(owner, worker);
+        worker.execute();
+        return worker;
+    }
+
+    /**
+     * Cancels all work running for a window
+     * @param owner The window
+     */
+    public static void cancelAll(Window owner) {
+        List<SwingWorker<?, ?>> tasks = RUNNING.get(owner);
+        if (tasks != null) {
+            for (SwingWorker<?, ?> task : new ArrayList<>(tasks)) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a window has background work running
+     * @param owner The window
+     * @return True if work is still running
+     */
+    public static boolean isBusy(Window owner) {
+        List<SwingWorker<?, ?>> tasks = RUNNING.get(owner);
+        return tasks != null && !tasks.isEmpty();
+    }
+
+    /**
+     * Disables a button until all work running for its window has finished, including any work
+     * started from the results, so a save cannot be submitted twice
+     * @param owner The window
+     * @param button The button, left alone if the window has no work running
+     */
+    public static void disableWhileBusy(Window owner, AbstractButton button) {
+        if (!isBusy(owner)) {
+            return;
+        }
+        button.setEnabled(false);
+        DISABLED.computeIfAbsent(owner, window -> new ArrayList<>()).add(button);
+    }
+
+    /**
+     * Enables the buttons disabled by disableWhileBusy once the window has no work left
+     */
+    private static void enableIfIdle(Window owner) {
+        if (isBusy(owner)) {
+            return;
+        }
+        List<AbstractButton> buttons = DISABLED.remove(owner);
+        if (buttons != null) {
+            for (AbstractButton button : buttons) {
+                button.setEnabled(true);
+            }
+        }
+    }
+
+    /**
+     * Tracks a new task and turns on the loading indicator
+     */
+    private static void started(Window owner, SwingWorker<?, ?> worker) {
+        List<SwingWorker<?, ?>> tasks = RUNNING.get(owner);
+        if (tasks == null) {
+            tasks = new ArrayList<>();
+            RUNNING.put(owner, tasks);
+
+            // First task for this window, cancel everything when it goes away
+            owner.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    cancelAll(owner);
+                }
+            });
+        }
+        tasks.add(worker);
+        owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+    }
+
+    /**
+     * Stops tracking a task and turns off the loading indicator once the window is idle
+     */
+    private static void finished(Window owner, SwingWorker<?, ?> worker) {
+        List<SwingWorker<?, ?>> tasks = RUNNING.get(owner);
+        if (tasks != null) {
+            tasks.remove(worker);
+            if (tasks.isEmpty()) {
+                owner.setCursor(Cursor.getDefaultCursor());
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Fills a scratch database with generated data for ServiceBenchmark.
+ * The amount of data grows with a scale factor, and the same scale always gives the same rows
+ * so runs can be compared. Every table is emptied first, so the seeder refuses to run unless
+ * the database URL was overridden with -Dhomeproducts.db.url.
+ * @author Ethan C and Aarav S
+ */
+public class BenchmarkSeeder {
+    public static final int WAREHOUSES = 5;
+    public static final int PRODUCTS = 200;
+    public static final int SALES_REPS_PER_SCALE = 20;
+    public static final int CUSTOMERS_PER_SCALE = 2000;
+    public static final int ORDERS_PER_SCALE = 3000;
+    public static final int LINES_PER_ORDER = 4;
+    public static final int MAX_SCALE = Short.MAX_VALUE / ORDERS_PER_SCALE; // OrderID is a SMALLINT
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] STATES = {"NY", "NJ", "DE", "IL", "CO", "CA", "TX", "PA"};
+    private static final String[] STATUSES = {"Paid", "Pending", "Shipped"};
+    private static final String[] METHODS = {"UPS Ground", "UPS Second Day", "FedEx", "Pickup"};
+
+    /**
+     * Method to replace the contents of the database with generated data
+     * @param scale The scale factor, 1 to MAX_SCALE
+     * @throws SQLException If the data could not be written
+     */
+    public static void seed(int scale) throws SQLException {
+        if (scale < 1 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 1 and " + MAX_SCALE);
+        }
+        if (System.getProperty("homeproducts.db.url") == null) {
+            throw new IllegalStateException("Refusing to seed the default database, set -Dhomeproducts.db.url to a scratch DB");
+        }
+
+        Random random = new Random(42L * scale);
+        int salesReps = SALES_REPS_PER_SCALE * scale;
+        int customers = CUSTOMERS_PER_SCALE * scale;
+        int orders = ORDERS_PER_SCALE * scale;
+
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            connection.setAutoCommit(false);
+            statement.execute(DatabaseConfig.foreignKeyChecks(false));
+            try {
+                for (String table : new String[]{"tblCustomerBalance", "tblCustomerSearchWord", "tblProductsOrder", "tblPayment", "tblOrder",
+                        "tblCustomer", "tblCommissionPayout", "tblSalesRep", "tblProduct", "tblWarehouse"}) {
+                    statement.execute("DELETE FROM " + table);
+                }
+                connection.commit();
+
+                seedWarehouses(connection);
+                seedProducts(connection, random);
+                seedSalesReps(connection, random, salesReps);
+                seedCustomers(connection, random, customers, salesReps);
+                seedOrders(connection, random, orders, customers);
+            } finally {
+                statement.execute(DatabaseConfig.foreignKeyChecks(true));
+            }
+        }
+
+        CustomerBalanceService.rebuild();
+        CustomerService.rebuildSearchWords();
+        ProductService.clearCache();
+        CustomerService.refreshIds();
+        SalesRepService.refreshIds();
+        OrderService.refreshIds();
+        SearchIndexes.reloadIfLoaded();
+    }
+
+    /**
+     * Gets the product ID used for the nth generated product
+     * @param n The product number, 0 based
+     * @return The 4 character product ID
+     */
+    public static String productId(int n) {
+        return String.format("B%03d", n);
+    }
+
+    private static void seedWarehouses(Connection connection) throws SQLException {
+        String query = "INSERT INTO tblWarehouse (WarehouseID, Address1, City, State, ZipCode, Capacity, Employees) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            for (int id = 1; id <= WAREHOUSES; id++) {
+                preparedStatement.setInt(1, id);
+                preparedStatement.setString(2, id + " Depot Road");
+                preparedStatement.setString(3, "City " + id);
+                preparedStatement.setString(4, STATES[id % STATES.length]);
+                preparedStatement.setString(5, String.format("%05d", 10000 + id));
+                preparedStatement.setInt(6, 5000);
+                preparedStatement.setInt(7, 10);
+                preparedStatement.addBatch();
+            }
+            flush(connection, preparedStatement);
+        }
+    }
+
+    private static void seedProducts(Connection connection, Random random) throws SQLException {
+        String query = "INSERT INTO tblProduct (ProductID, Description, UnitPrice, UnitsOnHand, Class, WarehouseID) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            for (int n = 0; n < PRODUCTS; n++) {
+                preparedStatement.setString(1, productId(n));
+                preparedStatement.setString(2, "Benchmark product " + n);
+                preparedStatement.setDouble(3, price(random));
+                preparedStatement.setInt(4, Short.MAX_VALUE);
+                preparedStatement.setString(5, n % 2 == 0 ? "HW" : "AP");
+                preparedStatement.setInt(6, 1 + n % WAREHOUSES);
+                preparedStatement.addBatch();
+            }
+            flush(connection, preparedStatement);
+        }
+    }
+
+    private static void seedSalesReps(Connection connection, Random random, int salesReps) throws SQLException {
+        String query = "INSERT INTO tblSalesRep (SalesRepID, FirstName, LastName, Title, CellNumber, FaxNumber, " +
+            "Street, City, State, ZipCode, Commission, ManagerID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            for (int id = 1; id <= salesReps; id++) {
+                preparedStatement.setInt(1, id);
+                preparedStatement.setString(2, "Rep" + id);
+                preparedStatement.setString(3, "Seller" + id);
+                preparedStatement.setString(4, id == 1 ? "Regional Manager" : "Sales Associate");
+                preparedStatement.setString(5, phone(random));
+                preparedStatement.setString(6, phone(random));
+                preparedStatement.setString(7, id + " Market Street");
+                preparedStatement.setString(8, "City " + id);
+                preparedStatement.setString(9, STATES[id % STATES.length]);
+                preparedStatement.setString(10, String.format("%05d", 20000 + id));
+                preparedStatement.setDouble(11, 0.05);
+                // A small tree, each rep reports to the rep with half their ID
+                preparedStatement.setInt(12, Math.max(1, id / 2));
+                preparedStatement.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    flush(connection, preparedStatement);
+                }
+            }
+            flush(connection, preparedStatement);
+        }
+    }
+
+    private static void seedCustomers(Connection connection, Random random, int customers, int salesReps)
+            throws SQLException {
+        String query = "INSERT INTO tblCustomer (CustomerID, FirstName, LastName, Street, City, State, ZipCode, " +
+            "Credit, Company, Website, Email, Status, SalesRepID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            for (int id = 1; id <= customers; id++) {
+                preparedStatement.setInt(1, id);
+                preparedStatement.setString(2, "First" + id);
+                preparedStatement.setString(3, "Last" + id);
+                preparedStatement.setString(4, id + " Main Street");
+                preparedStatement.setString(5, "City " + (id % 100));
+                preparedStatement.setString(6, STATES[id % STATES.length]);
+                preparedStatement.setString(7, String.format("%05d", 30000 + id % 60000));
+                preparedStatement.setDouble(8, 1000 + random.nextInt(20) * 500);
+                preparedStatement.setString(9, "Company " + id);
+                preparedStatement.setString(10, "http://www.company" + id + ".com");
+                preparedStatement.setString(11, "first" + id + "@company" + id + ".com");
+                preparedStatement.setString(12, random.nextInt(4) == 0 ? "Inactive" : "Active");
+                preparedStatement.setInt(13, 1 + random.nextInt(salesReps));
+                preparedStatement.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    flush(connection, preparedStatement);
+                }
+            }
+            flush(connection, preparedStatement);
+        }
+    }
+
+    /**
+     * Writes orders together with their lines and one payment each
+     */
+    private static void seedOrders(Connection connection, Random random, int orders, int customers)
+            throws SQLException {
+        String orderQuery = "INSERT INTO tblOrder (OrderID, Date, ShippingDate, Status, ShippingMethod, SalesTax, CustomerID) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String lineQuery = "INSERT INTO tblProductsOrder (OrderID, ProductID, QuantityOrdered, QuotedPrice) VALUES (?, ?, ?, ?)";
+        String paymentQuery = "INSERT INTO tblPayment (PaymentID, Method, Amount, CreditCard, Date, CustomerID, OrderID) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        LocalDate firstDate = LocalDate.of(2012, 1, 1);
+
+        try (PreparedStatement orderStatement = connection.prepareStatement(orderQuery);
+             PreparedStatement lineStatement = connection.prepareStatement(lineQuery);
+             PreparedStatement paymentStatement = connection.prepareStatement(paymentQuery)) {
+
+            for (int id = 1; id <= orders; id++) {
+                int customerId = 1 + random.nextInt(customers);
+                Date date = Date.valueOf(firstDate.plusDays(random.nextInt(3650)));
+
+                orderStatement.setInt(1, id);
+                orderStatement.setDate(2, date);
+                orderStatement.setDate(3, date);
+                orderStatement.setString(4, STATUSES[random.nextInt(STATUSES.length)]);
+                orderStatement.setString(5, METHODS[random.nextInt(METHODS.length)]);
+                orderStatement.setDouble(6, 0.09);
+                orderStatement.setInt(7, customerId);
+                orderStatement.addBatch();
+
+                // Distinct products per order because (OrderID, ProductID) is the key
+                int firstProduct = random.nextInt(PRODUCTS);
+                double subtotal = 0;
+                for (int line = 0; line < LINES_PER_ORDER; line++) {
+                    int quantity = 1 + random.nextInt(5);
+                    double price = price(random);
+                    subtotal += quantity * price;
+                    lineStatement.setInt(1, id);
+                    lineStatement.setString(2, productId((firstProduct + line) % PRODUCTS));
+                    lineStatement.setInt(3, quantity);
+                    lineStatement.setDouble(4, price);
+                    lineStatement.addBatch();
+                }
+
+                paymentStatement.setInt(1, id);
+                paymentStatement.setString(2, "Debit");
+                paymentStatement.setDouble(3, Math.round(subtotal * 109) / 100.0);
+                paymentStatement.setBoolean(4, false);
+                paymentStatement.setDate(5, date);
+                paymentStatement.setInt(6, customerId);
+                paymentStatement.setInt(7, id);
+                paymentStatement.addBatch();
+
+                if (id % BATCH_SIZE == 0) {
+                    orderStatement.executeBatch();
+                    lineStatement.executeBatch();
+                    flush(connection, paymentStatement);
+                }
+            }
+            orderStatement.executeBatch();
+            lineStatement.executeBatch();
+            flush(connection, paymentStatement);
+        }
+    }
+
+    /**
+     * Sends the queued rows as one batch and commits them
+     */
+    private static void flush(Connection connection, PreparedStatement preparedStatement) throws SQLException {
+        preparedStatement.executeBatch();
+        connection.commit();
+    }
+
+    private static double price(Random random) {
+        return 5 + random.nextInt(19500) / 100.0;
+    }
+
+    private static String phone(Random random) {
+        return String.format("%010d", (long) (random.nextDouble() * 9_000_000_000L) + 1_000_000_000L);
+    }
+
+    /**
+     * Seeds the database set with -Dhomeproducts.db.url
+     * @param args The scale factor, 1 by default
+     */
+    public static void main(String[] args) {
+        int scale = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        long start = System.nanoTime();
+        try {
+            seed(scale);
+            System.out.println("Seeded scale " + scale + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+}
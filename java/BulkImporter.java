@@ -0,0 +1,480 @@
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a Home Products workbook (like "Home Products Raw Data.xlsx") into the database.
+ * Each sheet is streamed row by row, mapped to its table's columns, and written with multi-row INSERTs
+ * a batch at a time, so memory use stays flat no matter how many rows a sheet has.
+ * Sheets are loaded in foreign key order and every batch is committed on its own.
+ * IDs are taken from the workbook so the rows keep pointing at each other.
+ * @author Ethan C and Aarav S
+ */
+public class BulkImporter {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int MAX_PARAMETERS_PER_STATEMENT = 65535; // MySQL placeholder limit
+
+    private final int batchSize;
+    private final ProgressListener listener;
+
+    /**
+     * Receives progress updates while a workbook is imported.
+     */
+    public interface ProgressListener {
+        /**
+         * Called after every committed batch and once when a sheet is finished
+         * @param sheetName The sheet being imported
+         * @param rowsImported Rows of this sheet written so far
+         * @param finished True once the whole sheet is written
+         */
+        void progress(String sheetName, long rowsImported, boolean finished);
+    }
+
+    /**
+     * Creates an importer
+     * @param batchSize How many rows to write per INSERT and commit
+     * @param listener Receives progress updates, may be null
+     */
+    public BulkImporter(int batchSize, ProgressListener listener) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+        this.listener = listener;
+    }
+
+    /**
+     * Method to import every sheet of a workbook
+     * @param file The workbook
+     * @return The total number of rows imported
+     * @throws IOException If the workbook cannot be read or a cell holds a bad value
+     * @throws SQLException If a batch could not be written, earlier batches stay committed
+     */
+    public long importWorkbook(File file) throws IOException, SQLException {
+        long total = 0;
+
+        //Connecting to SQL DB
+        try (XlsxReader reader = new XlsxReader(file);
+             Connection connection = DatabaseConfig.getConnection()) {
+
+            connection.setAutoCommit(false);
+            try {
+                // Parents before children so every foreign key already has its row
+                total += importSheet(reader, connection, WAREHOUSES);
+                total += importSheet(reader, connection, PRODUCTS);
+
+                // Managers are sales reps too and can appear after the reps they manage
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(DatabaseConfig.foreignKeyChecks(false));
+                    try {
+                        total += importSheet(reader, connection, SALES_REPS);
+                    } finally {
+                        statement.execute(DatabaseConfig.foreignKeyChecks(true));
+                    }
+                }
+
+                total += importSheet(reader, connection, CUSTOMERS);
+                total += importSheet(reader, connection, ORDERS);
+                total += importSheet(reader, connection, ORDER_PRODUCTS);
+                total += importSheet(reader, connection, PAYMENTS);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        // The running balances are not kept up while loading, work them out once at the end
+        CustomerBalanceService.rebuild();
+        CustomerService.rebuildSearchWords();
+        ProductService.clearCache();
+
+        // Pick up the new IDs so existence checks do not go back to the DB for them
+        CustomerService.refreshIds();
+        SalesRepService.refreshIds();
+        OrderService.refreshIds();
+        SearchIndexes.reloadIfLoaded();
+        return total;
+    }
+
+    /**
+     * Streams one sheet into its table
+     * @return The number of rows written
+     */
+    private long importSheet(XlsxReader reader, Connection connection, SheetLoader loader)
+            throws IOException, SQLException {
+        int rowsPerStatement = Math.min(batchSize, MAX_PARAMETERS_PER_STATEMENT / loader.columns.length);
+        List<Object[]> pending = new ArrayList<>(rowsPerStatement);
+        Map<String, Integer> header = new HashMap<>();
+        long[] imported = {0};
+
+        try (PreparedStatement fullBatch = connection.prepareStatement(insertSql(loader, rowsPerStatement))) {
+            reader.readSheet(loader.sheetName, (rowNumber, cells) -> {
+                if (header.isEmpty()) {
+                    for (int i = 0; i < cells.length; i++) {
+                        if (cells[i] != null) {
+                            header.put(cells[i].trim(), i);
+                        }
+                    }
+                    return;
+                }
+
+                // The sheets are padded with empty rows below the data
+                Row row = new Row(loader.sheetName, rowNumber, header, cells);
+                if (row.isBlank()) {
+                    return;
+                }
+                pending.add(loader.map(row));
+
+                if (pending.size() == rowsPerStatement) {
+                    imported[0] += writeBatch(connection, fullBatch, loader, pending);
+                    report(loader.sheetName, imported[0], false);
+                }
+            });
+
+            // Whatever is left is smaller than a full batch
+            if (!pending.isEmpty()) {
+                try (PreparedStatement lastBatch = connection.prepareStatement(insertSql(loader, pending.size()))) {
+                    imported[0] += writeBatch(connection, lastBatch, loader, pending);
+                }
+            }
+        }
+
+        report(loader.sheetName, imported[0], true);
+        return imported[0];
+    }
+
+    /**
+     * Binds and runs one multi-row INSERT, then commits it
+     * @return The number of rows written
+     */
+    private static int writeBatch(Connection connection, PreparedStatement preparedStatement,
+            SheetLoader loader, List<Object[]> rows) throws SQLException {
+        int parameter = 1;
+        for (Object[] row : rows) {
+            loader.bind(preparedStatement, parameter, row);
+            parameter += loader.columns.length;
+        }
+        preparedStatement.executeUpdate();
+        connection.commit();
+
+        int written = rows.size();
+        rows.clear();
+        return written;
+    }
+
+    /**
+     * Builds "INSERT INTO table (columns) VALUES (?, ...), (?, ...)" for a number of rows
+     */
+    private static String insertSql(SheetLoader loader, int rows) {
+        StringBuilder group = new StringBuilder("(");
+        for (int i = 0; i < loader.columns.length; i++) {
+            group.append(i == 0 ? "?" : ", ?");
+        }
+        group.append(")");
+
+        StringBuilder query = new StringBuilder("INSERT INTO ").append(loader.table)
+            .append(" (").append(String.join(", ", loader.columns)).append(") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(group);
+        }
+        return query.toString();
+    }
+
+    private void report(String sheetName, long rowsImported, boolean finished) {
+        if (listener != null) {
+            listener.progress(sheetName, rowsImported, finished);
+        }
+    }
+
+    /**
+     * Maps the rows of one sheet to the values of its table's columns and binds them to an INSERT.
+     * Values are kept as objects rather than models, so an empty cell stays NULL instead of
+     * becoming the 0 a model's int or double field would hold.
+     */
+    private abstract static class SheetLoader {
+        final String sheetName;
+        final String table;
+        final String[] columns;
+        final int[] types;
+
+        SheetLoader(String sheetName, String table, String[] columns, int... types) {
+            if (columns.length != types.length) {
+                throw new IllegalArgumentException(table + " needs one type per column");
+            }
+            this.sheetName = sheetName;
+            this.table = table;
+            this.columns = columns;
+            this.types = types;
+        }
+
+        /**
+         * Gets one row's column values, null for an empty cell
+         */
+        abstract Object[] map(Row row);
+
+        /**
+         * Sets the parameters for one row, starting at the given parameter index
+         */
+        void bind(PreparedStatement preparedStatement, int first, Object[] values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    preparedStatement.setNull(first + i, types[i]);
+                } else {
+                    preparedStatement.setObject(first + i, values[i], types[i]);
+                }
+            }
+        }
+    }
+
+    private static final SheetLoader WAREHOUSES = new SheetLoader("Warehouse", "tblWarehouse",
+            new String[]{"WarehouseID", "Address1", "Address2", "City", "State", "ZipCode", "GeneralNumber",
+                "SupervisorName", "SupervisorNumber", "Capacity", "Employees"},
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.SMALLINT) {
+        @Override
+        Object[] map(Row row) {
+            return new Object[]{
+                row.integer("ID"), row.text("Address 1"), row.text("Address 2"),
+                row.text("City"), row.text("State"), row.code("Zip Code"), row.code("General Phone Number"),
+                row.text("Supervisor"), row.code("Supervisor Phone"),
+                row.integer("Capacity"), row.integer("Number of Employees")
+            };
+        }
+    };
+
+    private static final SheetLoader PRODUCTS = new SheetLoader("Product", "tblProduct",
+            new String[]{"ProductID", "Description", "UnitPrice", "UnitsOnHand", "Class", "WarehouseID"},
+            Types.VARCHAR, Types.VARCHAR, Types.DECIMAL, Types.INTEGER, Types.VARCHAR, Types.INTEGER) {
+        @Override
+        Object[] map(Row row) {
+            return new Object[]{
+                row.text("ProductID"), row.text("Description"), row.decimal("UnitPrice"),
+                row.integer("UnitsOnHand"), row.text("Class"), row.integer("Warehouse")
+            };
+        }
+    };
+
+    private static final SheetLoader SALES_REPS = new SheetLoader("SalesRep", "tblSalesRep",
+            new String[]{"SalesRepID", "FirstName", "LastName", "Title", "BusinessNumber", "HomeNumber", "CellNumber",
+                "FaxNumber", "Street", "City", "State", "ZipCode", "Commission", "ManagerID"},
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DECIMAL, Types.INTEGER) {
+        @Override
+        Object[] map(Row row) {
+            return new Object[]{
+                row.integer("ID"), row.text("First Name"), row.text("Last Name"), row.text("Title"),
+                row.code("Business"), row.code("Home"), row.code("Cell"), row.code("Fax"),
+                row.text("Street"), row.text("City"), row.text("State"), row.code("Zip Code"),
+                row.decimal("Commission"), row.integer("Manager")
+            };
+        }
+    };
+
+    private static final SheetLoader CUSTOMERS = new SheetLoader("Customer", "tblCustomer",
+            new String[]{"CustomerID", "FirstName", "LastName", "Street", "City", "State", "ZipCode", "Credit", "Company",
+                "Website", "Email", "BusinessNumber", "CellNumber", "Title", "Status", "Notes", "SalesRepID"},
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.DECIMAL, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.INTEGER) {
+        @Override
+        Object[] map(Row row) {
+            return new Object[]{
+                row.integer("ID"), row.text("First Name"), row.text("Last Name"), row.text("Street"),
+                row.text("City"), row.text("State"), row.code("Zip Code"), row.decimal("Credit"),
+                row.text("Company"), row.text("Web Site"), row.text("Email"), row.code("Business"),
+                row.code("Cell"), row.text("Title"), row.text("Status"), row.text("Notes"), row.integer("Sales Rep")
+            };
+        }
+    };
+
+    private static final SheetLoader ORDERS = new SheetLoader("Order", "tblOrder",
+            new String[]{"OrderID", "Date", "ShippingDate", "Status", "ShippingMethod", "SalesTax", "CustomerID"},
+            Types.INTEGER, Types.DATE, Types.DATE, Types.VARCHAR, Types.VARCHAR, Types.DECIMAL, Types.INTEGER) {
+        @Override
+        Object[] map(Row row) {
+            return new Object[]{
+                row.integer("ID"), row.date("Order Date"), row.date("Shipping Date"), row.text("Status"),
+                row.text("Shipping Method"), row.decimal("Sales Tax"), row.integer("Customer")
+            };
+        }
+    };
+
+    private static final SheetLoader ORDER_PRODUCTS = new SheetLoader("OrderProduct", "tblProductsOrder",
+            new String[]{"OrderID", "ProductID", "QuantityOrdered", "QuotedPrice"},
+            Types.INTEGER, Types.VARCHAR, Types.INTEGER, Types.DECIMAL) {
+        @Override
+        Object[] map(Row row) {
+            return new Object[]{
+                row.integer("Order ID"), row.text("Product ID"), row.integer("Quantity Ordered"), row.decimal("Quoted Price")
+            };
+        }
+    };
+
+    private static final SheetLoader PAYMENTS = new SheetLoader("Payment", "tblPayment",
+            new String[]{"PaymentID", "CardExpirationDate", "CardNumber", "Method", "Amount", "CreditCard", "CardOwner",
+                "Date", "CustomerID", "OrderID"},
+            Types.INTEGER, Types.DATE, Types.VARCHAR, Types.VARCHAR, Types.DECIMAL, Types.BOOLEAN, Types.VARCHAR,
+            Types.DATE, Types.INTEGER, Types.INTEGER) {
+        @Override
+        Object[] map(Row row) {
+            String creditCard = row.code("Credit Card?");
+            return new Object[]{
+                row.integer("ID"), row.date("Expiration Date"), row.code("Card Number"), row.text("Method"),
+                row.decimal("Amount"), creditCard == null ? null : !creditCard.equals("0"), row.text("Cardholder"),
+                row.date("PaymentDate"), row.integer("Customer ID"), row.integer("Order ID")
+            };
+        }
+    };
+
+    /**
+     * One sheet row with its cells looked up by header name.
+     * Bad values are reported with the sheet and row they came from.
+     */
+    private static class Row {
+        private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+        private final String sheetName;
+        private final int rowNumber;
+        private final Map<String, Integer> header;
+        private final String[] cells;
+
+        Row(String sheetName, int rowNumber, Map<String, Integer> header, String[] cells) {
+            this.sheetName = sheetName;
+            this.rowNumber = rowNumber;
+            this.header = header;
+            this.cells = cells;
+        }
+
+        boolean isBlank() {
+            for (String cell : cells) {
+                if (cell != null && !cell.trim().isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Gets a cell as text, null if it is empty
+         */
+        String text(String column) {
+            Integer index = header.get(column);
+            if (index == null) {
+                throw new IllegalArgumentException(sheetName + " sheet has no \"" + column + "\" column");
+            }
+            if (index >= cells.length || cells[index] == null) {
+                return null;
+            }
+            String value = cells[index].trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * Gets a cell holding a code such as a zip or phone number, without the ".0" Excel
+         * adds when it was typed in as a number
+         */
+        String code(String column) {
+            String value = text(column);
+            if (value != null && value.endsWith(".0")) {
+                return value.substring(0, value.length() - 2);
+            }
+            return value;
+        }
+
+        /**
+         * Gets a whole number cell, null if it is empty
+         */
+        Integer integer(String column) {
+            String value = text(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return (int) Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw bad(column, value);
+            }
+        }
+
+        /**
+         * Gets a decimal cell, null if it is empty
+         */
+        BigDecimal decimal(String column) {
+            String value = text(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw bad(column, value);
+            }
+        }
+
+        /**
+         * Gets a date typed in either as yyyy-mm-dd text or as an Excel date serial number
+         */
+        Date date(String column) {
+            String value = text(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                if (value.indexOf('-') > 0) {
+                    return Date.valueOf(value);
+                }
+                return Date.valueOf(EXCEL_EPOCH.plusDays((long) Double.parseDouble(value)));
+            } catch (IllegalArgumentException e) {
+                throw bad(column, value);
+            }
+        }
+
+        private IllegalArgumentException bad(String column, String value) {
+            return new IllegalArgumentException(sheetName + " row " + rowNumber + ": \"" + value
+                + "\" is not a valid " + column);
+        }
+    }
+
+    /**
+     * Imports a workbook from the command line
+     * @param args The workbook path and optionally the batch size
+     */
+    public static void main(String[] args) {
+        File file = new File(args.length > 0 ? args[0] : "Home Products Raw Data.xlsx");
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BATCH_SIZE;
+
+        BulkImporter importer = new BulkImporter(batchSize, (sheetName, rowsImported, finished) -> {
+            if (finished) {
+                System.out.println(sheetName + ": " + rowsImported + " rows imported");
+            } else {
+                System.out.println(sheetName + ": " + rowsImported + " rows...");
+            }
+        });
+
+        long start = System.nanoTime();
+        try {
+            long total = importer.importWorkbook(file);
+            System.out.println("Imported " + total + " rows in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+}
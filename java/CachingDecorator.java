@@ -0,0 +1,146 @@
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Caches the answers to a repository's lookups that return plain values (counts, totals, exists checks).
+ * Only numbers, booleans and strings are cached, since they cannot be changed by whoever gets them;
+ * model objects always go through to the repository. A "false" answer is never cached, so rows
+ * added by other clerks are found straight away. Calling a write (add, edit, place, update, delete)
+ * empties the caches of every repository it decorates, and answers expire after a fixed time to
+ * pick up changes made elsewhere. Any other call goes straight through and leaves the caches alone.
+ * @author Ethan C and Aarav S
+ */
+public class CachingDecorator implements RepositoryDecorator {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final List<ReadThroughCache<List<Object>, Object>> caches = new ArrayList<>();
+
+    /**
+     * Creates the decorator
+     * @param maxEntries The most answers kept per repository
+     * @param ttlMillis How long an answer is used for
+     */
+    public CachingDecorator(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Override
+    public <T> T decorate(Class<T> type, T repository) {
+        ReadThroughCache<List<Object>, Object> cache = new ReadThroughCache<>(type.getSimpleName(), maxEntries, ttlMillis);
+        synchronized (caches) {
+            caches.add(cache);
+        }
+
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(repository, args);
+            }
+            if (isWrite(method)) {
+                try {
+                    return call(repository, method, args);
+                } finally {
+                    // Something may have changed, whether or not it worked, and a change to one
+                    // repository can show up in another (an order lowers the units on hand)
+                    invalidateAll();
+                }
+            }
+            if (!isCacheable(method)) {
+                return call(repository, method, args);
+            }
+
+            List<Object> key = new ArrayList<>();
+            key.add(method.getName());
+            if (args != null) {
+                key.addAll(Arrays.asList(args));
+            }
+            Object value;
+            try {
+                value = cache.get(key, k -> {
+                    try {
+                        Object loaded = call(repository, method, args);
+                        return Boolean.FALSE.equals(loaded) ? null : loaded;
+                    } catch (Throwable e) {
+                        throw new CallFailedException(e);
+                    }
+                });
+            } catch (CallFailedException e) {
+                throw e.getCause();
+            }
+            // false was left out of the cache as null
+            if (value == null && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                return Boolean.FALSE;
+            }
+            return value;
+        });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Empties every repository's cache
+     */
+    public void invalidateAll() {
+        synchronized (caches) {
+            for (ReadThroughCache<List<Object>, Object> cache : caches) {
+                cache.invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * Gets the hit and miss counts of every repository's cache
+     * @return One line per repository
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        synchronized (caches) {
+            for (ReadThroughCache<List<Object>, Object> cache : caches) {
+                report.append(cache.report());
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes are add..., edit..., place..., update... and delete... methods
+     */
+    private static boolean isWrite(Method method) {
+        String name = method.getName();
+        return name.startsWith("add") || name.startsWith("edit") || name.startsWith("place")
+            || name.startsWith("update") || name.startsWith("delete");
+    }
+
+    /**
+     * Lookups are get..., exists... and is... methods returning a value nobody can change
+     */
+    private static boolean isCacheable(Method method) {
+        String name = method.getName();
+        if (!name.startsWith("get") && !name.startsWith("exists") && !name.startsWith("is")) {
+            return false;
+        }
+        Class<?> type = method.getReturnType();
+        return (type.isPrimitive() && type != void.class) || type == String.class
+            || Number.class.isAssignableFrom(type) || type == Boolean.class;
+    }
+
+    private static Object call(Object repository, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(repository, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Carries a failure out of the cache's loader so the caller sees the original exception
+     */
+    private static class CallFailedException extends RuntimeException {
+        private CallFailedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
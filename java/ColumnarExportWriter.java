@@ -0,0 +1,225 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Writes exported rows in a compact column by column binary format (".hpc").
+ * Rows are gathered into groups of ROW_GROUP_SIZE and each group is written one column after another,
+ * so only one group is ever held in memory. Whole numbers, dates and decimals are stored as
+ * variable length integers, which keeps IDs, quantities and prices to a byte or two each.
+ * <p>
+ * Layout, all numbers big endian:
+ * <ul>
+ * <li>Header: the bytes "HPC1", the column count as a varint, then for each column its name
+ * (DataOutput.writeUTF), its type byte and its decimal scale byte</li>
+ * <li>Row groups: the group's row count as a varint, then for each column a null bitmap of
+ * (rows + 7) / 8 bytes (bit set means NULL, lowest bit first) followed by its non null values</li>
+ * <li>End: a row count of 0, then the total number of rows as an 8 byte long, only written by finish()
+ * so a file without it was not completed</li>
+ * </ul>
+ * Values: LONG, DATE (days since 1970-01-01) and DECIMAL (the value times 10^scale) are zig-zag
+ * varints, DOUBLE is 8 bytes, STRING is a varint byte length followed by UTF-8 bytes.
+ * @author Ethan C and Aarav S
+ */
+public class ColumnarExportWriter implements DataExporter.RowWriter {
+    public static final int ROW_GROUP_SIZE = 8192;
+    public static final byte TYPE_LONG = 1;
+    public static final byte TYPE_DECIMAL = 2;
+    public static final byte TYPE_DOUBLE = 3;
+    public static final byte TYPE_DATE = 4;
+    public static final byte TYPE_STRING = 5;
+    private static final byte[] MAGIC = {'H', 'P', 'C', '1'};
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final DataOutputStream out;
+    private byte[] types;
+    private int[] scales;
+    // One group of values per column, only the array matching the column's type is used
+    private long[][] longValues;
+    private double[][] doubleValues;
+    private String[][] stringValues;
+    private boolean[][] nulls;
+    private int rowsInGroup;
+    private long totalRows;
+
+    /**
+     * Creates the file, replacing it if it exists. The file is only complete once finish() is called
+     * @param file The file to write
+     * @throws IOException If the file could not be created
+     */
+    public ColumnarExportWriter(Path file) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    @Override
+    public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+        int columns = metaData.getColumnCount();
+        types = new byte[columns];
+        scales = new int[columns];
+        longValues = new long[columns][];
+        doubleValues = new double[columns][];
+        stringValues = new String[columns][];
+        nulls = new boolean[columns][ROW_GROUP_SIZE];
+
+        out.write(MAGIC);
+        writeVarInt(columns);
+        for (int i = 0; i < columns; i++) {
+            types[i] = typeOf(metaData.getColumnType(i + 1));
+            scales[i] = types[i] == TYPE_DECIMAL ? Math.max(0, metaData.getScale(i + 1)) : 0;
+            if (types[i] == TYPE_DOUBLE) {
+                doubleValues[i] = new double[ROW_GROUP_SIZE];
+            } else if (types[i] == TYPE_STRING) {
+                stringValues[i] = new String[ROW_GROUP_SIZE];
+            } else {
+                longValues[i] = new long[ROW_GROUP_SIZE];
+            }
+
+            out.writeUTF(metaData.getColumnLabel(i + 1));
+            out.writeByte(types[i]);
+            out.writeByte(scales[i]);
+        }
+    }
+
+    @Override
+    public void write(ResultSet resultSet) throws SQLException, IOException {
+        int row = rowsInGroup;
+        for (int i = 0; i < types.length; i++) {
+            int column = i + 1;
+            switch (types[i]) {
+                case TYPE_LONG:
+                    longValues[i][row] = resultSet.getLong(column);
+                    break;
+                case TYPE_DECIMAL:
+                    BigDecimal decimal = resultSet.getBigDecimal(column);
+                    longValues[i][row] = decimal == null ? 0
+                        : decimal.setScale(scales[i], RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                    break;
+                case TYPE_DOUBLE:
+                    doubleValues[i][row] = resultSet.getDouble(column);
+                    break;
+                case TYPE_DATE:
+                    Date date = resultSet.getDate(column);
+                    longValues[i][row] = date == null ? 0 : date.toLocalDate().toEpochDay();
+                    break;
+                default:
+                    stringValues[i][row] = resultSet.getString(column);
+                    break;
+            }
+            nulls[i][row] = resultSet.wasNull();
+        }
+
+        if (++rowsInGroup == ROW_GROUP_SIZE) {
+            flushGroup();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (types != null) {
+            flushGroup();
+            writeVarInt(0);
+            out.writeLong(totalRows);
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Writes the rows gathered so far column by column
+     */
+    private void flushGroup() throws IOException {
+        if (rowsInGroup == 0) {
+            return;
+        }
+        int rows = rowsInGroup;
+        writeVarInt(rows);
+        byte[] bitmap = new byte[(rows + 7) / 8];
+        for (int i = 0; i < types.length; i++) {
+            Arrays.fill(bitmap, (byte) 0);
+            for (int row = 0; row < rows; row++) {
+                if (nulls[i][row]) {
+                    bitmap[row >> 3] |= (byte) (1 << (row & 7));
+                }
+            }
+            out.write(bitmap);
+
+            for (int row = 0; row < rows; row++) {
+                if (nulls[i][row]) {
+                    continue;
+                }
+                if (types[i] == TYPE_DOUBLE) {
+                    out.writeDouble(doubleValues[i][row]);
+                } else if (types[i] == TYPE_STRING) {
+                    byte[] bytes = stringValues[i][row].getBytes(StandardCharsets.UTF_8);
+                    writeVarInt(bytes.length);
+                    out.write(bytes);
+                } else {
+                    writeVarLong(longValues[i][row]);
+                }
+            }
+            if (stringValues[i] != null) {
+                // Let the strings of this group be collected
+                Arrays.fill(stringValues[i], 0, rows, null);
+            }
+        }
+        totalRows += rows;
+        rowsInGroup = 0;
+    }
+
+    private static byte typeOf(int sqlType) {
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return TYPE_LONG;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return TYPE_DECIMAL;
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return TYPE_DOUBLE;
+            case Types.DATE:
+                return TYPE_DATE;
+            default:
+                return TYPE_STRING;
+        }
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        writeUnsigned(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Zig-zag encodes so small negative numbers stay small too
+     */
+    private void writeVarLong(long value) throws IOException {
+        writeUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    private void writeUnsigned(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,271 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Works out the commission owed to every sales rep for a period and saves it to tblCommissionPayout.
+ * The period is split into date slices that are read at the same time, each on its own pooled
+ * connection. Each slice streams its order lines row by row and adds them up per rep, so memory
+ * use depends on the number of reps rather than the number of lines. The slices' totals are then
+ * merged, multiplied by each rep's commission rate and written in batches in one transaction,
+ * replacing any payouts already saved for the period.
+ * @author Ethan C and Aarav S
+ */
+public class CommissionJob {
+    public static final int DEFAULT_WORKERS = 4;
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final int workers;
+    private final int batchSize;
+
+    /**
+     * Creates a job
+     * @param workers How many date slices to read at once, keep under the connection pool size
+     * @param batchSize How many payouts to write per batch
+     */
+    public CommissionJob(int workers, int batchSize) {
+        if (workers < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Workers and batch size must be at least 1");
+        }
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Method to work out and save the commission for a period
+     * @param start The first day of the period
+     * @param end The day after the last day of the period
+     * @return The payouts saved, one per rep with sales in the period
+     * @throws SQLException If the orders could not be read or the payouts could not be saved
+     * @throws InterruptedException If the job was interrupted while the slices were read
+     */
+    public List<CommissionPayout> run(LocalDate start, LocalDate end) throws SQLException, InterruptedException {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("The period must end after it starts");
+        }
+
+        Map<Integer, RepTotals> totals = readTotals(start, end);
+        List<CommissionPayout> payouts = toPayouts(totals, start, end);
+        save(payouts, start);
+        return payouts;
+    }
+
+    /**
+     * Reads the period's order lines in parallel slices and merges each slice's per rep totals
+     */
+    private Map<Integer, RepTotals> readTotals(LocalDate start, LocalDate end) throws SQLException, InterruptedException {
+        long days = ChronoUnit.DAYS.between(start, end);
+        int slices = (int) Math.min(workers, days);
+        ExecutorService executor = Executors.newFixedThreadPool(slices, r -> {
+            Thread thread = new Thread(r, "CommissionJob-slice");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Map<Integer, RepTotals>>> futures = new ArrayList<>();
+            for (int i = 0; i < slices; i++) {
+                LocalDate sliceStart = start.plusDays(days * i / slices);
+                LocalDate sliceEnd = start.plusDays(days * (i + 1) / slices);
+                futures.add(executor.submit(() -> readSlice(sliceStart, sliceEnd)));
+            }
+
+            // An order has one date so it is only ever in one slice, the totals just add up
+            Map<Integer, RepTotals> totals = new HashMap<>();
+            for (Future<Map<Integer, RepTotals>> future : futures) {
+                for (Map.Entry<Integer, RepTotals> entry : future.get().entrySet()) {
+                    totals.computeIfAbsent(entry.getKey(), key -> new RepTotals()).add(entry.getValue());
+                }
+            }
+            return totals;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException("Could not read the commission period", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Streams one slice's order lines and adds them up per rep
+     */
+    private static Map<Integer, RepTotals> readSlice(LocalDate start, LocalDate end) throws SQLException {
+        Map<Integer, RepTotals> totals = new HashMap<>();
+        BitSet ordersSeen = new BitSet();
+        // Lines come back as whole cents so nothing is allocated per row
+        String query = "SELECT C.SalesRepID, O.OrderID, " +
+            "CAST(ROUND(PO.QuantityOrdered * PO.QuotedPrice * 100) AS SIGNED) AS LineCents " +
+            "FROM tblOrder AS O " +
+            "JOIN tblCustomer AS C ON C.CustomerID = O.CustomerID " +
+            "JOIN tblProductsOrder AS PO ON PO.OrderID = O.OrderID " +
+            "WHERE O.Date >= ? AND O.Date < ?";
+
+        //Connecting to SQL DB, not instrumented as QueryStats would add a proxy call to every row
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Streams rows instead of reading the whole result into memory
+            preparedStatement.setFetchSize(DatabaseConfig.getStreamingFetchSize());
+            preparedStatement.setDate(1, Date.valueOf(start));
+            preparedStatement.setDate(2, Date.valueOf(end));
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RepTotals current = null;
+                int currentRep = 0;
+                while (resultSet.next()) {
+                    int salesRepId = resultSet.getInt(1);
+                    int orderId = resultSet.getInt(2);
+                    if (current == null || salesRepId != currentRep) {
+                        currentRep = salesRepId;
+                        current = totals.computeIfAbsent(salesRepId, key -> new RepTotals());
+                    }
+                    current.cents += resultSet.getLong(3);
+                    current.lineItems++;
+                    if (!ordersSeen.get(orderId)) {
+                        ordersSeen.set(orderId);
+                        current.orders++;
+                    }
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Applies each rep's commission rate to their totals
+     */
+    private static List<CommissionPayout> toPayouts(Map<Integer, RepTotals> totals, LocalDate start, LocalDate end) {
+        List<CommissionPayout> payouts = new ArrayList<>(totals.size());
+        for (Map.Entry<Integer, RepTotals> entry : totals.entrySet()) {
+            SalesRep salesRep = SalesRepService.getSalesRepByID(entry.getKey());
+            if (salesRep == null) {
+                System.err.println("Skipping commission for unknown sales rep " + entry.getKey());
+                continue;
+            }
+            RepTotals repTotals = entry.getValue();
+            BigDecimal sales = BigDecimal.valueOf(repTotals.cents, 2);
+            BigDecimal rate = BigDecimal.valueOf(salesRep.getCommission());
+
+            CommissionPayout payout = new CommissionPayout();
+            payout.setSalesRepID(salesRep.getSalesRepID());
+            payout.setPeriodStart(Date.valueOf(start));
+            payout.setPeriodEnd(Date.valueOf(end));
+            payout.setOrders(repTotals.orders);
+            payout.setLineItems(repTotals.lineItems);
+            payout.setSales(sales.doubleValue());
+            payout.setRate(salesRep.getCommission());
+            payout.setCommission(sales.multiply(rate).setScale(2, RoundingMode.HALF_UP).doubleValue());
+            payouts.add(payout);
+        }
+        payouts.sort((a, b) -> Integer.compare(a.getSalesRepID(), b.getSalesRepID()));
+        return payouts;
+    }
+
+    /**
+     * Replaces the period's payouts, all or nothing
+     */
+    private void save(List<CommissionPayout> payouts, LocalDate start) throws SQLException {
+        String deleteQuery = "DELETE FROM tblCommissionPayout WHERE PeriodStart = ?";
+        String insertQuery = "INSERT INTO tblCommissionPayout " +
+            "(SalesRepID, PeriodStart, PeriodEnd, Orders, LineItems, Sales, Rate, Commission) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("CommissionJob.save")) {
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(deleteQuery)) {
+                    preparedStatement.setDate(1, Date.valueOf(start));
+                    preparedStatement.executeUpdate();
+                }
+
+                try (PreparedStatement preparedStatement = connection.prepareStatement(insertQuery)) {
+                    int pending = 0;
+                    for (CommissionPayout payout : payouts) {
+                        preparedStatement.setInt(1, payout.getSalesRepID());
+                        preparedStatement.setDate(2, payout.getPeriodStart());
+                        preparedStatement.setDate(3, payout.getPeriodEnd());
+                        preparedStatement.setInt(4, payout.getOrders());
+                        preparedStatement.setInt(5, payout.getLineItems());
+                        preparedStatement.setBigDecimal(6, BigDecimal.valueOf(payout.getSales()));
+                        preparedStatement.setBigDecimal(7, BigDecimal.valueOf(payout.getRate()));
+                        preparedStatement.setBigDecimal(8, BigDecimal.valueOf(payout.getCommission()));
+                        preparedStatement.addBatch();
+                        if (++pending == batchSize) {
+                            preparedStatement.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    preparedStatement.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Running totals for one rep
+     */
+    private static class RepTotals {
+        private long cents;
+        private int lineItems;
+        private int orders;
+
+        private void add(RepTotals other) {
+            cents += other.cents;
+            lineItems += other.lineItems;
+            orders += other.orders;
+        }
+    }
+
+    /**
+     * Runs the commission for a month, the previous month if none is given
+     * @param args The month as yyyy-MM, then optionally the number of workers
+     */
+    public static void main(String[] args) {
+        YearMonth month = args.length > 0 ? YearMonth.parse(args[0]) : YearMonth.now().minusMonths(1);
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_WORKERS;
+
+        long start = System.nanoTime();
+        try {
+            List<CommissionPayout> payouts = new CommissionJob(workers, DEFAULT_BATCH_SIZE)
+                .run(month.atDay(1), month.plusMonths(1).atDay(1));
+
+            long lineItems = 0;
+            BigDecimal commission = BigDecimal.ZERO;
+            for (CommissionPayout payout : payouts) {
+                lineItems += payout.getLineItems();
+                commission = commission.add(BigDecimal.valueOf(payout.getCommission()));
+            }
+            System.out.println(month + ": " + payouts.size() + " payouts from " + lineItems + " order lines, $"
+                + commission + " commission in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+}
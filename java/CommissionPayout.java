@@ -0,0 +1,167 @@
+import java.sql.Date;
+
+/**
+ * Represents the commission owed to one sales rep for one period, as stored in tblCommissionPayout.
+ * @author Ethan C and Aarav S
+ * @version 1.0
+ */
+public class CommissionPayout {
+    private int salesRepID;
+    private Date periodStart;
+    private Date periodEnd;
+    private int orders;
+    private int lineItems;
+    private double sales;
+    private double rate;
+    private double commission;
+
+    /**
+     * Default constructor for creating a CommissionPayout object with no initial values.
+     */
+    public CommissionPayout() {
+    }
+
+    /**
+     * Gets the ID of the sales rep being paid.
+     *
+     * @return the sales rep ID as an integer.
+     */
+    public int getSalesRepID() {
+        return salesRepID;
+    }
+
+    /**
+     * Sets the ID of the sales rep being paid.
+     *
+     * @param salesRepID the sales rep ID to set.
+     */
+    public void setSalesRepID(int salesRepID) {
+        this.salesRepID = salesRepID;
+    }
+
+    /**
+     * Gets the first day of the period.
+     *
+     * @return the period start as a Date.
+     */
+    public Date getPeriodStart() {
+        return periodStart;
+    }
+
+    /**
+     * Sets the first day of the period.
+     *
+     * @param periodStart the period start to set.
+     */
+    public void setPeriodStart(Date periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    /**
+     * Gets the day after the last day of the period.
+     *
+     * @return the period end as a Date.
+     */
+    public Date getPeriodEnd() {
+        return periodEnd;
+    }
+
+    /**
+     * Sets the day after the last day of the period.
+     *
+     * @param periodEnd the period end to set.
+     */
+    public void setPeriodEnd(Date periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    /**
+     * Gets the number of orders placed by the rep's customers in the period.
+     *
+     * @return the order count.
+     */
+    public int getOrders() {
+        return orders;
+    }
+
+    /**
+     * Sets the number of orders placed by the rep's customers in the period.
+     *
+     * @param orders the order count to set.
+     */
+    public void setOrders(int orders) {
+        this.orders = orders;
+    }
+
+    /**
+     * Gets the number of order lines in those orders.
+     *
+     * @return the line item count.
+     */
+    public int getLineItems() {
+        return lineItems;
+    }
+
+    /**
+     * Sets the number of order lines in those orders.
+     *
+     * @param lineItems the line item count to set.
+     */
+    public void setLineItems(int lineItems) {
+        this.lineItems = lineItems;
+    }
+
+    /**
+     * Gets the total of the order lines the commission is paid on.
+     *
+     * @return the sales total as a double.
+     */
+    public double getSales() {
+        return sales;
+    }
+
+    /**
+     * Sets the total of the order lines the commission is paid on.
+     *
+     * @param sales the sales total to set.
+     */
+    public void setSales(double sales) {
+        this.sales = sales;
+    }
+
+    /**
+     * Gets the commission rate the payout was worked out with.
+     *
+     * @return the rate as a double.
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Sets the commission rate the payout was worked out with.
+     *
+     * @param rate the rate to set.
+     */
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    /**
+     * Gets the amount owed to the rep.
+     *
+     * @return the commission as a double.
+     */
+    public double getCommission() {
+        return commission;
+    }
+
+    /**
+     * Sets the amount owed to the rep.
+     *
+     * @param commission the commission to set.
+     */
+    public void setCommission(double commission) {
+        this.commission = commission;
+    }
+}
@@ -0,0 +1,464 @@
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * A small bounded JDBC connection pool.
+ * Connections handed out are proxies, so closing them (for example at the end of a
+ * try-with-resources block in a service method) returns the physical connection to the pool
+ * instead of tearing it down. Only connections that sat idle for a while are checked before they are
+ * lent out, as the check is a round trip to the server, and where a connection was borrowed is only
+ * recorded when leak detection is turned on.
+ * @author Ethan C and Aarav S
+ */
+public class ConnectionPool implements DataSource {
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int validationTimeoutSeconds;
+    private final long validateAfterIdleMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private int totalConnections;
+    private boolean shutdown;
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    /**
+     * Creates a pool and starts its housekeeping thread.
+     * @param url The JDBC url
+     * @param username The database username
+     * @param password The database password
+     * @param minSize Number of idle connections kept open
+     * @param maxSize Maximum number of connections open at once
+     * @param borrowTimeoutMillis How long a caller waits for a free connection
+     * @param idleTimeoutMillis How long an idle connection above the minimum is kept
+     * @param leakThresholdMillis How long a connection can be held before it is reported as leaked, 0 to not check
+     * @param validationTimeoutSeconds Timeout for the validity check done on borrow
+     * @param validateAfterIdleMillis How long a connection must have been idle to be checked on borrow
+     */
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+            long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis, int validationTimeoutSeconds,
+            long validateAfterIdleMillis) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+
+        // Daemon thread so the pool never keeps the application alive
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ConnectionPool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, (isLeakDetectionOn() ? Math.min(idleTimeoutMillis, leakThresholdMillis) : idleTimeoutMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout if the pool is exhausted.
+     * @return A pooled connection that must be closed to be returned
+     * @throws SQLException If no valid connection could be obtained
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        long deadline = System.currentTimeMillis() + borrowTimeoutMillis;
+        while (true) {
+            PooledConnection pooled = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (pooled == null && !create) {
+                    if (shutdown) {
+                        throw new SQLException("Connection pool has been shut down");
+                    }
+                    if (!idle.isEmpty()) {
+                        pooled = idle.pollFirst();
+                    } else if (totalConnections < maxSize) {
+                        // Reserve the slot now, open the connection outside the lock
+                        totalConnections++;
+                        create = true;
+                    } else {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            throw new SQLException("Timed out after " + borrowTimeoutMillis
+                                + " ms waiting for a database connection (pool size " + maxSize + ")");
+                        }
+                        try {
+                            available.await(remaining, TimeUnit.MILLISECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while waiting for a database connection", e);
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    pooled = new PooledConnection(DriverManager.getConnection(url, username, password));
+                } catch (SQLException e) {
+                    discard(null);
+                    throw e;
+                }
+            } else if (System.currentTimeMillis() - pooled.lastReturned > validateAfterIdleMillis && !isValid(pooled)) {
+                // Stale connection (server restart, wait_timeout) - drop it and try again
+                // One returned moments ago is not checked, it was working then
+                discard(pooled);
+                continue;
+            }
+            return pooled.lend();
+        }
+    }
+
+    /**
+     * Not supported, the pool only uses the credentials it was created with.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("ConnectionPool does not support per-call credentials");
+    }
+
+    /**
+     * Closes every idle connection and stops handing out new ones.
+     * Borrowed connections are closed as they are returned.
+     */
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            shutdown = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            totalConnections -= toClose.size();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            pooled.closePhysical();
+        }
+    }
+
+    /**
+     * Gets the number of open physical connections.
+     * @return The total number of connections, idle and borrowed
+     */
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of idle connections.
+     * @return The number of connections waiting in the pool
+     */
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of connections currently lent out.
+     * @return The number of borrowed connections
+     */
+    public int getBorrowedConnections() {
+        return borrowed.size();
+    }
+
+    private boolean isLeakDetectionOn() {
+        return leakThresholdMillis > 0;
+    }
+
+    /**
+     * Checks a connection before it is lent out.
+     * @param pooled The connection to check
+     * @return True if the connection is still usable
+     */
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Puts a returned connection back in the idle queue.
+     * @param pooled The connection being returned
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+
+        // Never hand the next caller a connection in the middle of a transaction
+        try {
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (!shutdown) {
+                pooled.lastReturned = System.currentTimeMillis();
+                idle.addFirst(pooled);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(pooled);
+    }
+
+    /**
+     * Closes a connection and frees its slot in the pool.
+     * @param pooled The connection to drop, or null if only a reserved slot should be freed
+     */
+    private void discard(PooledConnection pooled) {
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (pooled != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    /**
+     * Evicts idle connections above the minimum, tops the pool back up to the minimum
+     * and reports connections held past the leak threshold.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+        int missing;
+
+        lock.lock();
+        try {
+            // Oldest idle connections sit at the end of the deque
+            Iterator<PooledConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && totalConnections - evicted.size() > minSize) {
+                PooledConnection pooled = iterator.next();
+                if (now - pooled.lastReturned < idleTimeoutMillis) {
+                    break;
+                }
+                iterator.remove();
+                evicted.add(pooled);
+            }
+            totalConnections -= evicted.size();
+            missing = shutdown ? 0 : minSize - totalConnections;
+            if (missing > 0) {
+                totalConnections += missing;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : evicted) {
+            pooled.closePhysical();
+        }
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                PooledConnection pooled = new PooledConnection(DriverManager.getConnection(url, username, password));
+                pooled.lastReturned = System.currentTimeMillis();
+                lock.lock();
+                try {
+                    idle.addLast(pooled);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                discard(null);
+            }
+        }
+
+        if (!isLeakDetectionOn()) {
+            return;
+        }
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                System.err.println("Possible connection leak: connection held for " + (now - pooled.borrowedAt) + " ms");
+                pooled.borrowTrace.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("ConnectionPool does not use java.util.logging");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool does not wrap " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A physical connection owned by the pool along with its bookkeeping.
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private long lastReturned;
+        // Read by the housekeeper without the lock
+        private volatile long borrowedAt;
+        private volatile boolean leakReported;
+        private volatile Throwable borrowTrace;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Marks the connection as borrowed and wraps it in a fresh handle.
+         * @return The handle given to the caller
+         */
+        private Connection lend() {
+            borrowedAt = System.currentTimeMillis();
+            leakReported = false;
+            // Filling in a stack trace on every borrow is costly, only do it when someone will read it
+            borrowTrace = isLeakDetectionOn() ? new Throwable("Connection borrowed here") : null;
+            borrowed.add(this);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Handle(this));
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Proxy handler for a borrowed connection. close() returns the connection to the pool,
+     * and the handle refuses to be used after that.
+     */
+    private class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Writes exported rows as UTF-8 CSV with a header line.
+ * Values are written as MySQL returns them as text, so decimals keep their exact digits and
+ * dates are yyyy-MM-dd. Values holding commas, quotes or line breaks are quoted, NULL is left empty.
+ * @author Ethan C and Aarav S
+ */
+public class CsvExportWriter implements DataExporter.RowWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedWriter out;
+    private int columns;
+
+    /**
+     * Creates the file, replacing it if it exists
+     * @param file The file to write
+     * @throws IOException If the file could not be created
+     */
+    public CsvExportWriter(Path file) throws IOException {
+        out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+        columns = metaData.getColumnCount();
+        for (int column = 1; column <= columns; column++) {
+            if (column > 1) {
+                out.write(',');
+            }
+            writeValue(metaData.getColumnLabel(column));
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void write(ResultSet resultSet) throws SQLException, IOException {
+        for (int column = 1; column <= columns; column++) {
+            if (column > 1) {
+                out.write(',');
+            }
+            writeValue(resultSet.getString(column));
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+
+        // Quotes inside a quoted value are doubled
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Represents the running totals kept for a customer in tblCustomerBalance:
+ * the value of every order line they have placed and every payment they have made.
+ * @author Ethan C and Aarav S
+ * @version 1.0
+ */
+public class CustomerBalance {
+    private int customerID;
+    private double lifetimeOrderTotal;
+    private double paymentTotal;
+
+    /**
+     * Default constructor for creating a CustomerBalance object with no initial values.
+     */
+    public CustomerBalance() {
+    }
+
+    /**
+     * Creates a balance with its totals.
+     *
+     * @param customerID the ID of the customer.
+     * @param lifetimeOrderTotal the total of all the customer's order lines.
+     * @param paymentTotal the total of all the customer's payments.
+     */
+    public CustomerBalance(int customerID, double lifetimeOrderTotal, double paymentTotal) {
+        this.customerID = customerID;
+        this.lifetimeOrderTotal = lifetimeOrderTotal;
+        this.paymentTotal = paymentTotal;
+    }
+
+    /**
+     * Gets the ID of the customer.
+     *
+     * @return the customer ID as an integer.
+     */
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    /**
+     * Sets the ID of the customer.
+     *
+     * @param customerID the customer ID to set.
+     */
+    public void setCustomerID(int customerID) {
+        this.customerID = customerID;
+    }
+
+    /**
+     * Gets the total of all the customer's order lines.
+     *
+     * @return the lifetime order total as a double.
+     */
+    public double getLifetimeOrderTotal() {
+        return lifetimeOrderTotal;
+    }
+
+    /**
+     * Sets the total of all the customer's order lines.
+     *
+     * @param lifetimeOrderTotal the lifetime order total to set.
+     */
+    public void setLifetimeOrderTotal(double lifetimeOrderTotal) {
+        this.lifetimeOrderTotal = lifetimeOrderTotal;
+    }
+
+    /**
+     * Gets the total of all the customer's payments.
+     *
+     * @return the payment total as a double.
+     */
+    public double getPaymentTotal() {
+        return paymentTotal;
+    }
+
+    /**
+     * Sets the total of all the customer's payments.
+     *
+     * @param paymentTotal the payment total to set.
+     */
+    public void setPaymentTotal(double paymentTotal) {
+        this.paymentTotal = paymentTotal;
+    }
+}
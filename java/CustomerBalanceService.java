@@ -0,0 +1,228 @@
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Customer balance service class.
+ * tblCustomerBalance holds each customer's lifetime order total and payment total. The totals are
+ * added to in the same transaction that writes an order line or payment, so reading a balance
+ * is one primary key lookup instead of a sum over the customer's whole order history.
+ * Balances read are cached for a minute, so orders taken by other clients show up, and are dropped
+ * as soon as this application changes the customer's totals. Callers get copies of the cached balances.
+ * @author Ethan C and Aarav S
+ */
+public class CustomerBalanceService
+{
+    private static final int MAX_CACHED_BALANCES = 10_000;
+    private static final long CACHE_TTL_MS = 60_000; //picks up orders and payments taken by other clients
+    private static final ReadThroughCache<Integer, CustomerBalance> BALANCES =
+        new ReadThroughCache<>("CustomerBalanceService.balances", MAX_CACHED_BALANCES, CACHE_TTL_MS);
+
+    /**
+     * Method to get a customer's balance
+     * @param customerId The customer's id
+     * @return A copy of the balance, all zero if the customer has no orders or payments yet
+     */
+    public static CustomerBalance getBalance(int customerId) {
+        CustomerBalance balance = BALANCES.get(customerId, CustomerBalanceService::loadBalance);
+        return balance != null ? copy(balance) : new CustomerBalance(customerId, 0, 0);
+    }
+
+    /**
+     * Reads one balance from the DB
+     * @return The balance, or null if it could not be read
+     */
+    private static CustomerBalance loadBalance(int customerId) {
+        //Initialize variables
+        CustomerBalance balance = new CustomerBalance(customerId, 0, 0);
+        String query = "SELECT LifetimeOrderTotal, PaymentTotal FROM tblCustomerBalance WHERE CustomerID = ?";
+
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("CustomerBalanceService.getBalance");
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            preparedStatement.setInt(1, customerId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    balance.setLifetimeOrderTotal(resultSet.getDouble("LifetimeOrderTotal"));
+                    balance.setPaymentTotal(resultSet.getDouble("PaymentTotal"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        return balance;
+    }
+
+    /**
+     * Adds to a customer's order total, run inside the transaction that writes the order lines
+     * @param connection The connection the transaction is on
+     * @param customerId The customer's id
+     * @param amount The value of the lines written
+     * @throws SQLException If the balance could not be updated
+     */
+    static void addOrderTotal(Connection connection, int customerId, BigDecimal amount) throws SQLException {
+        add(connection, customerId, amount, BigDecimal.ZERO);
+    }
+
+    /**
+     * Adds to a customer's payment total, run inside the transaction that writes the payment
+     * @param connection The connection the transaction is on
+     * @param customerId The customer's id
+     * @param amount The payment amount
+     * @throws SQLException If the balance could not be updated
+     */
+    static void addPaymentTotal(Connection connection, int customerId, BigDecimal amount) throws SQLException {
+        add(connection, customerId, BigDecimal.ZERO, amount);
+    }
+
+    /**
+     * Gets a value to pass to cache() once a balance has been read
+     * @return The current change count
+     */
+    static long changeCount() {
+        return BALANCES.getGeneration();
+    }
+
+    /**
+     * Remembers a balance that was just read from the DB, unless a balance changed while it was read
+     * @param balance The balance
+     * @param changesBeforeRead What changeCount() returned before the read started
+     */
+    static void cache(CustomerBalance balance, long changesBeforeRead) {
+        BALANCES.put(balance.getCustomerID(), copy(balance), changesBeforeRead);
+    }
+
+    /**
+     * Drops a cached balance, called once a change to it has been committed
+     * @param customerId The customer's id
+     */
+    static void invalidate(int customerId) {
+        BALANCES.invalidate(customerId);
+    }
+
+    /**
+     * Method to get the balance cache's hit and miss counts
+     * @return One report line
+     */
+    public static String cacheReport() {
+        return BALANCES.report();
+    }
+
+    /**
+     * Method to work out every balance again from the orders and payments tables.
+     * Used after bulk loads that bypass the services, and to fill the table on an existing DB.
+     * @return True or false
+     */
+    public static boolean rebuild() {
+        String query = "INSERT INTO tblCustomerBalance (CustomerID, LifetimeOrderTotal, PaymentTotal) " +
+            "SELECT C.CustomerID, " +
+            "COALESCE((SELECT SUM(PO.QuantityOrdered * PO.QuotedPrice) FROM tblOrder AS O " +
+            "JOIN tblProductsOrder AS PO ON PO.OrderID = O.OrderID WHERE O.CustomerID = C.CustomerID), 0), " +
+            "COALESCE((SELECT SUM(P.Amount) FROM tblPayment AS P WHERE P.CustomerID = C.CustomerID), 0) " +
+            "FROM tblCustomer AS C";
+        boolean success = false;
+
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("CustomerBalanceService.rebuild");
+             Statement statement = connection.createStatement()) {
+
+            connection.setAutoCommit(false);
+            try {
+                statement.executeUpdate("DELETE FROM tblCustomerBalance");
+                statement.executeUpdate(query);
+                connection.commit();
+                success = true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        BALANCES.invalidateAll();
+        return success;
+    }
+
+    /**
+     * Method to fill tblCustomerBalance if it is empty while there are orders or payments, like after
+     * the sample data script was run, called at startup
+     * @return True if the balances were there or were filled in, false if they could not be
+     */
+    public static boolean prepare() {
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("CustomerBalanceService.prepare");
+             Statement statement = connection.createStatement()) {
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT CustomerID FROM tblCustomerBalance LIMIT 1")) {
+                if (resultSet.next()) {
+                    return true;
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT 1 FROM tblOrder UNION ALL SELECT 1 FROM tblPayment LIMIT 1")) {
+                if (!resultSet.next()) {
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+        return rebuild();
+    }
+
+    /**
+     * Works out every balance again in the database set with -Dhomeproducts.db.url
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        try {
+            System.out.println(rebuild() ? "Customer balances rebuilt" : "Customer balances could not be rebuilt");
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+
+    /**
+     * Adds to both totals, creating the customer's row the first time
+     */
+    private static void add(Connection connection, int customerId, BigDecimal orderAmount, BigDecimal paymentAmount)
+            throws SQLException {
+        String query;
+        if (DatabaseConfig.isMySql()) {
+            query = "INSERT INTO tblCustomerBalance (CustomerID, LifetimeOrderTotal, PaymentTotal) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE LifetimeOrderTotal = LifetimeOrderTotal + VALUES(LifetimeOrderTotal), " +
+                "PaymentTotal = PaymentTotal + VALUES(PaymentTotal)";
+        } else {
+            //Standard SQL upsert for embedded databases such as H2
+            query = "MERGE INTO tblCustomerBalance AS B " +
+                "USING (VALUES (CAST(? AS INT), CAST(? AS DECIMAL(14,2)), CAST(? AS DECIMAL(14,2)))) " +
+                "AS N (CustomerID, LifetimeOrderTotal, PaymentTotal) ON B.CustomerID = N.CustomerID " +
+                "WHEN MATCHED THEN UPDATE SET LifetimeOrderTotal = B.LifetimeOrderTotal + N.LifetimeOrderTotal, " +
+                "PaymentTotal = B.PaymentTotal + N.PaymentTotal " +
+                "WHEN NOT MATCHED THEN INSERT (CustomerID, LifetimeOrderTotal, PaymentTotal) " +
+                "VALUES (N.CustomerID, N.LifetimeOrderTotal, N.PaymentTotal)";
+        }
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setInt(1, customerId);
+            preparedStatement.setBigDecimal(2, orderAmount);
+            preparedStatement.setBigDecimal(3, paymentAmount);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Copies a balance, so callers changing their copy do not change the cache
+     */
+    private static CustomerBalance copy(CustomerBalance balance) {
+        return new CustomerBalance(balance.getCustomerID(), balance.getLifetimeOrderTotal(), balance.getPaymentTotal());
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything the customer screen shows for one customer, read together by
+ * CustomerService.getCustomerDetail. The lists cannot be changed, but the Customer,
+ * Order and Payment beans in it can. It is safe to hand from the background thread to
+ * the EDT because it is published once through SwingWorker.get() and not changed after,
+ * so callers must not modify the beans.
+ * @author Ethan C and Aarav S
+ * @version 1.0
+ */
+public final class CustomerDetail {
+    private final Customer customer;
+    private final CustomerBalance balance;
+    private final List<Payment> payments;
+    private final List<Order> orders;
+
+    /**
+     * Creates a snapshot of a customer's details.
+     *
+     * @param customer the customer's header information.
+     * @param balance the customer's order and payment totals.
+     * @param payments the customer's payments.
+     * @param orders the first page of the customer's order summaries, newest first.
+     */
+    public CustomerDetail(Customer customer, CustomerBalance balance, List<Payment> payments, List<Order> orders) {
+        this.customer = customer;
+        this.balance = balance;
+        this.payments = Collections.unmodifiableList(payments);
+        this.orders = Collections.unmodifiableList(orders);
+    }
+
+    /**
+     * Gets the customer's header information.
+     *
+     * @return the customer.
+     */
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Gets the customer's order and payment totals.
+     *
+     * @return the balance.
+     */
+    public CustomerBalance getBalance() {
+        return balance;
+    }
+
+    /**
+     * Gets the customer's payments.
+     *
+     * @return a read-only list of payments.
+     */
+    public List<Payment> getPayments() {
+        return payments;
+    }
+
+    /**
+     * Gets the first page of the customer's order summaries.
+     *
+     * @return a read-only list of orders, newest first.
+     */
+    public List<Order> getOrders() {
+        return orders;
+    }
+}
@@ -9,7 +9,9 @@ import java.util.regex.*;
  * This class implements a modern, professional design with validation and user-friendly features.
  * @author Ethan C and Aarav S
  */
-public class CustomerEditPresentation extends JFrame {
+public class CustomerEditPresentation extends JFrame implements ReusableWindow {
+    private final CustomerRepository customerRepository = AppContext.get().getCustomers();
+    private final SalesRepRepository salesRepRepository = AppContext.get().getSalesReps();
 
     // Color scheme constants for UI theming
     private static final Color PRIMARY_COLOR = new Color(41, 128, 185); // Professional blue
@@ -42,18 +44,7 @@ public class CustomerEditPresentation extends JFrame {
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         // Main panel with gradient background
-        JPanel mainPanel = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                
-                // Solid blue-grey background
-                g2d.setColor(BACKGROUND_COLOR);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
+        JPanel mainPanel = new BackgroundPanel(new BorderLayout(), BACKGROUND_COLOR);
 
         mainPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
         setContentPane(mainPanel);
@@ -107,7 +98,7 @@ public class CustomerEditPresentation extends JFrame {
         buttonPanel.add(saveButton);
         buttonPanel.add(cancelButton);
         saveButton.addActionListener(e -> saveCustomer());
-        cancelButton.addActionListener(e -> dispose());
+        cancelButton.addActionListener(e -> WindowPool.close(this));
         return buttonPanel;
     }
     /**
@@ -423,21 +414,23 @@ public class CustomerEditPresentation extends JFrame {
             }
         });
 
-        // Customer ID validation
+        // Customer ID validation, the range check runs in the background
         customerIdField.addFocusListener(new FocusAdapter() {
             public void focusLost(FocusEvent e) {
-                if (!customerIdField.getText().isEmpty()) {
+                String text = customerIdField.getText();
+                if (!text.isEmpty()) {
                     try {
-                        int id = Integer.parseInt(customerIdField.getText());
-                        int maxCustomers = CustomerService.getCustomerCount();
-                        if (maxCustomers == 0) {
-                            showError("Please load a customer first");
-                            salesRepIdField.setText("");
-                        }
-                        else if (id < 1 || id > maxCustomers) {
-                            showError("Customer ID must be between 1 and " + maxCustomers);
-                            customerIdField.setText("");
-                        }
+                        int id = Integer.parseInt(text);
+                        BackgroundTask.run(CustomerEditPresentation.this, () -> customerRepository.exists(id), exists -> {
+                            // the user has already typed something else
+                            if (!text.equals(customerIdField.getText())) {
+                                return;
+                            }
+                            if (!exists) {
+                                showError("No customer exists with ID " + id);
+                                customerIdField.setText("");
+                            }
+                        });
                     } catch (NumberFormatException ex) {
                         showError("Customer ID must be a valid number");
                         customerIdField.setText("");
@@ -445,21 +438,23 @@ public class CustomerEditPresentation extends JFrame {
                 }
             }
         });
-        // Sales Rep ID validation
+        // Sales Rep ID validation, the range check runs in the background
         salesRepIdField.addFocusListener(new FocusAdapter() {
             public void focusLost(FocusEvent e) {
-                if (!salesRepIdField.getText().isEmpty()) {
+                String text = salesRepIdField.getText();
+                if (!text.isEmpty()) {
                     try {
-                        int id = Integer.parseInt(salesRepIdField.getText());
-                        int maxSalesReps = SalesRepService.getSalesRepCount();
-                        if (maxSalesReps == 0) {
-                            showError("Please load a sales rep first");
-                            salesRepIdField.setText("");
-                        }
-                        else if (id < 1 || id > maxSalesReps) {
-                            showError("Sales Rep ID must be between 1 and " + maxSalesReps);
-                            salesRepIdField.setText("");
-                        }
+                        int id = Integer.parseInt(text);
+                        BackgroundTask.run(CustomerEditPresentation.this, () -> salesRepRepository.exists(id), exists -> {
+                            // the user has already typed something else
+                            if (!text.equals(salesRepIdField.getText())) {
+                                return;
+                            }
+                            if (!exists) {
+                                showError("No sales rep exists with ID " + id);
+                                salesRepIdField.setText("");
+                            }
+                        });
                     } catch (NumberFormatException ex) {
                         showError("Sales Rep ID must be a valid number");
                         salesRepIdField.setText("");
@@ -493,25 +488,30 @@ public class CustomerEditPresentation extends JFrame {
     private void loadCustomerData() {
         try {
             int customerId = Integer.parseInt(customerIdField.getText());
-            Customer customer = CustomerService.getCustomerByID(customerId);
-            
-            // Populate form fields with customer data
-            firstNameField.setText(customer.getFirstName());
-            lastNameField.setText(customer.getLastName());
-            streetAddressField.setText(customer.getStreet());
-            cityField.setText(customer.getCity());
-            zipCodeField.setText(customer.getZipCode());
-            stateComboBox.setSelectedItem(customer.getState());
-            emailField.setText(customer.getEmail());
-            businessNumberField.setText(customer.getBusinessNumber());
-            cellNumberField.setText(customer.getCellNumber());
-            websiteField.setText(customer.getWebsite());
-            titleField.setText(customer.getTitle());
-            companyField.setText(customer.getCompany());
-            creditField.setText(String.valueOf(customer.getCredit()));
-            statusComboBox.setSelectedItem(customer.getStatus());
-            salesRepIdField.setText(String.valueOf(customer.getSalesRepID()));
-            notesArea.setText(customer.getNotes());
+            BackgroundTask.run(this, () -> customerRepository.getCustomerByID(customerId), customer -> {
+                if (customer == null) {
+                    showError("Customer not found.");
+                    return;
+                }
+
+                // Populate form fields with customer data
+                firstNameField.setText(customer.getFirstName());
+                lastNameField.setText(customer.getLastName());
+                streetAddressField.setText(customer.getStreet());
+                cityField.setText(customer.getCity());
+                zipCodeField.setText(customer.getZipCode());
+                stateComboBox.setSelectedItem(customer.getState());
+                emailField.setText(customer.getEmail());
+                businessNumberField.setText(customer.getBusinessNumber());
+                cellNumberField.setText(customer.getCellNumber());
+                websiteField.setText(customer.getWebsite());
+                titleField.setText(customer.getTitle());
+                companyField.setText(customer.getCompany());
+                creditField.setText(String.valueOf(customer.getCredit()));
+                statusComboBox.setSelectedItem(customer.getStatus());
+                salesRepIdField.setText(String.valueOf(customer.getSalesRepID()));
+                notesArea.setText(customer.getNotes());
+            });
         } catch (NumberFormatException e) {
             showError("Please enter a valid Customer ID (integer).");
         }
@@ -568,22 +568,33 @@ public class CustomerEditPresentation extends JFrame {
             newCustomer.setStatus((String)statusComboBox.getSelectedItem());
             newCustomer.setNotes(notesArea.getText());
 
-            boolean result = false;
-            if (editModeComboBox.getSelectedItem().equals("New Customer"))
-            {
-                result = CustomerService.addCustomer(newCustomer);
-            } else {
+            boolean isNew = editModeComboBox.getSelectedItem().equals("New Customer");
+            if (!isNew) {
                 newCustomer.setCustomerID(Integer.parseInt(customerIdField.getText()));
-                result = CustomerService.editCustomer(newCustomer);
             }
 
-            if (result) {
-                JOptionPane.showMessageDialog(this, "Customer data saved successfully.", 
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-                dispose();
-            } else {
-                showError("Failed to save customer data.");
-            }
+            // Validate sales rep ID in the background, then save
+            int salesRepId = newCustomer.getSalesRepID();
+            BackgroundTask.run(this, () -> salesRepRepository.exists(salesRepId), salesRepExists -> {
+                if (!salesRepExists) {
+                    showError("No sales rep exists with ID " + salesRepId);
+                    return;
+                }
+
+                BackgroundTask.run(this, () -> isNew
+                    ? customerRepository.addCustomer(newCustomer)
+                    : customerRepository.editCustomer(newCustomer), result -> {
+                    if (result) {
+                        JOptionPane.showMessageDialog(this, "Customer data saved successfully.", 
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                        WindowPool.close(this);
+                    } else {
+                        showError("Failed to save customer data.");
+                    }
+                });
+            });
+            // No second click until the save is done
+            BackgroundTask.disableWhileBusy(this, saveButton);
         } catch (NumberFormatException e) {
             showError("Please ensure all numeric fields contain valid numbers.");
         }
@@ -605,14 +616,9 @@ public class CustomerEditPresentation extends JFrame {
             return false;
         }
 
-        // Validate sales rep ID
+        // Validate sales rep ID format, the range is checked against the DB when saving
         try {
-            int salesRepId = Integer.parseInt(salesRepIdField.getText());
-            int maxSalesReps = SalesRepService.getSalesRepCount();
-            if (salesRepId < 1 || salesRepId > maxSalesReps) {
-                showError("Sales Rep ID must be between 1 and " + maxSalesReps);
-                return false;
-            }
+            Integer.parseInt(salesRepIdField.getText());
         } catch (NumberFormatException e) {
             showError("Sales Rep ID must be a valid number");
             return false;
@@ -621,6 +627,15 @@ public class CustomerEditPresentation extends JFrame {
         return true;
     }
 
+    /**
+     * Clears the form and goes back to adding a new customer, called when the window is reopened
+     */
+    @Override
+    public void reset() {
+        editModeComboBox.setSelectedIndex(0);
+        clearForm();
+    }
+
     /**
      * Main method to launch the customer edit presentation
      * @param args Command line arguments (not used)
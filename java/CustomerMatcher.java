@@ -0,0 +1,158 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Scores how well a customer matches the words typed into the customer search.
+ * Every word has to match a word of the customer's last name, first name, company, email or city,
+ * either exactly, as the start of the word, or with a typo or two for longer words. Better kinds of
+ * match and more important fields score higher, and the word scores are added up.
+ * @author Ethan C and Aarav S
+ */
+final class CustomerMatcher {
+    private static final int EXACT = 100;
+    private static final int PREFIX = 70;
+    private static final int FUZZY = 40;
+    private static final int FUZZY_PREFIX = 25;
+
+    private CustomerMatcher() {
+    }
+
+    /**
+     * Splits search text into lower case words, dropping repeats
+     * @param text The search text
+     * @return The words
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String term : words(text)) {
+            if (!terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Scores a customer against the search words
+     * @param customer The customer
+     * @param terms The words from terms()
+     * @return The score, 0 if any word does not match
+     */
+    static int score(Customer customer, List<String> terms) {
+        String[][] fields = {
+            words(customer.getLastName()), words(customer.getFirstName()), words(customer.getCompany()),
+            words(customer.getEmail()), words(customer.getCity())
+        };
+        int[] weights = {100, 90, 80, 70, 50};
+
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (int i = 0; i < fields.length; i++) {
+                for (String word : fields[i]) {
+                    best = Math.max(best, match(term, word) * weights[i] / 100);
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * Typos allowed in a search word, none for short words as they would match almost anything
+     * @param term The search word
+     * @return The largest edit distance still counted as a match
+     */
+    static int allowedTypos(String term) {
+        return term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+    }
+
+    private static int match(String term, String word) {
+        if (word.equals(term)) {
+            return EXACT;
+        }
+        if (word.startsWith(term)) {
+            return PREFIX;
+        }
+        int typos = allowedTypos(term);
+        if (typos == 0) {
+            return 0;
+        }
+        int distance = distance(term, word, typos);
+        if (distance <= typos) {
+            return FUZZY - 10 * (distance - 1);
+        }
+        // A misspelt start of a longer word, like "jonh" for "johnson"
+        if (word.length() > term.length() && distance(term, word.substring(0, term.length()), typos) <= typos) {
+            return FUZZY_PREFIX;
+        }
+        return 0;
+    }
+
+    /**
+     * Edit distance between two words, counting a swap of two neighbouring letters as one edit.
+     * Gives up and returns max + 1 as soon as the distance is known to be over max.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowBest = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowBest = Math.min(rowBest, value);
+            }
+            if (rowBest > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Splits a value into lower case words on anything that is not a letter or digit,
+     * so "j.smith@acme.com" gives j, smith, acme and com
+     * @param value The value, may be null
+     * @return The words
+     */
+    static String[] words(String value) {
+        if (value == null) {
+            return new String[0];
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.List;
+
+/**
+ * Customer data as the screens see it. The screens only talk to this interface, so caching,
+ * timing or another backend can be slotted in by AppContext without touching them.
+ * @author Ethan C and Aarav S
+ */
+public interface CustomerRepository {
+    /**
+     * Gets all the information on one customer
+     * @param id The customer's id
+     * @return The customer, or null if there is no such customer
+     */
+    Customer getCustomerByID(int id);
+
+    /**
+     * Gets everything the customer screen shows for one customer
+     * @param id The customer's id
+     * @param orderPageSize The number of orders in the first page
+     * @return The customer's details, or null if there is no such customer
+     * @throws InterruptedException If interrupted while waiting for the queries
+     */
+    CustomerDetail getCustomerDetail(int id, int orderPageSize) throws InterruptedException;
+
+    /**
+     * Gets one page of a customer's orders, newest first
+     * @param id The customer's id
+     * @param after The last order of the previous page, null for the first page
+     * @param pageSize The maximum number of orders in the page
+     * @return The orders with their totals
+     */
+    List<Order> getCustomerOrderSummaries(int id, Order after, int pageSize);
+
+    /**
+     * Gets one page of customers ordered by ID
+     * @param afterCustomerId The last ID of the previous page, 0 for the first page
+     * @param pageSize The maximum number of customers in the page
+     * @return The customers in the page
+     */
+    List<Customer> getCustomerPage(int afterCustomerId, int pageSize);
+
+    /**
+     * Gets the first customer ID of every page
+     * @param pageSize The page size
+     * @return The first ID of each page
+     */
+    int[] getCustomerPageKeys(int pageSize);
+
+    /**
+     * Searches customers by name, company, email and city, best match first
+     * @param text The words to search for
+     * @param offset The number of results to skip
+     * @param limit The maximum number of results
+     * @return One page of matching customers
+     */
+    List<Customer> searchCustomers(String text, int offset, int limit);
+
+    /**
+     * Gets the number of customers
+     * @return The count of customers
+     */
+    int getCustomerCount();
+
+    /**
+     * Adds a customer
+     * @param customer The customer
+     * @return True or false
+     */
+    boolean addCustomer(Customer customer);
+
+    /**
+     * Edits a customer
+     * @param customer The customer
+     * @return True or false
+     */
+    boolean editCustomer(Customer customer);
+
+    /**
+     * Checks if a customer exists
+     * @param id The customer's id
+     * @return True if the customer exists
+     */
+    boolean exists(int id);
+}
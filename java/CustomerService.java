@@ -1,10 +1,22 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;  
-import java.sql.DriverManager;  
 import java.sql.PreparedStatement;  
 import java.sql.ResultSet;  
 import java.sql.SQLException;  
+import java.sql.Statement;
 import java.util.ArrayList;  
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;  
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Customer service class
@@ -12,6 +24,23 @@ import java.util.List;
  */
 public class CustomerService 
 {
+    //IDs known to exist, so ID checks rarely need the DB
+    private static final IdRegistry CUSTOMER_IDS = new IdRegistry("tblCustomer", "CustomerID");
+    //Runs the parts of getCustomerDetail that go alongside the customer lookup
+    private static final ExecutorService DETAIL_FETCHES = Executors.newFixedThreadPool(4, r -> {
+        Thread thread = new Thread(r, "CustomerService-detail");
+        thread.setDaemon(true);
+        return thread;
+    });
+    //Most customers a search reads before ranking them
+    private static final int MAX_SEARCH_CANDIDATES = 2_000;
+    //Letters a misspelt search word has to get right to be found
+    private static final int SEARCH_STEM_LENGTH = 3;
+    //Longest word kept in tblCustomerSearchWord, the Word column's size
+    private static final int MAX_SEARCH_WORD_LENGTH = 100;
+    //Search words written per batch when rebuilding them
+    private static final int SEARCH_WORD_BATCH_SIZE = 1_000;
+
 	/**
 	 * Method to get all the customers and some of their information
 	 * @return A list of all customers
@@ -23,7 +52,7 @@ public class CustomerService
         String query = "SELECT CustomerID, FirstName, LastName, Company, Email, Status FROM tblCustomer";  
   		
   		//Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.getAllCustomers");  
              PreparedStatement preparedStatement = connection.prepareStatement(query);  
              ResultSet resultSet = preparedStatement.executeQuery()) {  
   			
@@ -47,6 +76,82 @@ public class CustomerService
         return customers;  
 	}
 
+	/**
+	 * Method to get one page of customers, keyed on CustomerID so no rows are skipped over
+	 * @param afterCustomerId The page starts with the first customer after this ID, 0 for the first page
+	 * @param pageSize The maximum number of customers in the page
+	 * @return The customers in the page, ordered by ID
+	 */
+	public static List<Customer> getCustomerPage(int afterCustomerId, int pageSize)
+	{
+		//Initialize variables
+		List<Customer> customers = new ArrayList<>(pageSize);
+        String query = "SELECT CustomerID, FirstName, LastName, Company, Email, Status FROM tblCustomer " +
+            "WHERE CustomerID > ? ORDER BY CustomerID LIMIT ?";
+
+  		//Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.getCustomerPage");
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            preparedStatement.setInt(1, afterCustomerId);
+            preparedStatement.setInt(2, pageSize);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                //Looping through the page
+                while (resultSet.next()) {
+                    Customer customer = new Customer();
+                    customer.setCustomerID(resultSet.getInt("CustomerID"));
+                    customer.setFirstName(resultSet.getString("FirstName"));
+                    customer.setLastName(resultSet.getString("LastName"));
+                    customer.setCompany(resultSet.getString("Company"));
+                    customer.setEmail(resultSet.getString("Email"));
+                    customer.setStatus(resultSet.getString("Status"));
+
+                    customers.add(customer);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return customers;
+	}
+
+	/**
+	 * Method to get the key each page of customers starts after, so any page can be fetched directly
+	 * @param pageSize The number of customers in a page
+	 * @return The ID each page starts after, the first entry is always 0
+	 */
+	public static int[] getCustomerPageKeys(int pageSize)
+	{
+		//Initialize variables
+		List<Integer> keys = new ArrayList<>();
+		keys.add(0);
+        //Only the ID index is read, every pageSize-th ID ends a page
+        String query = "SELECT CustomerID FROM (" +
+            "SELECT CustomerID, ROW_NUMBER() OVER (ORDER BY CustomerID) AS RowNum FROM tblCustomer) AS Numbered " +
+            "WHERE MOD(RowNum, ?) = 0 ORDER BY CustomerID";
+
+  		//Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.getCustomerPageKeys");
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            preparedStatement.setInt(1, pageSize);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    keys.add(resultSet.getInt("CustomerID"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        int[] pageKeys = new int[keys.size()];
+        for (int i = 0; i < pageKeys.length; i++) {
+            pageKeys[i] = keys.get(i);
+        }
+        return pageKeys;
+	}
+
 	/**
 	 * Method to get all the information on one customer
 	 * @param id The customer's id
@@ -55,17 +160,17 @@ public class CustomerService
 	public static Customer getCustomerByID(int id) {  
 		//Initialize variables
         Customer customer = null;  
-        String query = "SELECT C.*, ROUND(SUM(PO.QuantityOrdered * PO.QuotedPrice), 2) AS LifetimeOrderTotal," +
-            "Credit - ROUND(SUM(PO.QuantityOrdered * PO.QuotedPrice), 2) AS RemainingCredit " +
-            "FROM tblOrder AS O " +
-            "LEFT JOIN tblProductsOrder AS PO " +
-            "ON O.OrderID = PO.OrderID " +
-            "LEFT JOIN tblCustomer AS C " + 
-            "ON C.CustomerID = O.CustomerID " +
+        long balanceChanges = CustomerBalanceService.changeCount();
+        //The totals are kept up to date in tblCustomerBalance, so this is one row
+        String query = "SELECT C.*, COALESCE(B.LifetimeOrderTotal, 0) AS LifetimeOrderTotal, " +
+            "COALESCE(B.PaymentTotal, 0) AS PaymentTotal " +
+            "FROM tblCustomer AS C " +
+            "LEFT JOIN tblCustomerBalance AS B " +
+            "ON B.CustomerID = C.CustomerID " +
             "WHERE C.CustomerID = ?";  
   	
   		//Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.getCustomerByID");  
 
             PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
   
@@ -91,8 +196,12 @@ public class CustomerService
                     customer.setTitle(resultSet.getString("Title"));
                     customer.setStatus(resultSet.getString("Status"));
                     customer.setNotes(resultSet.getString("Notes"));
-                    customer.setLifetimeOrderTotal(resultSet.getDouble("LifetimeOrderTotal"));
-                    customer.setRemainingCredit(resultSet.getDouble("RemainingCredit"));
+                    BigDecimal lifetimeOrderTotal = resultSet.getBigDecimal("LifetimeOrderTotal").setScale(2, RoundingMode.HALF_UP);
+                    customer.setLifetimeOrderTotal(lifetimeOrderTotal.doubleValue());
+                    customer.setRemainingCredit(resultSet.getBigDecimal("Credit").subtract(lifetimeOrderTotal).doubleValue());
+
+                    CustomerBalanceService.cache(new CustomerBalance(customer.getCustomerID(),
+                        lifetimeOrderTotal.doubleValue(), resultSet.getDouble("PaymentTotal")), balanceChanges);
                 }  
             }  
         } catch (SQLException e) {  
@@ -113,8 +222,8 @@ public class CustomerService
         boolean success = false;
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.addCustomer");  
+             PreparedStatement preparedStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {  
   	
   			//Getting all the customer's info
             preparedStatement.setString(1, customer.getFirstName());  
@@ -134,10 +243,22 @@ public class CustomerService
             preparedStatement.setString(15, customer.getStatus());
             preparedStatement.setString(16, customer.getNotes());   
 
-            //Checking if customer has been added
+            //Checking if customer has been added, the customer and their search words are saved together
+            connection.setAutoCommit(false);
             int rowsAffected = preparedStatement.executeUpdate();  
             if (rowsAffected > 0) {  
+                try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        customer.setCustomerID(keys.getInt(1));
+                    }
+                }
+                saveSearchWords(connection, customer);
+                connection.commit();
                 success = true;
+
+                //Remembering the new ID so it validates without a lookup
+                CUSTOMER_IDS.add(customer.getCustomerID());
+                SearchIndexes.customerSaved(customer);
             }  
         } catch (SQLException e) {  
             e.printStackTrace();  
@@ -156,7 +277,7 @@ public class CustomerService
         String query = "SELECT COUNT(*) AS CustomerCount FROM tblCustomer";
 
         // Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.getCustomerCount");
              PreparedStatement preparedStatement = connection.prepareStatement(query);
              ResultSet resultSet = preparedStatement.executeQuery()) {
 
@@ -185,7 +306,7 @@ public class CustomerService
         boolean success = false;
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.editCustomer");  
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
     
             //Getting all the customer's info
@@ -207,10 +328,14 @@ public class CustomerService
             preparedStatement.setString(16, customer.getNotes());  
             preparedStatement.setInt(17, customer.getCustomerID()); 
 
-            //Checking if customer has been edited
+            //Checking if customer has been edited, the customer and their search words are saved together
+            connection.setAutoCommit(false);
             int rowsAffected = preparedStatement.executeUpdate();  
             if (rowsAffected > 0) {  
+                saveSearchWords(connection, customer);
+                connection.commit();
                 success = true;
+                SearchIndexes.customerSaved(customer);
             }  
         } catch (SQLException e) {  
             e.printStackTrace();  
@@ -231,7 +356,7 @@ public class CustomerService
         String query = "SELECT PaymentID, OrderID, Date, Amount, Method FROM tblPayment WHERE CustomerID = ?";
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.getAllCustomersPayments");  
              PreparedStatement preparedStatement = connection.prepareStatement(query);
              ResultSet resultSet = preparedStatement.executeQuery()) { 
     
@@ -257,19 +382,16 @@ public class CustomerService
     /**
      * Method to get all payments from a customer with additional details
      * @param id The customer's id
-     * @return A List where each inner List contains [PaymentID, OrderID, Date, Amount, Method, CardOwner]
+     * @return The customer's payments with their ID, order ID, date, amount, method and card owner
      */
-    public static ArrayList<ArrayList<Object>> getAllCustomerPaymentsDetailed(int id) {
+    public static List<Payment> getAllCustomerPaymentsDetailed(int id) {
         // Initialize variables
-        ArrayList<ArrayList<Object>> payments = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
         String query = "SELECT PaymentID, OrderID, Date, Amount, Method, CardOwner " +
                       "FROM tblPayment WHERE CustomerID = ?";
 
         // Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(
-                DatabaseConfig.getDbUrl(), 
-                DatabaseConfig.getDbUsername(), 
-                DatabaseConfig.getDbPassword());
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.getAllCustomerPaymentsDetailed");
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
 
             // Set the customer ID parameter
@@ -278,13 +400,14 @@ public class CustomerService
             // Execute query and process results
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
-                    ArrayList<Object> payment = new ArrayList<>();
-                    payment.add(resultSet.getInt("PaymentID"));
-                    payment.add(resultSet.getInt("OrderID"));
-                    payment.add(resultSet.getDate("Date"));
-                    payment.add(resultSet.getDouble("Amount"));
-                    payment.add(resultSet.getString("Method"));
-                    payment.add(resultSet.getString("CardOwner"));
+                    Payment payment = new Payment();
+                    payment.setPaymentID(resultSet.getInt("PaymentID"));
+                    payment.setCustomerID(id);
+                    payment.setOrderID(resultSet.getInt("OrderID"));
+                    payment.setDate(resultSet.getDate("Date"));
+                    payment.setAmount(resultSet.getDouble("Amount"));
+                    payment.setMethod(resultSet.getString("Method"));
+                    payment.setCardOwner(resultSet.getString("CardOwner"));
                     
                     payments.add(payment);
                 }
@@ -299,11 +422,11 @@ public class CustomerService
     /**
      * Method to get all products ordered by a customer
      * @param id The customer's id
-     * @return A List where each inner List contains [ProductID, Description, Quantity, QuotedPrice, OrderID, OrderDate]
+     * @return Every order line of the customer's orders, newest order first, with the product description and order date
      */
-    public static ArrayList<ArrayList<Object>> getAllCustomerProducts(int id) {
+    public static List<OrderProduct> getAllCustomerProducts(int id) {
         // Initialize variables
-        ArrayList<ArrayList<Object>> products = new ArrayList<>();
+        List<OrderProduct> products = new ArrayList<>();
         String query = "SELECT p.ProductID, p.Description, po.QuantityOrdered, " +
                       "po.QuotedPrice, o.OrderID, o.Date " +
                       "FROM tblOrder o " +
@@ -313,10 +436,7 @@ public class CustomerService
                       "ORDER BY o.Date DESC";
 
         // Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(
-                DatabaseConfig.getDbUrl(), 
-                DatabaseConfig.getDbUsername(), 
-                DatabaseConfig.getDbPassword());
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.getAllCustomerProducts");
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
 
             // Set the customer ID parameter
@@ -325,13 +445,11 @@ public class CustomerService
             // Execute query and process results
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
-                    ArrayList<Object> product = new ArrayList<>();
-                    product.add(resultSet.getString("ProductID"));
-                    product.add(resultSet.getString("Description"));
-                    product.add(resultSet.getInt("QuantityOrdered"));
-                    product.add(resultSet.getDouble("QuotedPrice"));
-                    product.add(resultSet.getInt("OrderID"));
-                    product.add(resultSet.getDate("Date"));
+                    OrderProduct product = new OrderProduct(resultSet.getString("ProductID"),
+                        resultSet.getInt("QuantityOrdered"), resultSet.getDouble("QuotedPrice"));
+                    product.setDescription(resultSet.getString("Description"));
+                    product.setOrderID(resultSet.getInt("OrderID"));
+                    product.setOrderDate(resultSet.getDate("Date"));
                     
                     products.add(product);
                 }
@@ -342,4 +460,323 @@ public class CustomerService
 
         return products;
     }
+
+    /**
+     * Method to get one page of a customer's orders, one row per order with its total worked out by the DB.
+     * Orders are newest first and paged by (Date, OrderID), so each page starts where the last one ended.
+     * @param id The customer's id
+     * @param after The last order of the previous page, null for the first page
+     * @param pageSize The maximum number of orders in the page
+     * @return Orders with their ID, date, status and the total of their lines as the subtotal
+     */
+    public static List<Order> getCustomerOrderSummaries(int id, Order after, int pageSize) {
+        // Initialize variables
+        List<Order> orders = new ArrayList<>(pageSize);
+        String query = "SELECT O.OrderID, O.Date, O.Status, COALESCE(SUM(PO.QuantityOrdered * PO.QuotedPrice), 0) AS OrderTotal " +
+                      "FROM tblOrder O " +
+                      "LEFT JOIN tblProductsOrder PO ON PO.OrderID = O.OrderID " +
+                      "WHERE O.CustomerID = ? " +
+                      (after != null ? "AND (O.Date < ? OR (O.Date = ? AND O.OrderID < ?)) " : "") +
+                      "GROUP BY O.OrderID, O.Date, O.Status " +
+                      "ORDER BY O.Date DESC, O.OrderID DESC " +
+                      "LIMIT ?";
+
+        // Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.getCustomerOrderSummaries");
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            int parameter = 1;
+            preparedStatement.setInt(parameter++, id);
+            if (after != null) {
+                preparedStatement.setDate(parameter++, after.getDate());
+                preparedStatement.setDate(parameter++, after.getDate());
+                preparedStatement.setInt(parameter++, after.getOrderID());
+            }
+            preparedStatement.setInt(parameter, pageSize);
+
+            // Execute query and process results
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    Order order = new Order();
+                    order.setOrderID(resultSet.getInt("OrderID"));
+                    order.setCustomerID(id);
+                    order.setDate(resultSet.getDate("Date"));
+                    order.setStatus(resultSet.getString("Status"));
+                    order.setOrderSubtotal(resultSet.getDouble("OrderTotal"));
+
+                    orders.add(order);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return orders;
+    }
+
+    /**
+     * Method to get everything the customer screen shows for one customer.
+     * The payments and the first page of orders are read on their own pooled connections while
+     * the customer and balance are read on this thread, so the wait is the slowest of the queries
+     * rather than all of them added up.
+     * @param id The customer's id
+     * @param orderPageSize The number of orders in the first page
+     * @return The customer's details, or null if there is no such customer
+     * @throws InterruptedException If the thread was interrupted while waiting for the queries
+     */
+    public static CustomerDetail getCustomerDetail(int id, int orderPageSize) throws InterruptedException {
+        Future<List<Payment>> payments = DETAIL_FETCHES.submit(() -> getAllCustomerPaymentsDetailed(id));
+        Future<List<Order>> orders = DETAIL_FETCHES.submit(() -> getCustomerOrderSummaries(id, null, orderPageSize));
+
+        try {
+            //The balance is read along with the customer, so getBalance is answered from its cache
+            Customer customer = getCustomerByID(id);
+            if (customer == null) {
+                return null;
+            }
+            return new CustomerDetail(customer, CustomerBalanceService.getBalance(id), payments.get(), orders.get());
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not load customer " + id, e.getCause());
+        } finally {
+            //Does nothing once they are done, stops them if the customer was missing or we were interrupted
+            payments.cancel(true);
+            orders.cancel(true);
+        }
+    }
+
+    /**
+     * Method to check if a customer exists
+     * @param id The customer's id
+     * @return True if the customer exists
+     */
+    public static boolean exists(int id) {
+        return CUSTOMER_IDS.exists(id);
+    }
+
+    /**
+     * Method to check if every one of these customers exists
+     * @param ids The customer ids
+     * @return True if all of them exist
+     */
+    public static boolean existsAll(int... ids) {
+        return CUSTOMER_IDS.existsAll(ids);
+    }
+
+    /**
+     * Method to search customers by last name, first name, company, email and city.
+     * Every word typed has to match the start of any word of those fields, exactly or with a typo
+     * or two in longer words, so "smith" finds "j.smith@acme.com" and "york" finds "New York".
+     * Candidates are read from tblCustomerSearchWord, customers with the word itself first, then
+     * those with a word starting with it. When more than MAX_SEARCH_CANDIDATES match, the lowest
+     * customer IDs of the weakest kind of match are the ones read. Results are ranked, best match first.
+     * @param text The words to search for
+     * @param offset The number of ranked results to skip, for later pages
+     * @param limit The maximum number of results
+     * @return One page of matching customers, with their ID, names, company, email, city and status
+     */
+    public static List<Customer> searchCustomers(String text, int offset, int limit) {
+        List<String> terms = CustomerMatcher.terms(text);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // The longest word narrows the candidates the most, the other words are checked in memory
+        String driver = terms.get(0);
+        for (String term : terms) {
+            if (term.length() > driver.length()) {
+                driver = term;
+            }
+        }
+        driver = searchWord(driver);
+        Map<Integer, Customer> candidates = new LinkedHashMap<>();
+        readSearchCandidates("W.Word = ?", driver, candidates);
+        readSearchCandidates("W.Word LIKE ?", driver + "%", candidates);
+        if (CustomerMatcher.allowedTypos(driver) > 0) {
+            // Widen to the first few letters so words misspelt after them are found too
+            readSearchCandidates("W.Word LIKE ?", driver.substring(0, SEARCH_STEM_LENGTH) + "%", candidates);
+        }
+
+        List<Customer> matches = new ArrayList<>();
+        Map<Customer, Integer> scores = new IdentityHashMap<>();
+        for (Customer customer : candidates.values()) {
+            int score = CustomerMatcher.score(customer, terms);
+            if (score > 0) {
+                matches.add(customer);
+                scores.put(customer, score);
+            }
+        }
+        matches.sort(Comparator.<Customer>comparingInt(scores::get).reversed()
+            .thenComparing(Customer::getLastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Customer::getFirstName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingInt(Customer::getCustomerID));
+
+        int from = Math.min(Math.max(offset, 0), matches.size());
+        int to = Math.min(from + limit, matches.size());
+        return new ArrayList<>(matches.subList(from, to));
+    }
+
+    /**
+     * Reads the customers with a search word matching the condition, lowest IDs first
+     */
+    private static void readSearchCandidates(String condition, String value, Map<Integer, Customer> candidates) {
+        int room = MAX_SEARCH_CANDIDATES - candidates.size();
+        if (room <= 0) {
+            return;
+        }
+        String query = "SELECT C.CustomerID, C.FirstName, C.LastName, C.City, C.Company, C.Email, C.Status " +
+            "FROM tblCustomer AS C WHERE C.CustomerID IN " +
+            "(SELECT W.CustomerID FROM tblCustomerSearchWord AS W WHERE " + condition + ") " +
+            "ORDER BY C.CustomerID LIMIT ?";
+
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.searchCustomers");
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            // Search words are only letters and digits, so there are no wildcards to escape
+            preparedStatement.setString(1, value);
+            // Rows already read are read again, ask for enough to still fill the room
+            preparedStatement.setInt(2, room + candidates.size());
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next() && candidates.size() < MAX_SEARCH_CANDIDATES) {
+                    int customerId = resultSet.getInt("CustomerID");
+                    if (candidates.containsKey(customerId)) {
+                        continue;
+                    }
+                    Customer customer = new Customer();
+                    customer.setCustomerID(customerId);
+                    customer.setFirstName(resultSet.getString("FirstName"));
+                    customer.setLastName(resultSet.getString("LastName"));
+                    customer.setCity(resultSet.getString("City"));
+                    customer.setCompany(resultSet.getString("Company"));
+                    customer.setEmail(resultSet.getString("Email"));
+                    customer.setStatus(resultSet.getString("Status"));
+                    candidates.put(customerId, customer);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Replaces a customer's rows in tblCustomerSearchWord, on the connection saving the customer
+     */
+    private static void saveSearchWords(Connection connection, Customer customer) throws SQLException {
+        try (PreparedStatement deleteStatement = connection.prepareStatement(
+                "DELETE FROM tblCustomerSearchWord WHERE CustomerID = ?");
+             PreparedStatement insertStatement = connection.prepareStatement(
+                 "INSERT INTO tblCustomerSearchWord (Word, CustomerID) VALUES (?, ?)")) {
+
+            deleteStatement.setInt(1, customer.getCustomerID());
+            deleteStatement.executeUpdate();
+            for (String word : searchWords(customer.getLastName(), customer.getFirstName(), customer.getCompany(),
+                    customer.getEmail(), customer.getCity())) {
+                insertStatement.setString(1, word);
+                insertStatement.setInt(2, customer.getCustomerID());
+                insertStatement.addBatch();
+            }
+            insertStatement.executeBatch();
+        }
+    }
+
+    /**
+     * Method to fill tblCustomerSearchWord again from every customer, after customers were written
+     * without going through this service, like a bulk import
+     * @return True or false
+     */
+    public static boolean rebuildSearchWords() {
+        String readQuery = "SELECT CustomerID, LastName, FirstName, Company, Email, City FROM tblCustomer";
+        String insertQuery = "INSERT INTO tblCustomerSearchWord (Word, CustomerID) VALUES (?, ?)";
+        boolean success = false;
+
+        //Connecting to SQL DB, one connection streams the customers while the other writes their words
+        try (Connection readConnection = DatabaseConfig.getConnection();
+             Connection writeConnection = DatabaseConfig.getConnection("CustomerService.rebuildSearchWords");
+             PreparedStatement readStatement = readConnection.prepareStatement(readQuery,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             Statement deleteStatement = writeConnection.createStatement();
+             PreparedStatement insertStatement = writeConnection.prepareStatement(insertQuery)) {
+
+            writeConnection.setAutoCommit(false);
+            deleteStatement.executeUpdate("DELETE FROM tblCustomerSearchWord");
+            readStatement.setFetchSize(DatabaseConfig.getStreamingFetchSize());
+            try (ResultSet resultSet = readStatement.executeQuery()) {
+                int pending = 0;
+                while (resultSet.next()) {
+                    int customerId = resultSet.getInt(1);
+                    for (String word : searchWords(resultSet.getString(2), resultSet.getString(3),
+                            resultSet.getString(4), resultSet.getString(5), resultSet.getString(6))) {
+                        insertStatement.setString(1, word);
+                        insertStatement.setInt(2, customerId);
+                        insertStatement.addBatch();
+                        if (++pending == SEARCH_WORD_BATCH_SIZE) {
+                            insertStatement.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                }
+            }
+            insertStatement.executeBatch();
+            writeConnection.commit();
+            success = true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return success;
+    }
+
+    /**
+     * Method to fill tblCustomerSearchWord if it is empty while there are customers, like after
+     * the sample data script was run, called at startup
+     * @return True if the words were there or were filled in, false if they could not be
+     */
+    public static boolean prepareSearchWords() {
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("CustomerService.prepareSearchWords");
+             Statement statement = connection.createStatement()) {
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT CustomerID FROM tblCustomerSearchWord LIMIT 1")) {
+                if (resultSet.next()) {
+                    return true;
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery("SELECT CustomerID FROM tblCustomer LIMIT 1")) {
+                if (!resultSet.next()) {
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+        return rebuildSearchWords();
+    }
+
+    /**
+     * Gets the distinct words a customer is found by, split the same way as the search text
+     */
+    private static Set<String> searchWords(String... fields) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String field : fields) {
+            for (String word : CustomerMatcher.words(field)) {
+                words.add(searchWord(word));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Cuts a word down to what fits in tblCustomerSearchWord
+     */
+    private static String searchWord(String word) {
+        return word.length() > MAX_SEARCH_WORD_LENGTH ? word.substring(0, MAX_SEARCH_WORD_LENGTH) : word;
+    }
+
+    /**
+     * Method to read every customer id into memory again, used after bulk loads that may have deleted customers
+     */
+    public static void refreshIds() {
+        CUSTOMER_IDS.reload();
+    }
 }
\ No newline at end of file
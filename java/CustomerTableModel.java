@@ -0,0 +1,137 @@
+import javax.swing.table.AbstractTableModel;
+import java.awt.Window;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Table model for the customers table that loads customers a block at a time as rows are shown.
+ * Blocks are fetched in the background with keyset-paginated queries, and only the most
+ * recently viewed blocks are kept, so blocks scrolled out of view are dropped.
+ * @author Ethan C and Aarav S
+ */
+public class CustomerTableModel extends AbstractTableModel {
+    private static final String[] COLUMN_NAMES = {"Customer ID", "First Name", "Last Name", "Company", "Email", "Status"};
+    private static final int BLOCK_SIZE = 200;     // customers fetched per query
+    private static final int MAX_CACHED_BLOCKS = 10; // several screens worth of rows
+
+    private final Window owner;
+    private final CustomerRepository customerRepository = AppContext.get().getCustomers();
+    private int rowCount;
+    private int[] blockKeys = new int[0];
+    private int generation;
+    private final Set<Integer> loadingBlocks = new HashSet<>();
+
+    // Access-ordered so the least recently viewed block is evicted first
+    private final Map<Integer, List<Customer>> blocks = new LinkedHashMap<Integer, List<Customer>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Customer>> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+
+    /**
+     * Creates an empty model, call reload() to fill it
+     * @param owner The window the table is shown in, background loads are tied to it
+     */
+    public CustomerTableModel(Window owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Drops all loaded rows and fetches the row count and page keys again
+     */
+    public void reload() {
+        int loadGeneration = ++generation;
+        blocks.clear();
+        loadingBlocks.clear();
+
+        BackgroundTask.run(owner, () -> new Object[]{customerRepository.getCustomerCount(), customerRepository.getCustomerPageKeys(BLOCK_SIZE)}, result -> {
+            if (loadGeneration != generation) {
+                return;
+            }
+            rowCount = (Integer) result[0];
+            blockKeys = (int[]) result[1];
+            fireTableDataChanged();
+        });
+    }
+
+    /**
+     * Gets the customer shown in a row, if its block has been loaded
+     * @param row The row index
+     * @return The customer, or null while the row is still loading
+     */
+    public Customer getCustomerAt(int row) {
+        int block = row / BLOCK_SIZE;
+        List<Customer> customers = blocks.get(block);
+        if (customers == null) {
+            loadBlock(block);
+            return null;
+        }
+        int offset = row % BLOCK_SIZE;
+        return offset < customers.size() ? customers.get(offset) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Customer customer = getCustomerAt(row);
+        if (customer == null) {
+            return column == 0 ? "Loading..." : null;
+        }
+        switch (column) {
+            case 0: return customer.getCustomerID();
+            case 1: return customer.getFirstName();
+            case 2: return customer.getLastName();
+            case 3: return customer.getCompany();
+            case 4: return customer.getEmail();
+            case 5: return customer.getStatus();
+            default: return null;
+        }
+    }
+
+    /**
+     * Starts loading a block in the background unless it is already loading
+     * @param block The block index
+     */
+    private void loadBlock(int block) {
+        if (block >= blockKeys.length || !loadingBlocks.add(block)) {
+            return;
+        }
+        int loadGeneration = generation;
+        int afterCustomerId = blockKeys[block];
+
+        BackgroundTask.run(owner, () -> customerRepository.getCustomerPage(afterCustomerId, BLOCK_SIZE), customers -> {
+            if (loadGeneration != generation) {
+                return;
+            }
+            loadingBlocks.remove(block);
+            blocks.put(block, customers);
+
+            int firstRow = block * BLOCK_SIZE;
+            int lastRow = Math.min(firstRow + BLOCK_SIZE, rowCount) - 1;
+            if (firstRow <= lastRow) {
+                fireTableRowsUpdated(firstRow, lastRow);
+            }
+        }, e -> {
+            loadingBlocks.remove(block);
+            e.printStackTrace();
+        });
+    }
+}
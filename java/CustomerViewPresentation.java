@@ -1,10 +1,8 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
 import javax.swing.border.*;
 import java.util.List;
-import java.util.HashMap;
 import java.util.ArrayList; 
 
 /**
@@ -13,7 +11,9 @@ import java.util.ArrayList;
  * personal details, contact information, orders, and payment history.
  * @author Ethan C and Aarav S
  */
-public class CustomerViewPresentation extends JFrame {
+public class CustomerViewPresentation extends JFrame implements ReusableWindow {
+    private final CustomerRepository customerRepository = AppContext.get().getCustomers();
+
     // Color scheme constants for UI consistency
     private static final Color PRIMARY_COLOR = new Color(41, 128, 185);    // Professional blue
     private static final Color SECONDARY_COLOR = new Color(236, 240, 241); // Light gray
@@ -27,11 +27,20 @@ public class CustomerViewPresentation extends JFrame {
     // Form fields for customer information
     private JTextField firstNameField, lastNameField, streetField, cityField, stateField, zipCodeField, creditField;
     private JTextField companyField, websiteField, emailField, businessNumberField, cellNumberField, titleField, statusField;
-    private JTextField remainingCreditField, lifetimeOrdersTotalField;
+    private JTextField remainingCreditField, lifetimeOrdersTotalField, searchField;
     private JTextArea notesField;
     private JTable ordersTable, paymentsTable;
+    private ListTableModel<Order> ordersModel;
+    private ListTableModel<Payment> paymentsModel;
+    private static final int ORDER_PAGE_SIZE = 100; // orders fetched at a time, more load as the table is scrolled
+    private static final int SEARCH_RESULT_LIMIT = 50; // name search matches offered to choose from
+    private static final int SUGGESTION_LIMIT = 10; // live suggestions shown while typing
+    private int ordersCustomerId;
+    private boolean moreOrders, loadingOrders;
     private JButton backButton;
     private JTable customersTable;
+    private SwingWorker<?, ?> searchTask;
+    private TypeAheadPopup<TypeAheadIndex.Suggestion<Integer>> searchSuggestions;
 
     /**
      * Constructs a new CustomerViewPresentation window.
@@ -45,16 +54,7 @@ public class CustomerViewPresentation extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         // Create main panel with gradient background
-        JPanel mainPanel = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                g2d.setColor(BACKGROUND_COLOR);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
+        JPanel mainPanel = new BackgroundPanel(new BorderLayout(), BACKGROUND_COLOR);
 
         mainPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
         setContentPane(mainPanel);
@@ -154,7 +154,7 @@ public class CustomerViewPresentation extends JFrame {
 
         // Add instruction header
         JLabel headerLabel = new JLabel("<html><div style='text-align: center;'>"
-                + "Search for a customer using their Customer ID.</div></html>");
+                + "Search for a customer by customer ID, name, company, email or city. Matches are suggested as you type.</div></html>");
         headerLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         headerLabel.setForeground(Color.WHITE);
         headerLabel.setHorizontalAlignment(SwingConstants.CENTER);
@@ -205,7 +205,7 @@ public class CustomerViewPresentation extends JFrame {
     }
 
     /**
-     * Creates the search panel with customer ID search functionality.
+     * Creates the search panel, taking a customer ID or words from the name, company, email or city.
      * @return JPanel containing search components
      */
     private JPanel createSearchPanel() {
@@ -216,18 +216,23 @@ public class CustomerViewPresentation extends JFrame {
         gbc.fill = GridBagConstraints.HORIZONTAL;
 
         // Create and configure search components
-        JTextField searchField = createStyledTextField();
+        searchField = createStyledTextField();
         JButton searchButton = createStyledButton("Search", ACCENT_COLOR);
         
-        addFormField(panel, "Customer ID:", searchField, gbc);
+        addFormField(panel, "ID, Name, Company, Email or City:", searchField, gbc);
         
         gbc.gridx = 2;
         gbc.gridy = 0;
         gbc.fill = GridBagConstraints.NONE;
         panel.add(searchButton, gbc);
         
-        // Add search functionality
+        // Add search functionality, with suggestions from the search index while typing
         searchButton.addActionListener(e -> searchCustomer(searchField.getText()));
+        searchSuggestions = TypeAheadPopup.install(searchField,
+            text -> SearchIndexes.suggestCustomers(text, SUGGESTION_LIMIT), suggestion -> {
+                searchField.setText(String.valueOf(suggestion.getKey()));
+                showCustomer(suggestion.getKey());
+            });
         return panel;
     }
 
@@ -239,9 +244,8 @@ public class CustomerViewPresentation extends JFrame {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setOpaque(false);
         
-        // Define table structure
-        String[] columnNames = {"Customer ID", "First Name", "Last Name", "Company", "Email", "Status"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
+        // Table rows are loaded a block at a time as they scroll into view
+        CustomerTableModel model = new CustomerTableModel(this);
         customersTable = new JTable(model);
         
         // Style the table
@@ -252,17 +256,7 @@ public class CustomerViewPresentation extends JFrame {
         customersTable.getTableHeader().setForeground(Color.WHITE);
         
         // Populate table with customer data
-        List<Customer> customers = CustomerService.getAllCustomers();
-        for (Customer customer : customers) {
-            model.addRow(new Object[]{
-                customer.getCustomerID(),
-                customer.getFirstName(),
-                customer.getLastName(),
-                customer.getCompany(),
-                customer.getEmail(),
-                customer.getStatus()
-            });
-        }
+        model.reload();
         
         // Add table to scrollpane
         JScrollPane scrollPane = new JScrollPane(customersTable);
@@ -420,9 +414,12 @@ public class CustomerViewPresentation extends JFrame {
         panel.setOpaque(false);
         
         // Initialize orders table
-        String[] columnNames = {"Order ID", "Date", "Total", "Status"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-        ordersTable = new JTable(model);
+        ordersModel = new ListTableModel<Order>()
+            .addColumn("Order ID", Order::getOrderID)
+            .addColumn("Date", Order::getDate)
+            .addColumn("Total", order -> String.format("$%.2f", order.getOrderSubtotal())) // formatted as currency
+            .addColumn("Status", Order::getStatus);
+        ordersTable = new JTable(ordersModel);
 
         // Style the table
         ordersTable.setForeground(TEXT_COLOR);
@@ -435,6 +432,14 @@ public class CustomerViewPresentation extends JFrame {
         JScrollPane scrollPane = new JScrollPane(ordersTable);
         scrollPane.setOpaque(false);
         scrollPane.getViewport().setOpaque(false);
+
+        // Fetch the next page of orders once the table is scrolled near the bottom
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - ordersTable.getRowHeight() * 5) {
+                loadMoreOrders();
+            }
+        });
         panel.add(scrollPane, BorderLayout.CENTER);
         return panel;
     }
@@ -448,9 +453,12 @@ public class CustomerViewPresentation extends JFrame {
         panel.setOpaque(false);
         
         // Initialize payments table
-        String[] columnNames = {"Payment ID", "Date", "Amount", "Method"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-        paymentsTable = new JTable(model);
+        paymentsModel = new ListTableModel<Payment>()
+            .addColumn("Payment ID", Payment::getPaymentID)
+            .addColumn("Date", Payment::getDate)
+            .addColumn("Amount", payment -> String.format("$%.2f", payment.getAmount())) // formatted as currency
+            .addColumn("Method", Payment::getMethod);
+        paymentsTable = new JTable(paymentsModel);
 
         // Style the table
         paymentsTable.setForeground(TEXT_COLOR);
@@ -568,110 +576,166 @@ public class CustomerViewPresentation extends JFrame {
 
     /**
      * Populates the payments table with customer payment data.
-     * @param customerId The ID of the customer whose payments to display
+     * @param payments The customer's detailed payments
      */
-    private void populatePaymentsTable(int customerId) {
-        DefaultTableModel model = (DefaultTableModel) paymentsTable.getModel();
-        model.setRowCount(0); // Clear existing rows
-        
-        // Get detailed payment information
-        ArrayList<ArrayList<Object>> payments = CustomerService.getAllCustomerPaymentsDetailed(customerId);
-        
-        // Add each payment to the table
-        for (ArrayList<Object> payment : payments) {
-            model.addRow(new Object[]{
-                payment.get(0),  // Payment ID
-                payment.get(2),  // Date
-                String.format("$%.2f", payment.get(3)),  // Amount formatted as currency
-                payment.get(4)   // Method
-            });
-        }
+    private void populatePaymentsTable(List<Payment> payments) {
+        paymentsModel.setRows(payments);
     }
 
     /**
-     * Populates the orders table with customer order data.
-     * @param customerId The ID of the customer whose orders to display
+     * Populates the orders table with the first page of the customer's orders.
+     * @param customerId The customer the orders belong to
+     * @param orders The newest orders, one row per order
      */
-    private void populateOrdersTable(int customerId) {
-        DefaultTableModel model = (DefaultTableModel) ordersTable.getModel();
-        model.setRowCount(0); // Clear existing rows
-        
-        // Get detailed product/order information
-        ArrayList<ArrayList<Object>> products = CustomerService.getAllCustomerProducts(customerId);
-        
-        // Create a map to store order information
-        java.util.Map<Integer, java.sql.Date> orderDates = new java.util.HashMap<>();
-        java.util.Map<Integer, Double> orderTotals = new java.util.HashMap<>();
-        
-        // Calculate totals for each order
-        for (ArrayList<Object> product : products) {
-            int orderId = (Integer) product.get(4);
-            java.sql.Date orderDate = (java.sql.Date) product.get(5);
-            double itemTotal = (Integer) product.get(2) * (Double) product.get(3); // quantity * price
-            
-            // Store the order date
-            orderDates.putIfAbsent(orderId, orderDate);
-            
-            // Add to the order total
-            orderTotals.merge(orderId, itemTotal, Double::sum);
-        }
-        
-        // Add each order to the table
-        for (Integer orderId : orderDates.keySet()) {
-            model.addRow(new Object[]{
-                orderId,  // Order ID
-                orderDates.get(orderId),  // Date
-                String.format("$%.2f", orderTotals.get(orderId)),  // Total formatted as currency
-                "Completed"  // Status (assuming all historical orders are completed)
-            });
+    private void populateOrdersTable(int customerId, List<Order> orders) {
+        ordersCustomerId = customerId;
+        moreOrders = orders.size() == ORDER_PAGE_SIZE;
+        loadingOrders = false;
+        ordersModel.setRows(orders);
+    }
+
+    /**
+     * Loads the next page of the shown customer's orders in the background, if there is one.
+     */
+    private void loadMoreOrders() {
+        if (!moreOrders || loadingOrders || ordersModel.getRowCount() == 0) {
+            return;
         }
+        loadingOrders = true;
+        int customerId = ordersCustomerId;
+        Order last = ordersModel.getRow(ordersModel.getRowCount() - 1);
+
+        BackgroundTask.run(this, () -> customerRepository.getCustomerOrderSummaries(customerId, last, ORDER_PAGE_SIZE), orders -> {
+            // Another customer was searched for while this page was loading
+            if (customerId != ordersCustomerId || !loadingOrders) {
+                return;
+            }
+            loadingOrders = false;
+            moreOrders = orders.size() == ORDER_PAGE_SIZE;
+            ordersModel.addRows(orders);
+        }, e -> {
+            loadingOrders = false;
+            e.printStackTrace();
+        });
     }
 
-    // Update the searchCustomer method to include populating tables
+    /**
+     * Searches for a customer by ID, or by name, company, email or city, and shows the customer found.
+     * When several customers match a name the user picks one from the best matches.
+     * All lookups run in the background, a newer search cancels an older one.
+     * @param searchQuery The customer ID or words typed by the user
+     */
     private void searchCustomer(String searchQuery) {
-        try {
-            int customerId = Integer.parseInt(searchQuery);
-            int maxCustomerId = CustomerService.getCustomerCount();
-            
-            // Validate customer ID
-            if (maxCustomerId == 0) {
+        String text = searchQuery.trim();
+        if (text.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "Please enter a customer ID, name, company, email or city.",
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (text.chars().allMatch(Character::isDigit)) {
+            try {
+                showCustomer(Integer.parseInt(text));
+            } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this,
-                    "Please load a customer first",
-                    "Invalid Input",
-                    JOptionPane.WARNING_MESSAGE);
-                return;
+                    "Invalid Customer ID! The number is too large.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
             }
-            else if (customerId < 1 || customerId > maxCustomerId) {
+            return;
+        }
+
+        if (searchTask != null) {
+            searchTask.cancel(true);
+        }
+        searchTask = BackgroundTask.run(this, () -> customerRepository.searchCustomers(text, 0, SEARCH_RESULT_LIMIT), matches -> {
+            if (matches.isEmpty()) {
                 JOptionPane.showMessageDialog(this,
-                    "Customer ID must be between 1 and " + maxCustomerId,
-                    "Invalid Input",
+                    "No customers match \"" + text + "\"",
+                    "No Results",
                     JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-
-            // Retrieve and display customer data
-            Customer customer = CustomerService.getCustomerByID(customerId);
-            if (customer != null) {
-                populateCustomerFields(customer);
-                populatePaymentsTable(customerId);  // Add this line
-                populateOrdersTable(customerId);    // Add this line
+            } else if (matches.size() == 1) {
+                showCustomer(matches.get(0).getCustomerID());
             } else {
-                JOptionPane.showMessageDialog(this,
-                    "Customer not found!", "Error",
-                    JOptionPane.ERROR_MESSAGE);
+                Customer chosen = chooseCustomer(matches);
+                if (chosen != null) {
+                    showCustomer(chosen.getCustomerID());
+                }
             }
-        } catch (NumberFormatException e) {
+        }, e -> {
+            e.printStackTrace();
             JOptionPane.showMessageDialog(this,
-                "Invalid Customer ID! Please enter a number.",
+                "An error occurred while searching for customers.",
                 "Error",
                 JOptionPane.ERROR_MESSAGE);
-        } catch (Exception e) {
+        });
+    }
+
+    /**
+     * Lets the user pick one of several customers matching a search
+     * @param matches The matching customers, best first
+     * @return The customer picked, or null if cancelled
+     */
+    private Customer chooseCustomer(List<Customer> matches) {
+        DefaultListModel<String> items = new DefaultListModel<>();
+        for (Customer customer : matches) {
+            String company = customer.getCompany() == null || customer.getCompany().isEmpty() ? "" : " - " + customer.getCompany();
+            items.addElement(customer.getLastName() + ", " + customer.getFirstName() + company
+                + " (" + customer.getCity() + ") #" + customer.getCustomerID());
+        }
+        JList<String> list = new JList<>(items);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setSelectedIndex(0);
+        list.setVisibleRowCount(12);
+
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        String heading = matches.size() == SEARCH_RESULT_LIMIT
+            ? "Best " + SEARCH_RESULT_LIMIT + " matches, add more words to narrow the search:"
+            : matches.size() + " customers match:";
+        panel.add(new JLabel(heading), BorderLayout.NORTH);
+        panel.add(new JScrollPane(list), BorderLayout.CENTER);
+
+        int choice = JOptionPane.showConfirmDialog(this, panel, "Choose Customer",
+            JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION || list.getSelectedIndex() < 0) {
+            return null;
+        }
+        return matches.get(list.getSelectedIndex());
+    }
+
+    /**
+     * Loads one customer by ID and fills in the form and tables
+     * @param customerId The customer's ID
+     */
+    private void showCustomer(int customerId) {
+        if (searchTask != null) {
+            searchTask.cancel(true);
+        }
+        searchTask = BackgroundTask.run(this, () -> {
+            // Retrieve customer data, the queries run side by side
+            return customerRepository.getCustomerDetail(customerId, ORDER_PAGE_SIZE);
+        }, detail -> {
+            // Validate customer ID
+            if (detail == null) {
+                JOptionPane.showMessageDialog(this,
+                    "No customer exists with ID " + customerId,
+                    "Invalid Input",
+                    JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+
+            // Display customer data
+            populateCustomerFields(detail.getCustomer());
+            populatePaymentsTable(detail.getPayments());
+            populateOrdersTable(customerId, detail.getOrders());
+        }, e -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this,
                 "An error occurred while retrieving the customer.",
                 "Error",
                 JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     /**
@@ -702,7 +766,28 @@ public class CustomerViewPresentation extends JFrame {
      * Closes the customer view window.
      */
     private void backToMainMenu() {
-        dispose();
+        WindowPool.close(this);
+    }
+
+    /**
+     * Clears the search and the customer shown and reloads the customer list, called when the window is reopened
+     */
+    @Override
+    public void reset() {
+        if (searchTask != null) {
+            searchTask.cancel(true);
+        }
+        searchSuggestions.hide();
+        searchField.setText("");
+        for (JTextField field : new JTextField[]{firstNameField, lastNameField, streetField, cityField, stateField,
+                zipCodeField, creditField, companyField, websiteField, emailField, businessNumberField, cellNumberField,
+                titleField, statusField, remainingCreditField, lifetimeOrdersTotalField}) {
+            field.setText("");
+        }
+        notesField.setText("");
+        populateOrdersTable(0, new ArrayList<>());
+        paymentsModel.setRows(new ArrayList<>());
+        ((CustomerTableModel) customersTable.getModel()).reload();
     }
 
     /**
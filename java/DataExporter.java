@@ -0,0 +1,181 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Exports a whole table to a file, as CSV for spreadsheets or in a compact column by column
+ * binary format for analysis tools. Rows are streamed from MySQL and written straight to the file
+ * as they arrive, so nothing is collected into lists and memory use stays the same no matter how
+ * many rows are exported. The rows go to a temporary file next to the chosen one, which is only
+ * moved into place once every row was written, so a failed export never leaves a partial file behind.
+ * @author Ethan C and Aarav S
+ */
+public class DataExporter {
+
+    /**
+     * The data that can be exported
+     */
+    public enum Entity {
+        CUSTOMERS("Customers", "SELECT * FROM tblCustomer ORDER BY CustomerID"),
+        ORDERS("Orders", "SELECT O.OrderID, O.Date, O.ShippingDate, O.Status, O.ShippingMethod, O.SalesTax, O.CustomerID, " +
+            "PO.ProductID, PO.QuantityOrdered, PO.QuotedPrice " +
+            "FROM tblOrder AS O " +
+            "LEFT JOIN tblProductsOrder AS PO ON PO.OrderID = O.OrderID " +
+            "ORDER BY O.OrderID, PO.ProductID"),
+        PAYMENTS("Payments", "SELECT * FROM tblPayment ORDER BY PaymentID"),
+        PRODUCTS("Products", "SELECT * FROM tblProduct ORDER BY ProductID"),
+        SALES_REPS("Sales Reps", "SELECT * FROM tblSalesRep ORDER BY SalesRepID");
+
+        private final String label;
+        private final String query;
+
+        Entity(String label, String query) {
+            this.label = label;
+            this.query = query;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * The file formats that can be written
+     */
+    public enum Format {
+        CSV("CSV", ".csv"),
+        COLUMNAR("Columnar binary", ".hpc");
+
+        private final String label;
+        private final String extension;
+
+        Format(String label, String extension) {
+            this.label = label;
+            this.extension = extension;
+        }
+
+        /**
+         * Gets the file extension for the format
+         * @return The extension, including the dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Writes exported rows to a file in one format.
+     */
+    interface RowWriter extends Closeable {
+        /**
+         * Called once before the first row
+         * @param metaData The columns being exported
+         * @throws SQLException If the columns could not be read
+         * @throws IOException If the file could not be written
+         */
+        void start(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        /**
+         * Called for every row, the result set is on the row to write
+         * @param resultSet The rows being exported
+         * @throws SQLException If the row could not be read
+         * @throws IOException If the file could not be written
+         */
+        void write(ResultSet resultSet) throws SQLException, IOException;
+
+        /**
+         * Called once after the last row was written, writes whatever ends the file.
+         * Not called if the export failed, so close() alone leaves an unfinished file.
+         * @throws IOException If the file could not be written
+         */
+        void finish() throws IOException;
+    }
+
+    private DataExporter() {
+    }
+
+    /**
+     * Method to export every row of an entity to a file, replacing the file if it exists
+     * @param entity What to export
+     * @param format The file format
+     * @param file The file to write
+     * @return The number of rows written
+     * @throws SQLException If the rows could not be read
+     * @throws IOException If the file could not be written
+     */
+    public static long export(Entity entity, Format format, Path file) throws SQLException, IOException {
+        long rows = 0;
+        Path target = file.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        boolean moved = false;
+
+        //Connecting to SQL DB, not instrumented as QueryStats would add a proxy call to every row
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(entity.query,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Streams rows instead of reading the whole result into memory
+            preparedStatement.setFetchSize(DatabaseConfig.getStreamingFetchSize());
+
+            try (ResultSet resultSet = preparedStatement.executeQuery();
+                 RowWriter writer = format == Format.CSV ? new CsvExportWriter(temp) : new ColumnarExportWriter(temp)) {
+
+                writer.start(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    writer.write(resultSet);
+                    rows++;
+                }
+                writer.finish();
+            }
+
+            // Every row is written, only now replace the chosen file
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Exports one entity from the command line
+     * @param args The entity (like ORDERS), the format (CSV or COLUMNAR) and the file to write
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: java DataExporter <CUSTOMERS|ORDERS|PAYMENTS|PRODUCTS|SALES_REPS> <CSV|COLUMNAR> <file>");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            long rows = export(Entity.valueOf(args[0]), Format.valueOf(args[1]), Path.of(args[2]));
+            System.out.println("Exported " + rows + " rows in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+}
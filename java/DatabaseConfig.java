@@ -1,19 +1,171 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
 public final class DatabaseConfig {  
     //This is obviously not a great practice to store credentials in plaintext
     //These would usually be stored somewhere else in a secure manner and retrieved by the app
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/HomeProductsIncSmall"; //update with your port and DB name
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/HomeProductsIncSmall?rewriteBatchedStatements=true"; //update with your port and DB name, batches are sent as one statement
     private static final String DB_USERNAME = "root";  //root should be the main username
     private static final String DB_PASSWORD = "password"; //update with your password
-  
+
+    //Connection pool settings
+    private static final int POOL_MIN_SIZE = 2; //connections kept open while idle
+    private static final int POOL_MAX_SIZE = 10; //keep well under MySQL's max_connections
+    private static final long POOL_BORROW_TIMEOUT_MS = 10_000; //how long a caller waits for a free connection
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000; //idle connections above the minimum are closed after this
+    private static final long POOL_LEAK_THRESHOLD_MS = 0; //connections held longer than this are reported, 0 turns leak detection off
+    private static final int POOL_VALIDATION_TIMEOUT_S = 2; //timeout for the check done before lending a connection
+    private static final long POOL_VALIDATE_AFTER_IDLE_MS = 500; //only connections idle this long are checked, the check is a round trip
+
+    private static volatile ConnectionPool dataSource;
+
+    //Any of these can be overridden with -Dhomeproducts.db.url=... and so on, e.g. to point benchmarks at a scratch DB
+    private static final String URL_PROPERTY = "homeproducts.db.url";
+    private static final String USERNAME_PROPERTY = "homeproducts.db.username";
+    private static final String PASSWORD_PROPERTY = "homeproducts.db.password";
+    //Set to the folder with the table scripts (e.g. -Dhomeproducts.db.schema=MySQL) to create the tables on startup,
+    //for an empty scratch or embedded DB like -Dhomeproducts.db.url=jdbc:h2:mem:homeproducts;MODE=MySQL;DB_CLOSE_DELAY=-1
+    private static final String SCHEMA_PROPERTY = "homeproducts.db.schema";
+    //Set to a time in ms (e.g. -Dhomeproducts.db.leakThresholdMs=60000) to report connections held longer, with where they were borrowed
+    private static final String LEAK_THRESHOLD_PROPERTY = "homeproducts.db.leakThresholdMs";
+    private static final int NON_MYSQL_FETCH_SIZE = 1000; //rows fetched at a time when streaming isn't MySQL's
+
     public static String getDbUrl() {  
-        return DB_URL;  
+        return System.getProperty(URL_PROPERTY, DB_URL);  
     }  
-  
+
     public static String getDbUsername() {  
-        return DB_USERNAME;  
+        return System.getProperty(USERNAME_PROPERTY, DB_USERNAME);  
     }  
-  
+
     public static String getDbPassword() {  
-        return DB_PASSWORD;  
+        return System.getProperty(PASSWORD_PROPERTY, DB_PASSWORD);  
     }  
+
+    /**
+     * Checks if the configured database is MySQL, rather than an embedded stand-in
+     * @return True for a MySQL URL
+     */
+    public static boolean isMySql() {
+        return getDbUrl().startsWith("jdbc:mysql:");
+    }
+
+    /**
+     * Gets the statement that turns foreign key checks off or back on for the current connection,
+     * used while loading rows whose parents may come later. H2 has its own setting for it.
+     * @param enabled True to turn the checks back on
+     * @return The SET statement for the configured database
+     */
+    public static String foreignKeyChecks(boolean enabled) {
+        if (isMySql()) {
+            return "SET FOREIGN_KEY_CHECKS = " + (enabled ? 1 : 0);
+        }
+        return "SET REFERENTIAL_INTEGRITY " + (enabled ? "TRUE" : "FALSE");
+    }
+
+    /**
+     * Gets the fetch size that makes a forward-only query stream its rows instead of reading them all first.
+     * MySQL's driver only streams with Integer.MIN_VALUE, which other drivers reject.
+     * @return The fetch size to set on streaming statements
+     */
+    public static int getStreamingFetchSize() {
+        return isMySql() ? Integer.MIN_VALUE : NON_MYSQL_FETCH_SIZE;
+    }
+
+    /**
+     * Gets the shared pooled data source, creating it on first use
+     * @return The data source all services borrow connections from
+     */
+    public static DataSource getDataSource() {
+        ConnectionPool pool = dataSource;
+        if (pool == null) {
+            synchronized (DatabaseConfig.class) {
+                pool = dataSource;
+                if (pool == null) {
+                    pool = new ConnectionPool(getDbUrl(), getDbUsername(), getDbPassword(), POOL_MIN_SIZE, POOL_MAX_SIZE,
+                        POOL_BORROW_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, Long.getLong(LEAK_THRESHOLD_PROPERTY, POOL_LEAK_THRESHOLD_MS),
+                        POOL_VALIDATION_TIMEOUT_S, POOL_VALIDATE_AFTER_IDLE_MS);
+                    createSchema(pool);
+                    dataSource = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Creates the tables in a new database if -Dhomeproducts.db.schema was given
+     */
+    private static void createSchema(ConnectionPool pool) {
+        String folder = System.getProperty(SCHEMA_PROPERTY);
+        if (folder == null) {
+            return;
+        }
+        try (Connection connection = pool.getConnection()) {
+            SchemaLoader.createSchema(connection, Path.of(folder));
+        } catch (IOException | SQLException e) {
+            pool.shutdown();
+            throw new IllegalStateException("Could not create the tables from " + folder, e);
+        }
+    }
+
+    /**
+     * Opens the pool's minimum number of connections ahead of the first query, called at startup
+     * @throws SQLException If a connection could not be opened
+     */
+    public static void warmUp() throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            // Held together so the pool has to open each one rather than lend the same one again
+            for (int i = 0; i < POOL_MIN_SIZE; i++) {
+                connections.add(getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Borrows a connection from the pool, closing it returns it to the pool
+     * @return A pooled connection
+     * @throws SQLException If no connection could be obtained
+     */
+    public static Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
+    }
+
+    /**
+     * Borrows a connection whose statements are timed and counted in QueryStats under a query name
+     * @param queryName A stable name for the caller, like "OrderService.getOrderByID"
+     * @return A pooled, instrumented connection
+     * @throws SQLException If no connection could be obtained
+     */
+    public static Connection getConnection(String queryName) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = getConnection();
+        } catch (SQLException e) {
+            QueryStats.recordError(queryName);
+            throw e;
+        }
+        return QueryStats.instrument(queryName, connection, System.nanoTime() - start);
+    }
+
+    /**
+     * Closes the pool's connections, used when the application exits
+     */
+    public static synchronized void shutdown() {
+        if (dataSource != null) {
+            dataSource.shutdown();
+            dataSource = null;
+        }
+    }
 }  
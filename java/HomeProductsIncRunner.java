@@ -20,10 +20,22 @@ public class HomeProductsIncRunner
 	{
 		//Running the application
 		System.out.println("Starting Application...");
-        SwingUtilities.invokeLater(() -> {
-            System.out.println("Inside invokeLater...");
-            new MainMenuPresentation();
-        });
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			//Writing the query timings if asked to with -Dhomeproducts.stats.file=...
+			String statsFile = System.getProperty("homeproducts.stats.file");
+			if (statsFile != null) {
+				try {
+					QueryStats.dump(new File(statsFile));
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+			DatabaseConfig.shutdown();
+		}));
+		//Setting up the repositories the screens use
+		AppContext.set(AppContext.createStandard());
+		//Showing the splash and loading everything else behind it
+		new StartupPipeline().start();
         System.out.println("Main method execution finished.");
 	}
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * In-memory set of the integer primary keys known to exist in one table.
+ * Services use it to answer "does this ID exist" without a COUNT(*) scan: known IDs are
+ * answered from memory, anything else with a primary key lookup. IDs are added as they are
+ * looked up, inserted by this application, or picked up by an incremental refresh, and dropped
+ * when this application deletes the row. A full reload rebuilds the set from the table, which is
+ * needed after rows were deleted behind the registry's back, such as a bulk load wiping the table.
+ * Only positive answers are remembered, so rows added by other clerks are always found.
+ * @author Ethan C and Aarav S
+ */
+public class IdRegistry {
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private final String table;
+    private final String idColumn;
+    private final BitSet knownIds = new BitSet();
+    private int highestRefreshedId;
+
+    /**
+     * Creates a registry for one table
+     * @param table The table name
+     * @param idColumn The integer primary key column
+     */
+    public IdRegistry(String table, String idColumn) {
+        this.table = table;
+        this.idColumn = idColumn;
+    }
+
+    /**
+     * Checks if a row with this ID exists
+     * @param id The ID to check
+     * @return True if the row exists
+     */
+    public boolean exists(int id) {
+        if (id <= 0) {
+            return false;
+        }
+        if (isKnown(id)) {
+            return true;
+        }
+
+        // Not seen yet, ask the DB with a primary key lookup
+        String query = "SELECT 1 FROM " + table + " WHERE " + idColumn + " = ?";
+        try (Connection connection = DatabaseConfig.getConnection("IdRegistry.exists(" + table + ")");
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            preparedStatement.setInt(1, id);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    add(id);
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Checks if rows exist for every one of these IDs
+     * @param ids The IDs to check
+     * @return True if all of them exist
+     */
+    public boolean existsAll(int... ids) {
+        // Only the IDs we have not seen yet need to go to the DB
+        BitSet unknown = new BitSet();
+        for (int id : ids) {
+            if (id <= 0) {
+                return false;
+            }
+            if (!isKnown(id)) {
+                unknown.set(id);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return true;
+        }
+
+        List<Integer> pending = new ArrayList<>();
+        for (int id = unknown.nextSetBit(0); id >= 0; id = unknown.nextSetBit(id + 1)) {
+            pending.add(id);
+        }
+
+        try (Connection connection = DatabaseConfig.getConnection("IdRegistry.existsAll(" + table + ")")) {
+            for (int start = 0; start < pending.size(); start += MAX_IDS_PER_QUERY) {
+                List<Integer> chunk = pending.subList(start, Math.min(start + MAX_IDS_PER_QUERY, pending.size()));
+                StringBuilder query = new StringBuilder("SELECT " + idColumn + " FROM " + table + " WHERE " + idColumn + " IN (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    query.append(i == 0 ? "?" : ", ?");
+                }
+                query.append(")");
+
+                try (PreparedStatement preparedStatement = connection.prepareStatement(query.toString())) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        preparedStatement.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                        while (resultSet.next()) {
+                            int id = resultSet.getInt(1);
+                            add(id);
+                            unknown.clear(id);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        return unknown.isEmpty();
+    }
+
+    /**
+     * Records an ID that is known to exist, for example one this application just inserted
+     * @param id The ID
+     */
+    public synchronized void add(int id) {
+        if (id > 0) {
+            knownIds.set(id);
+        }
+    }
+
+    /**
+     * Forgets an ID, called once this application has deleted the row
+     * @param id The ID
+     */
+    public synchronized void remove(int id) {
+        if (id > 0) {
+            knownIds.clear(id);
+        }
+    }
+
+    /**
+     * Loads the IDs added since the last refresh. The first refresh loads every ID.
+     * Only the primary key index is read. Deleted rows are not noticed, use reload for that.
+     */
+    public void refresh() {
+        int after;
+        synchronized (this) {
+            after = highestRefreshedId;
+        }
+        String query = "SELECT " + idColumn + " FROM " + table + " WHERE " + idColumn + " > ? ORDER BY " + idColumn;
+
+        try (Connection connection = DatabaseConfig.getConnection("IdRegistry.refresh(" + table + ")");
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            preparedStatement.setInt(1, after);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                int highest = after;
+                while (resultSet.next()) {
+                    highest = resultSet.getInt(1);
+                    add(highest);
+                }
+                synchronized (this) {
+                    highestRefreshedId = Math.max(highestRefreshedId, highest);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Rebuilds the set from every ID in the table, so rows deleted since they were seen are dropped.
+     * The old set is kept if the IDs cannot be read.
+     */
+    public void reload() {
+        String query = "SELECT " + idColumn + " FROM " + table;
+        BitSet ids = new BitSet();
+        int highest = 0;
+
+        try (Connection connection = DatabaseConfig.getConnection("IdRegistry.reload(" + table + ")");
+             PreparedStatement preparedStatement = connection.prepareStatement(query);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+
+            while (resultSet.next()) {
+                int id = resultSet.getInt(1);
+                if (id > 0) {
+                    ids.set(id);
+                    highest = Math.max(highest, id);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        synchronized (this) {
+            knownIds.clear();
+            knownIds.or(ids);
+            highestRefreshedId = highest;
+        }
+    }
+
+    /**
+     * Checks the in-memory set only
+     * @param id The ID
+     * @return True if the ID is known to exist
+     */
+    private synchronized boolean isKnown(int id) {
+        return knownIds.get(id);
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.List;
+
+/**
+ * CustomerRepository backed by the database through CustomerService.
+ * @author Ethan C and Aarav S
+ */
+public class JdbcCustomerRepository implements CustomerRepository {
+    @Override
+    public Customer getCustomerByID(int id) {
+        return CustomerService.getCustomerByID(id);
+    }
+
+    @Override
+    public CustomerDetail getCustomerDetail(int id, int orderPageSize) throws InterruptedException {
+        return CustomerService.getCustomerDetail(id, orderPageSize);
+    }
+
+    @Override
+    public List<Order> getCustomerOrderSummaries(int id, Order after, int pageSize) {
+        return CustomerService.getCustomerOrderSummaries(id, after, pageSize);
+    }
+
+    @Override
+    public List<Customer> getCustomerPage(int afterCustomerId, int pageSize) {
+        return CustomerService.getCustomerPage(afterCustomerId, pageSize);
+    }
+
+    @Override
+    public List<Customer> searchCustomers(String text, int offset, int limit) {
+        return CustomerService.searchCustomers(text, offset, limit);
+    }
+
+    @Override
+    public int[] getCustomerPageKeys(int pageSize) {
+        return CustomerService.getCustomerPageKeys(pageSize);
+    }
+
+    @Override
+    public int getCustomerCount() {
+        return CustomerService.getCustomerCount();
+    }
+
+    @Override
+    public boolean addCustomer(Customer customer) {
+        return CustomerService.addCustomer(customer);
+    }
+
+    @Override
+    public boolean editCustomer(Customer customer) {
+        return CustomerService.editCustomer(customer);
+    }
+
+    @Override
+    public boolean exists(int id) {
+        return CustomerService.exists(id);
+    }
+}
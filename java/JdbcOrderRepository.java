@@ -0,0 +1,27 @@
+import java.util.List;
+
+/**
+ * OrderRepository backed by the database through OrderService.
+ * @author Ethan C and Aarav S
+ */
+public class JdbcOrderRepository implements OrderRepository {
+    @Override
+    public Order getOrderByID(int id) {
+        return OrderService.getOrderByID(id);
+    }
+
+    @Override
+    public List<Payment> getOrderPayments(int orderId) {
+        return OrderService.getOrderPayments(orderId);
+    }
+
+    @Override
+    public boolean placeOrder(Order order, List<OrderProduct> products) {
+        return OrderService.placeOrder(order, products);
+    }
+
+    @Override
+    public boolean exists(int id) {
+        return OrderService.exists(id);
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * PaymentRepository backed by the database through PaymentService.
+ * @author Ethan C and Aarav S
+ */
+public class JdbcPaymentRepository implements PaymentRepository {
+    @Override
+    public boolean addPayment(Payment payment) {
+        return PaymentService.addPayment(payment);
+    }
+}
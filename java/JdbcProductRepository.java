@@ -0,0 +1,35 @@
+/**
+ * ProductRepository backed by the database through ProductService.
+ * @author Ethan C and Aarav S
+ */
+public class JdbcProductRepository implements ProductRepository {
+    @Override
+    public Product getProductByID(String id) {
+        return ProductService.getProductByID(id);
+    }
+
+    @Override
+    public int getTotalUnitsOnHand() {
+        return ProductService.getTotalUnitsOnHand();
+    }
+
+    @Override
+    public boolean addProduct(Product product) {
+        return ProductService.addProduct(product);
+    }
+
+    @Override
+    public boolean editProduct(Product product) {
+        return ProductService.editProduct(product);
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return ProductService.exists(id);
+    }
+
+    @Override
+    public boolean warehouseExists(int id) {
+        return ProductService.warehouseExists(id);
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * SalesRepRepository backed by the database through SalesRepService.
+ * @author Ethan C and Aarav S
+ */
+public class JdbcSalesRepRepository implements SalesRepRepository {
+    @Override
+    public SalesRep getSalesRepByID(int id) {
+        return SalesRepService.getSalesRepByID(id);
+    }
+
+    @Override
+    public boolean addSalesRep(SalesRep salesRep) {
+        return SalesRepService.addSalesRep(salesRep);
+    }
+
+    @Override
+    public boolean editSalesRep(SalesRep salesRep) {
+        return SalesRepService.editSalesRep(salesRep);
+    }
+
+    @Override
+    public boolean exists(int id) {
+        return SalesRepService.exists(id);
+    }
+}
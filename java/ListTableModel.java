@@ -0,0 +1,82 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-only table model that shows a list of typed rows, such as the payments or products
+ * returned by the services. Cells are read straight from the row objects when the table
+ * paints them, so nothing is copied into Object arrays when the rows are set.
+ * @param <T> The row type
+ * @author Ethan C and Aarav S
+ */
+public class ListTableModel<T> extends AbstractTableModel {
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Function<T, Object>> columnValues = new ArrayList<>();
+    private List<T> rows = new ArrayList<>();
+
+    /**
+     * Adds a column, used while setting up the table
+     * @param name The column heading
+     * @param value Gets the cell value from a row
+     * @return This model, so columns can be chained
+     */
+    public ListTableModel<T> addColumn(String name, Function<T, Object> value) {
+        columnNames.add(name);
+        columnValues.add(value);
+        return this;
+    }
+
+    /**
+     * Replaces the rows shown
+     * @param rows The new rows, kept as is
+     */
+    public void setRows(List<T> rows) {
+        this.rows = rows != null ? rows : new ArrayList<>();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Adds rows after the ones already shown, for tables that load a page at a time
+     * @param more The rows to add
+     */
+    public void addRows(List<T> more) {
+        if (more.isEmpty()) {
+            return;
+        }
+        int first = rows.size();
+        List<T> combined = new ArrayList<>(rows);
+        combined.addAll(more);
+        rows = combined;
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    /**
+     * Gets the row object shown in a table row
+     * @param row The row index
+     * @return The row object
+     */
+    public T getRow(int row) {
+        return rows.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return columnValues.get(column).apply(rows.get(row));
+    }
+}
@@ -1,9 +1,6 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.File;
-import javax.imageio.ImageIO;
-import java.io.IOException;
 
 /**
  * MainMenuPresentation serves as the main entry point and navigation hub for the Home Products Inc Management System.
@@ -14,7 +11,6 @@ import java.io.IOException;
  */
 public class MainMenuPresentation extends JFrame {
 
-    private BufferedImage backgroundImage;
     private static final String VERSION = "1.0.0";
 
     // Modern color scheme constants
@@ -26,7 +22,7 @@ public class MainMenuPresentation extends JFrame {
 
     /**
      * Constructor initializes the main menu window with all UI components.
-     * Sets up the frame properties, loads background image, and creates the layout.
+     * Sets up the frame properties, the background and the layout.
      */
     public MainMenuPresentation() {
         System.out.println("Initializing Main Menu Presentation...");
@@ -37,38 +33,8 @@ public class MainMenuPresentation extends JFrame {
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
-        // Load and handle background image
-        try {
-            backgroundImage = ImageIO.read(new File("NewBackground.png"));
-            System.out.println("Background image loaded successfully.");
-        } catch (IOException e) {
-            System.err.println("Error loading background image: " + e.getMessage());
-        }
-
-        // Create main panel with custom background painting
-        JPanel mainPanel = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                
-                if (backgroundImage != null) {
-                    g2d.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
-                } else {
-                    // Fallback gradient background
-                    GradientPaint gradient = new GradientPaint(0, 0, new Color(41, 128, 185, 220),
-                            0, getHeight(), new Color(44, 62, 80, 220));
-                    g2d.setPaint(gradient);
-                    g2d.fillRect(0, 0, getWidth(), getHeight());
-                }
-                
-                // Add overlay for better readability
-                g2d.setColor(new Color(255, 255, 255, 30));
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
-
+        // Main panel painting the background image, decoded and scaled once by BackgroundPanel
+        JPanel mainPanel = new BackgroundPanel(new BorderLayout());
         setContentPane(mainPanel);
 
         // Add main UI components
@@ -77,6 +43,12 @@ public class MainMenuPresentation extends JFrame {
         mainPanel.add(createFooterPanel(), BorderLayout.SOUTH);
 
         setVisible(true);
+
+        // Build the most used windows while the menu sits idle, so they open instantly
+        WindowPool.prebuildLater(CustomerViewPresentation.class, CustomerViewPresentation::new);
+        WindowPool.prebuildLater(OrderViewPresentation.class, OrderViewPresentation::new);
+        WindowPool.prebuildLater(OrderEditPresentation.class, OrderEditPresentation::new);
+        WindowPool.prebuildLater(PaymentPresentation.class, PaymentPresentation::new);
         System.out.println("Main Menu Presentation Initialized Successfully.");
     }
 
@@ -93,6 +65,11 @@ public class MainMenuPresentation extends JFrame {
         headerLabel.setFont(new Font("Segoe UI Light", Font.BOLD, 28));
         headerLabel.setForeground(Color.WHITE);
         headerPanel.add(headerLabel, BorderLayout.CENTER);
+
+        // Export button for pulling whole tables out to a file
+        JButton exportButton = createUtilityButton("Export", ACCENT_COLOR);
+        exportButton.addActionListener(e -> showExportDialog());
+        headerPanel.add(exportButton, BorderLayout.EAST);
         
         return headerPanel;
     }
@@ -271,34 +248,66 @@ public class MainMenuPresentation extends JFrame {
     }
 
     /**
-     * Navigation method handlers
+     * Navigation method handlers, windows are reused once built
      */
     private void openCustomerView() {
-        SwingUtilities.invokeLater(() -> new CustomerViewPresentation().setVisible(true));
+        WindowPool.open(CustomerViewPresentation.class, CustomerViewPresentation::new);
     }
 
     private void openCustomerEditPresentation() {
-        SwingUtilities.invokeLater(() -> new CustomerEditPresentation().setVisible(true));
+        WindowPool.open(CustomerEditPresentation.class, CustomerEditPresentation::new);
     }
 
     private void openOrderViewPresentation() {
-        SwingUtilities.invokeLater(() -> new OrderViewPresentation().setVisible(true));
+        WindowPool.open(OrderViewPresentation.class, OrderViewPresentation::new);
     }
 
     private void openOrderEditPresentation() {
-        SwingUtilities.invokeLater(() -> new OrderEditPresentation().setVisible(true));
+        WindowPool.open(OrderEditPresentation.class, OrderEditPresentation::new);
     }
 
     private void openPaymentPresentation() {
-        SwingUtilities.invokeLater(() -> new PaymentPresentation().setVisible(true));
+        WindowPool.open(PaymentPresentation.class, PaymentPresentation::new);
     }
 
     private void openSalesRepsEditPresentation() {
-        SwingUtilities.invokeLater(() -> new SalesRepEditPresentation().setVisible(true));
+        WindowPool.open(SalesRepEditPresentation.class, SalesRepEditPresentation::new);
     }
 
     private void openProductsEditPresentation() {
-        SwingUtilities.invokeLater(() -> new ProductEditPresentation().setVisible(true));
+        WindowPool.open(ProductEditPresentation.class, ProductEditPresentation::new);
+    }
+
+    /**
+     * Asks what to export and where, then writes the file in the background.
+     */
+    private void showExportDialog() {
+        JComboBox<DataExporter.Entity> entityBox = new JComboBox<>(DataExporter.Entity.values());
+        JComboBox<DataExporter.Format> formatBox = new JComboBox<>(DataExporter.Format.values());
+        JPanel panel = new JPanel(new GridLayout(2, 2, 5, 5));
+        panel.add(new JLabel("Export:"));
+        panel.add(entityBox);
+        panel.add(new JLabel("Format:"));
+        panel.add(formatBox);
+        if (JOptionPane.showConfirmDialog(this, panel, "Export Data", JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        DataExporter.Entity entity = (DataExporter.Entity) entityBox.getSelectedItem();
+        DataExporter.Format format = (DataExporter.Format) formatBox.getSelectedItem();
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(entity.name().toLowerCase() + format.getExtension()));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File file = chooser.getSelectedFile();
+        BackgroundTask.run(this, () -> DataExporter.export(entity, format, file.toPath()), rows -> {
+            JOptionPane.showMessageDialog(this,
+                "Exported " + rows + " rows to " + file.getName(),
+                "Export Complete",
+                JOptionPane.INFORMATION_MESSAGE);
+        });
     }
 
     /**
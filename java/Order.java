@@ -1,4 +1,6 @@
 import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents an order with details such as customer information, order dates, 
@@ -19,6 +21,7 @@ public class Order {
     private double calculatedTax;
     private double orderTotal;
     private double discount;
+    private List<OrderProduct> products = new ArrayList<>();
 
     /**
      * Default constructor for creating an Order object with no initial values.
@@ -241,4 +244,22 @@ public class Order {
     public void setDiscount(double discount) {
         this.discount = discount;
     }
+
+    /**
+     * Gets the products on the order.
+     * 
+     * @return the order's line items.
+     */
+    public List<OrderProduct> getProducts() {
+        return products;
+    }
+
+    /**
+     * Sets the products on the order.
+     * 
+     * @param products the line items to set.
+     */
+    public void setProducts(List<OrderProduct> products) {
+        this.products = products;
+    }
 }
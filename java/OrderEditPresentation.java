@@ -4,15 +4,23 @@ import java.awt.*;
 import java.awt.event.*;
 import java.text.DecimalFormat;
 import javax.swing.border.*;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
 import java.sql.Date;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Class to edit an order
  * @author Ethan C and Aarav S
  * @version 1.0.0
  */
-public class OrderEditPresentation extends JFrame {
+public class OrderEditPresentation extends JFrame implements ReusableWindow {
+    private final CustomerRepository customerRepository = AppContext.get().getCustomers();
+    private final OrderRepository orderRepository = AppContext.get().getOrders();
+    private final ProductRepository productRepository = AppContext.get().getProducts();
+
     // Modern color scheme (matching SalesRepEditPresentation)
     private static final Color PRIMARY_COLOR = new Color(41, 128, 185);    // Professional blue
     private static final Color SECONDARY_COLOR = new Color(236, 240, 241); // Light gray
@@ -22,6 +30,7 @@ public class OrderEditPresentation extends JFrame {
     private static final Color BACKGROUND_COLOR = new Color(75, 101, 132); // Blue-grey
     private static final Color BUTTON_BG_COLOR = Color.WHITE;
     private static final Color BUTTON_TEXT_COLOR = HEADER_COLOR;
+    private static final int PRODUCT_SUGGESTION_LIMIT = 10; // live suggestions shown while typing a product
 
     // stuff for styling
     private JTextField customerIdField, orderDateField, shippingDateField, salesTaxField;
@@ -40,18 +49,7 @@ public class OrderEditPresentation extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         // Main panel with gradient background
-        JPanel mainPanel = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                
-                // Solid blue-grey background
-                g2d.setColor(BACKGROUND_COLOR);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
+        JPanel mainPanel = new BackgroundPanel(new BorderLayout(), BACKGROUND_COLOR);
         mainPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
         setContentPane(mainPanel);
 
@@ -107,7 +105,7 @@ public class OrderEditPresentation extends JFrame {
         // initialize order date defaults date to today
         initializeOrderDate();
         saveOrderButton.addActionListener(e -> saveOrder());
-        cancelButton.addActionListener(e -> dispose());
+        cancelButton.addActionListener(e -> WindowPool.close(this));
 
         return buttonPanel;
     }
@@ -375,47 +373,66 @@ public class OrderEditPresentation extends JFrame {
      * @param model The table for the products
      */
     private void addProduct(DefaultTableModel model) {
-        // product id error if no products
-        String productId = JOptionPane.showInputDialog(this, "Enter Product ID:");
-        if (ProductService.getProductCount() == 0) {
-            JOptionPane.showMessageDialog(this,
-                "Please load a product first",
-                "Input Error",
-                JOptionPane.ERROR_MESSAGE);
-            return;
-        }  
-        
-        // if invalid product id
-        Product product = ProductService.getProductByID(productId);
-        if (product == null) {
-            JOptionPane.showMessageDialog(this,
-                "Invalid input. Please enter a valid product ID.",
-                "Input Error",
-                JOptionPane.ERROR_MESSAGE);
+        // The ID field suggests products by ID, description or class while typing
+        JTextField productField = new JTextField(25);
+        TypeAheadPopup.install(productField, text -> SearchIndexes.suggestProducts(text, PRODUCT_SUGGESTION_LIMIT),
+            suggestion -> productField.setText(suggestion.getKey()));
+        productField.addAncestorListener(new AncestorListener() {
+            @Override
+            public void ancestorAdded(AncestorEvent event) {
+                productField.requestFocusInWindow();
+            }
+
+            @Override
+            public void ancestorRemoved(AncestorEvent event) {
+            }
+
+            @Override
+            public void ancestorMoved(AncestorEvent event) {
+            }
+        });
+        JPanel productPanel = new JPanel(new BorderLayout(0, 5));
+        productPanel.add(new JLabel("Enter Product ID:"), BorderLayout.NORTH);
+        productPanel.add(productField, BorderLayout.CENTER);
+        if (JOptionPane.showConfirmDialog(this, productPanel, "Add Product", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.QUESTION_MESSAGE) != JOptionPane.OK_OPTION) {
             return;
         }
+        String productId = productField.getText().trim();
 
-        // if invalid quantity
-        String quantityStr = JOptionPane.showInputDialog(this, "Enter Quantity:");
-        try {
-            int quantity = Integer.parseInt(quantityStr);
-            if (!isValidQuantity(productId, quantity)) {
+        // looking the product up in the background
+        BackgroundTask.run(this, () -> productRepository.getProductByID(productId), product -> {
+            // if invalid product id
+            if (product == null) {
                 JOptionPane.showMessageDialog(this,
-                    "Quantity must be between 1 and " + ProductService.getTotalUnitsOnHand(),
+                    "Invalid input. Please enter a valid product ID.",
                     "Input Error",
                     JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            
-            model.addRow(new Object[]{productId, product.getProductClass(), quantityStr, product.getUnitPrice()});
-        
-        // sending error message to user
-        } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(this, 
-                "Invalid input. Quantity must be a positive integer.", 
-                "Input Error", 
-                JOptionPane.ERROR_MESSAGE);
-        }
+
+            // if invalid quantity
+            String quantityStr = JOptionPane.showInputDialog(this, "Enter Quantity:");
+            try {
+                int quantity = Integer.parseInt(quantityStr);
+                if (!isValidQuantity(quantity, product.getUnitsOnHand())) {
+                    JOptionPane.showMessageDialog(this,
+                        "Quantity must be between 1 and " + product.getUnitsOnHand(),
+                        "Input Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                model.addRow(new Object[]{productId, product.getProductClass(), quantityStr, product.getUnitPrice()});
+
+            // sending error message to user
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this,
+                    "Invalid input. Quantity must be a positive integer.",
+                    "Input Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     /**
@@ -458,15 +475,6 @@ public class OrderEditPresentation extends JFrame {
         totalField.setText(df.format(total));
     }
 
-    /**
-     * Validating customer id
-     * @param customerId The ID of the customer
-     * @return if its valid or not
-     */
-    private boolean isValidCustomerId(int customerId) {
-        return customerId > 0 && customerId <= CustomerService.getCustomerCount();
-    }
-
     /**
      * Validating order date
      * @param orderDate The date of the order
@@ -487,28 +495,14 @@ public class OrderEditPresentation extends JFrame {
         return !shippingDate.before(new java.util.Date());
     }
 
-    /**
-     * Validating product id
-     * @param productId The ID of the product
-     * @return if its valid or not
-     */
-    private boolean isValidProductId(String productId) {
-        try {
-            int id = Integer.parseInt(productId);
-            return id > 0 && id <= ProductService.getProductCount();
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-
     /**
      * Validating quantity
-     * @param productId The productId
      * @param quantity The quantity
+     * @param unitsOnHand The units of the product on hand
      * @return if its valid or not
      */
-    private boolean isValidQuantity(String productId, int quantity) {
-        return quantity > 0 && quantity <= ProductService.getTotalUnitsOnHand();
+    private boolean isValidQuantity(int quantity, int unitsOnHand) {
+        return quantity > 0 && quantity <= unitsOnHand;
     }
 
     /**
@@ -524,27 +518,12 @@ public class OrderEditPresentation extends JFrame {
             return;
         }
 
-        // validating customer ID
+        // creating the new order
+        Order newOrder = new Order();
+        List<OrderProduct> products = new ArrayList<>();
+        int customerId;
         try {
-            // Validate Customer ID
-            int customerId = Integer.parseInt(customerIdField.getText());
-            
-            // if no customers loaded
-            if (CustomerService.getCustomerCount() == 0) {
-                JOptionPane.showMessageDialog(this,
-                    "Please load a customer first",
-                    "Input Error",
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }     
-            // if the id isnt valid     
-            else if (!isValidCustomerId(customerId)) {
-                JOptionPane.showMessageDialog(this,
-                    "Customer ID must be between 1 and " + CustomerService.getCustomerCount(),
-                    "Input Error",
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+            customerId = Integer.parseInt(customerIdField.getText());
 
             // Validate dates
             Date orderDate = Date.valueOf(orderDateField.getText());
@@ -566,8 +545,6 @@ public class OrderEditPresentation extends JFrame {
                 return;
             }
 
-            // creating the new order
-            Order newOrder = new Order();
             newOrder.setCustomerID(customerId);
             newOrder.setDate(orderDate);
             newOrder.setShippingDate(shippingDate);
@@ -575,20 +552,13 @@ public class OrderEditPresentation extends JFrame {
             newOrder.setShippingMethod((String)shippingMethodComboBox.getSelectedItem());
             newOrder.setSalesTax(Double.parseDouble(salesTaxField.getText()));
 
-            // success or fail
-            boolean result = OrderService.addOrder(newOrder);
-            if (result) {
-                JOptionPane.showMessageDialog(this, 
-                    "Order data saved.", 
-                    "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                    "Order data not saved.", 
-                    "Failed", 
-                    JOptionPane.INFORMATION_MESSAGE);
+            // the products in the table, quoted at their unit price
+            for (int i = 0; i < productsTable.getRowCount(); i++) {
+                products.add(new OrderProduct(
+                    (String) productsTable.getValueAt(i, 0),
+                    Integer.parseInt((String) productsTable.getValueAt(i, 2)),
+                    (double) productsTable.getValueAt(i, 3)));
             }
-            dispose();
 
         // showing user errors
         } catch (NumberFormatException e) {
@@ -596,12 +566,63 @@ public class OrderEditPresentation extends JFrame {
                 "Customer ID must be an integer and Sales Tax must be a valid number.", 
                 "Input Error", 
                 JOptionPane.ERROR_MESSAGE);
+            return;
         } catch (IllegalArgumentException e) {
             JOptionPane.showMessageDialog(this, 
                 "Invalid date format. Please use YYYY-MM-DD.", 
                 "Input Error", 
                 JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        // validating customer ID in the background, then saving
+        BackgroundTask.run(this, () -> customerRepository.exists(customerId), customerExists -> {
+            // if the id isnt valid
+            if (!customerExists) {
+                JOptionPane.showMessageDialog(this,
+                    "No customer exists with ID " + customerId,
+                    "Input Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            // success or fail
+            // the order, its products and the stock change are saved together
+            BackgroundTask.run(this, () -> orderRepository.placeOrder(newOrder, products), result -> {
+                if (result) {
+                    JOptionPane.showMessageDialog(this, 
+                        "Order " + newOrder.getOrderID() + " saved.", 
+                        "Success", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                    WindowPool.close(this);
+                } else {
+                    JOptionPane.showMessageDialog(this, 
+                        "Order data not saved. A product may no longer have enough stock.", 
+                        "Failed", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                }
+            });
+        });
+        // No second click until the save is done
+        BackgroundTask.disableWhileBusy(this, saveOrderButton);
+    }
+
+    /**
+     * Empties the order and its products, called when the window is reopened
+     */
+    @Override
+    public void reset() {
+        customerIdField.setText("");
+        initializeOrderDate();
+        shippingDateField.setText("");
+        statusComboBox.setSelectedIndex(0);
+        shippingMethodComboBox.setSelectedIndex(0);
+        salesTaxField.setText("0.07");
+        ((DefaultTableModel) productsTable.getModel()).setRowCount(0);
+        subtotalField.setText("");
+        taxField.setText("");
+        totalField.setText("");
+        discountField.setText("");
     }
 
     /**
@@ -0,0 +1,152 @@
+import java.sql.Date;
+
+/**
+ * Represents one line of an order: a product, how many were ordered and the price quoted.
+ * Maps to a row of tblProductsOrder.
+ * @author Ethan C and Aarav S
+ * @version 1.0
+ */
+public class OrderProduct {
+    private int orderID;
+    private String productID;
+    private String description;
+    private int quantityOrdered;
+    private double quotedPrice;
+    private Date orderDate;
+
+    /**
+     * Default constructor for creating an OrderProduct object with no initial values.
+     */
+    public OrderProduct() {
+    }
+
+    /**
+     * Creates an order line for a product.
+     *
+     * @param productID the ID of the product ordered.
+     * @param quantityOrdered how many units were ordered.
+     * @param quotedPrice the price per unit quoted to the customer.
+     */
+    public OrderProduct(String productID, int quantityOrdered, double quotedPrice) {
+        this.productID = productID;
+        this.quantityOrdered = quantityOrdered;
+        this.quotedPrice = quotedPrice;
+    }
+
+    /**
+     * Gets the ID of the order this line belongs to.
+     *
+     * @return the order ID as an integer.
+     */
+    public int getOrderID() {
+        return orderID;
+    }
+
+    /**
+     * Sets the ID of the order this line belongs to.
+     *
+     * @param orderID the order ID to set.
+     */
+    public void setOrderID(int orderID) {
+        this.orderID = orderID;
+    }
+
+    /**
+     * Gets the ID of the product ordered.
+     *
+     * @return the product ID as a string.
+     */
+    public String getProductID() {
+        return productID;
+    }
+
+    /**
+     * Sets the ID of the product ordered.
+     *
+     * @param productID the product ID to set.
+     */
+    public void setProductID(String productID) {
+        this.productID = productID;
+    }
+
+    /**
+     * Gets the description of the product ordered.
+     *
+     * @return the product description as a string.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Sets the description of the product ordered.
+     *
+     * @param description the description to set.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Gets how many units were ordered.
+     *
+     * @return the quantity ordered as an integer.
+     */
+    public int getQuantityOrdered() {
+        return quantityOrdered;
+    }
+
+    /**
+     * Sets how many units were ordered.
+     *
+     * @param quantityOrdered the quantity to set.
+     */
+    public void setQuantityOrdered(int quantityOrdered) {
+        this.quantityOrdered = quantityOrdered;
+    }
+
+    /**
+     * Gets the price per unit quoted to the customer.
+     *
+     * @return the quoted price as a double.
+     */
+    public double getQuotedPrice() {
+        return quotedPrice;
+    }
+
+    /**
+     * Sets the price per unit quoted to the customer.
+     *
+     * @param quotedPrice the quoted price to set.
+     */
+    public void setQuotedPrice(double quotedPrice) {
+        this.quotedPrice = quotedPrice;
+    }
+
+    /**
+     * Gets the date of the order this line belongs to, filled in when lines from several orders are listed.
+     *
+     * @return the order date.
+     */
+    public Date getOrderDate() {
+        return orderDate;
+    }
+
+    /**
+     * Sets the date of the order this line belongs to.
+     *
+     * @param orderDate the order date to set.
+     */
+    public void setOrderDate(Date orderDate) {
+        this.orderDate = orderDate;
+    }
+
+    /**
+     * Gets the total for this line, the quantity times the quoted price.
+     *
+     * @return the line total as a double.
+     */
+    public double getLineTotal() {
+        return quantityOrdered * quotedPrice;
+    }
+}
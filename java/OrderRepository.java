@@ -0,0 +1,36 @@
+import java.util.List;
+
+/**
+ * Order data as the screens see it.
+ * @author Ethan C and Aarav S
+ */
+public interface OrderRepository {
+    /**
+     * Gets an order with its customer, lines and totals
+     * @param id The order's id
+     * @return The order, or null if there is no such order
+     */
+    Order getOrderByID(int id);
+
+    /**
+     * Gets the payments made against an order
+     * @param orderId The order's id
+     * @return The payments
+     */
+    List<Payment> getOrderPayments(int orderId);
+
+    /**
+     * Places an order with its products in one transaction
+     * @param order The order, its OrderID is set when the order is placed
+     * @param products The products on the order
+     * @return True if the order was placed
+     */
+    boolean placeOrder(Order order, List<OrderProduct> products);
+
+    /**
+     * Checks if an order exists
+     * @param id The order's id
+     * @return True if the order exists
+     */
+    boolean exists(int id);
+}
@@ -1,10 +1,13 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;  
-import java.sql.DriverManager;  
 import java.sql.PreparedStatement;  
 import java.sql.ResultSet;  
 import java.sql.SQLException;  
 import java.util.ArrayList;  
+import java.util.LinkedHashMap;
 import java.util.List;  
+import java.util.Map;
 import java.sql.Date;
 
 /**
@@ -13,6 +16,9 @@ import java.sql.Date;
  */
 public class OrderService 
 {
+    //IDs known to exist, so ID checks rarely need the DB
+    private static final IdRegistry ORDER_IDS = new IdRegistry("tblOrder", "OrderID");
+
 	/**
 	 * Method to get all the orders and some of their information
 	 * @return A list of all orders
@@ -24,7 +30,7 @@ public class OrderService
         String query = "SELECT OrderID, CustomerID, Date FROM tblOrder";  
   		
   		//Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("OrderService.getAllOrders");  
              PreparedStatement preparedStatement = connection.prepareStatement(query);  
              ResultSet resultSet = preparedStatement.executeQuery()) {  
   			
@@ -46,44 +52,82 @@ public class OrderService
 	}
 
 	/**
-	 * Method to get all the information on one order
+	 * Method to get all the information on one order, including its products.
+	 * The order and its lines are read in one primary key lookup and the totals are worked out here,
+	 * so opening one order never aggregates the rest of the order history.
 	 * @param id The order's id
-	 * @return The order
+	 * @return The order, or null if it does not exist
 	 */
 	public static Order getOrderByID(int id) {  
 		//Initialize variables
         Order order = null;  
-        String query = "SELECT O.OrderID, CONCAT(C.FirstName, ' ', C.LastName) AS CustomerName, O.Date, O.ShippingDate, " +
-            "O.Status, O.ShippingMethod, O.SalesTax, SUM(PO.QuantityOrdered * PO.QuotedPrice) AS OrderSubtotal, O.SalesTax, " + 
-            "ROUND(SUM(PO.QuantityOrdered * PO.QuotedPrice) * (1 + SalesTax), 2) AS OrderTotal, " + 
-            "SUM((P.UnitPrice - PO.QuotedPrice) * PO.QuantityOrdered) AS Discount " +
+        String query = "SELECT O.OrderID, O.CustomerID, C.FirstName, C.LastName, O.Date, O.ShippingDate, O.Status, " +
+            "O.ShippingMethod, O.SalesTax, PO.ProductID, PO.QuantityOrdered, PO.QuotedPrice, P.Description, P.UnitPrice " +
             "FROM tblOrder AS O " + 
-            "LEFT JOIN tblProductsOrder AS PO ON PO.OrderID = O.OrderID " + 
             "LEFT JOIN tblCustomer AS C ON C.CustomerID = O.CustomerID " + 
+            "LEFT JOIN tblProductsOrder AS PO ON PO.OrderID = O.OrderID " + 
             "LEFT JOIN tblProduct AS P ON P.ProductID = PO.ProductID " +
-            "GROUP BY O.OrderID HAVING O.OrderID = ?";
+            "WHERE O.OrderID = ? " +
+            "ORDER BY PO.ProductID";
   	
   		//Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
-
+        try (Connection connection = DatabaseConfig.getConnection("OrderService.getOrderByID");
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
   
             preparedStatement.setInt(1, id);  
             try (ResultSet resultSet = preparedStatement.executeQuery()) {  
-                if (resultSet.next()) {  
-                	//Grabbing all info from the order
-                    order = new Order();  
-                    order.setOrderID(resultSet.getInt("OrderID"));  
-                    order.setCustomerName(resultSet.getString("CustomerName"));
-                    order.setDate(resultSet.getDate("Date"));
-                    order.setShippingDate(resultSet.getDate("ShippingDate"));
-                    order.setStatus(resultSet.getString("Status"));
-                    order.setShippingMethod(resultSet.getString("ShippingMethod"));
-                    order.setSalesTax(resultSet.getDouble("SalesTax"));
-                    order.setOrderSubtotal(resultSet.getDouble("OrderSubtotal"));
-                    order.setOrderTotal(resultSet.getDouble("OrderTotal"));
-                    order.setDiscount(resultSet.getDouble("Discount"));
-                }  
+                BigDecimal subtotal = BigDecimal.ZERO;
+                BigDecimal discount = BigDecimal.ZERO;
+                BigDecimal salesTax = BigDecimal.ZERO;
+
+                while (resultSet.next()) {  
+                    if (order == null) {
+                    	//Grabbing the order info from the first row, it is the same on every row
+                        order = new Order();  
+                        order.setOrderID(resultSet.getInt("OrderID"));  
+                        order.setCustomerID(resultSet.getInt("CustomerID"));
+                        String firstName = resultSet.getString("FirstName");
+                        String lastName = resultSet.getString("LastName");
+                        order.setCustomerName(firstName == null || lastName == null ? null : firstName + " " + lastName);
+                        order.setDate(resultSet.getDate("Date"));
+                        order.setShippingDate(resultSet.getDate("ShippingDate"));
+                        order.setStatus(resultSet.getString("Status"));
+                        order.setShippingMethod(resultSet.getString("ShippingMethod"));
+                        if (resultSet.getBigDecimal("SalesTax") != null) {
+                            salesTax = resultSet.getBigDecimal("SalesTax");
+                        }
+                        order.setSalesTax(salesTax.doubleValue());
+                    }
+
+                    //An order with no products still comes back as one row with no product
+                    String productId = resultSet.getString("ProductID");
+                    if (productId == null) {
+                        continue;
+                    }
+                    BigDecimal quantity = BigDecimal.valueOf(resultSet.getInt("QuantityOrdered"));
+                    BigDecimal quotedPrice = resultSet.getBigDecimal("QuotedPrice");
+                    BigDecimal unitPrice = resultSet.getBigDecimal("UnitPrice");
+
+                    OrderProduct product = new OrderProduct(productId, quantity.intValue(),
+                        quotedPrice == null ? 0 : quotedPrice.doubleValue());
+                    product.setOrderID(id);
+                    product.setDescription(resultSet.getString("Description"));
+                    order.getProducts().add(product);
+
+                    //Lines without a price are left out of the sums, the same as SUM() would
+                    if (quotedPrice != null) {
+                        subtotal = subtotal.add(quantity.multiply(quotedPrice));
+                        if (unitPrice != null) {
+                            discount = discount.add(unitPrice.subtract(quotedPrice).multiply(quantity));
+                        }
+                    }
+                }
+
+                if (order != null) {
+                    order.setOrderSubtotal(subtotal.doubleValue());
+                    order.setOrderTotal(subtotal.multiply(BigDecimal.ONE.add(salesTax)).setScale(2, RoundingMode.HALF_UP).doubleValue());
+                    order.setDiscount(discount.doubleValue());
+                }
             }  
         } catch (SQLException e) {  
             e.printStackTrace();  
@@ -99,25 +143,29 @@ public class OrderService
      */
     public static boolean addOrder(Order order) {  
     	//Initialize variables
-        String query = "INSERT INTO tblOrder (CustomerID, Date, ShippingDate, Status, ShippingMethod, SalesTax) VALUES (?, ?, ?, ?, ?, ?)";  
+        String query = "INSERT INTO tblOrder (OrderID, CustomerID, Date, ShippingDate, Status, ShippingMethod, SalesTax) VALUES (?, ?, ?, ?, ?, ?, ?)";  
         boolean success = false;
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("OrderService.addOrder");  
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
   	
-  			//Getting all the order's info  
-            preparedStatement.setInt(1, order.getCustomerID());
-            preparedStatement.setDate(2, order.getDate());   
-            preparedStatement.setDate(3, order.getShippingDate());  
-            preparedStatement.setString(4, order.getStatus()); 
-            preparedStatement.setString(5, order.getShippingMethod());  
-            preparedStatement.setDouble(6, order.getSalesTax());   
+  			//Getting all the order's info, order IDs are not auto numbered so the caller picks it
+            preparedStatement.setInt(1, order.getOrderID());
+            preparedStatement.setInt(2, order.getCustomerID());
+            preparedStatement.setDate(3, order.getDate());   
+            preparedStatement.setDate(4, order.getShippingDate());  
+            preparedStatement.setString(5, order.getStatus()); 
+            preparedStatement.setString(6, order.getShippingMethod());  
+            preparedStatement.setDouble(7, order.getSalesTax());   
 
             //Checking if order has been added
             int rowsAffected = preparedStatement.executeUpdate();  
             if (rowsAffected > 0) {  
                 success = true;
+
+                //Remembering the new ID so it validates without a lookup
+                ORDER_IDS.add(order.getOrderID());
             }  
         } catch (SQLException e) {  
             e.printStackTrace();  
@@ -126,6 +174,130 @@ public class OrderService
         return success;
     }
 
+    /**
+     * Method to place an order: inserts the order, inserts its products, adds them to the customer's
+     * balance and takes them out of stock in one transaction, so either all of it is saved or none of it is.
+     * Each table gets one batched statement, and lines for the same product are merged.
+     * Stock is taken in one UPDATE whose row count must match the number of products.
+     * @param order The order, its OrderID is set when the order is placed
+     * @param products The products on the order
+     * @return True if the order was placed, false if it failed or a product did not have enough stock
+     */
+    public static boolean placeOrder(Order order, List<OrderProduct> products) {
+        //Merging lines for the same product, the product is part of the primary key
+        Map<String, OrderProduct> lines = new LinkedHashMap<>();
+        for (OrderProduct product : products) {
+            OrderProduct line = lines.get(product.getProductID());
+            if (line == null) {
+                lines.put(product.getProductID(), new OrderProduct(product.getProductID(), product.getQuantityOrdered(), product.getQuotedPrice()));
+            } else {
+                line.setQuantityOrdered(line.getQuantityOrdered() + product.getQuantityOrdered());
+            }
+        }
+        if (lines.isEmpty()) {
+            return false;
+        }
+
+        //H2 does not allow FOR UPDATE on an aggregate, so there the highest order row is locked instead
+        String nextIdQuery = DatabaseConfig.isMySql()
+            ? "SELECT COALESCE(MAX(OrderID), 0) + 1 AS NextOrderID FROM tblOrder FOR UPDATE"
+            : "SELECT OrderID + 1 AS NextOrderID FROM tblOrder ORDER BY OrderID DESC LIMIT 1 FOR UPDATE";
+        String orderQuery = "INSERT INTO tblOrder (OrderID, CustomerID, Date, ShippingDate, Status, ShippingMethod, SalesTax) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String productQuery = "INSERT INTO tblProductsOrder (OrderID, ProductID, QuantityOrdered, QuotedPrice) VALUES (?, ?, ?, ?)";
+        //Only takes stock if there is enough of it, one CASE arm per product
+        StringBuilder quantities = new StringBuilder("CASE ProductID");
+        StringBuilder productIds = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            quantities.append(" WHEN ? THEN ?");
+            productIds.append(i == 0 ? "?" : ", ?");
+        }
+        quantities.append(" END");
+        String stockQuery = "UPDATE tblProduct SET UnitsOnHand = UnitsOnHand - " + quantities
+            + " WHERE ProductID IN (" + productIds + ") AND UnitsOnHand >= " + quantities;
+
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("OrderService.placeOrder")) {
+            connection.setAutoCommit(false);
+            try {
+                //Order IDs are not auto numbered, lock the highest one while we take the next
+                int orderId;
+                try (PreparedStatement preparedStatement = connection.prepareStatement(nextIdQuery);
+                     ResultSet resultSet = preparedStatement.executeQuery()) {
+                    //No row at all when the embedded query runs on an empty table
+                    orderId = resultSet.next() ? resultSet.getInt("NextOrderID") : 1;
+                }
+
+                //Adding the order
+                try (PreparedStatement preparedStatement = connection.prepareStatement(orderQuery)) {
+                    preparedStatement.setInt(1, orderId);
+                    preparedStatement.setInt(2, order.getCustomerID());
+                    preparedStatement.setDate(3, order.getDate());
+                    preparedStatement.setDate(4, order.getShippingDate());
+                    preparedStatement.setString(5, order.getStatus());
+                    preparedStatement.setString(6, order.getShippingMethod());
+                    preparedStatement.setDouble(7, order.getSalesTax());
+                    preparedStatement.executeUpdate();
+                }
+
+                //Adding all the order's products in one batch
+                try (PreparedStatement preparedStatement = connection.prepareStatement(productQuery)) {
+                    for (OrderProduct line : lines.values()) {
+                        preparedStatement.setInt(1, orderId);
+                        preparedStatement.setString(2, line.getProductID());
+                        preparedStatement.setInt(3, line.getQuantityOrdered());
+                        preparedStatement.setDouble(4, line.getQuotedPrice());
+                        preparedStatement.addBatch();
+                    }
+                    preparedStatement.executeBatch();
+                }
+
+                //Adding the lines to the customer's running total
+                BigDecimal orderTotal = BigDecimal.ZERO;
+                for (OrderProduct line : lines.values()) {
+                    orderTotal = orderTotal.add(BigDecimal.valueOf(line.getQuotedPrice()).multiply(BigDecimal.valueOf(line.getQuantityOrdered())));
+                }
+                CustomerBalanceService.addOrderTotal(connection, order.getCustomerID(), orderTotal);
+
+                //Taking the products out of stock in one statement, every product must have had enough
+                //A batch would not do here, drivers may report SUCCESS_NO_INFO instead of the rows it changed
+                try (PreparedStatement preparedStatement = connection.prepareStatement(stockQuery)) {
+                    int parameter = 1;
+                    for (OrderProduct line : lines.values()) {
+                        preparedStatement.setString(parameter++, line.getProductID());
+                        preparedStatement.setInt(parameter++, line.getQuantityOrdered());
+                    }
+                    for (OrderProduct line : lines.values()) {
+                        preparedStatement.setString(parameter++, line.getProductID());
+                    }
+                    for (OrderProduct line : lines.values()) {
+                        preparedStatement.setString(parameter++, line.getProductID());
+                        preparedStatement.setInt(parameter++, line.getQuantityOrdered());
+                    }
+                    int updated = preparedStatement.executeUpdate();
+                    if (updated != lines.size()) {
+                        System.err.println("Not enough stock of " + (lines.size() - updated) + " of the products for the order");
+                        connection.rollback();
+                        return false;
+                    }
+                }
+
+                connection.commit();
+                order.setOrderID(orderId);
+                ORDER_IDS.add(orderId);
+                CustomerBalanceService.invalidate(order.getCustomerID());
+                ProductService.invalidate(lines.keySet());
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return false;
+    }
+
     /**
      * Method to get the count of all orders
      * @return The count of orders
@@ -135,7 +307,7 @@ public class OrderService
         String query = "SELECT COUNT(*) AS OrderCount FROM tblOrder";
 
         // Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+        try (Connection connection = DatabaseConfig.getConnection("OrderService.getOrderCount");
              PreparedStatement preparedStatement = connection.prepareStatement(query);
              ResultSet resultSet = preparedStatement.executeQuery()) {
 
@@ -152,20 +324,18 @@ public class OrderService
     /**
      * Method to get all products for a specific order
      * @param orderId The order's ID
-     * @return ArrayList of ArrayLists containing product details
+     * @return The order's lines with their product descriptions
      */
-    public static ArrayList<ArrayList<Object>> getOrderProducts(int orderId) {
+    public static List<OrderProduct> getOrderProducts(int orderId) {
         //Initialize variables
-        ArrayList<ArrayList<Object>> products = new ArrayList<>();
-        String query = "SELECT p.ProductID, p.Description, po.QuantityOrdered, po.QuotedPrice, " +
-                      "(po.QuantityOrdered * po.QuotedPrice) as Total " +
+        List<OrderProduct> products = new ArrayList<>();
+        String query = "SELECT p.ProductID, p.Description, po.QuantityOrdered, po.QuotedPrice " +
                       "FROM tblProductsOrder po " +
                       "JOIN tblProduct p ON p.ProductID = po.ProductID " +
                       "WHERE po.OrderID = ?";
 
         //Connecting to the DB 
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), 
-                DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+        try (Connection connection = DatabaseConfig.getConnection("OrderService.getOrderProducts");
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
 
             preparedStatement.setInt(1, orderId);
@@ -174,12 +344,10 @@ public class OrderService
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
                     //Adding all product info
-                    ArrayList<Object> product = new ArrayList<>();
-                    product.add(resultSet.getString("ProductID"));
-                    product.add(resultSet.getString("Description"));
-                    product.add(resultSet.getInt("QuantityOrdered"));
-                    product.add(resultSet.getDouble("QuotedPrice"));
-                    product.add(resultSet.getDouble("Total"));
+                    OrderProduct product = new OrderProduct(resultSet.getString("ProductID"),
+                        resultSet.getInt("QuantityOrdered"), resultSet.getDouble("QuotedPrice"));
+                    product.setOrderID(orderId);
+                    product.setDescription(resultSet.getString("Description"));
                     products.add(product);
                 }
             }
@@ -193,18 +361,17 @@ public class OrderService
     /**
      * Method to get all payments for a specific order
      * @param orderId The order's ID
-     * @return ArrayList of ArrayLists containing payment details
+     * @return The order's payments with their ID, date, amount and method
      */
-    public static ArrayList<ArrayList<Object>> getOrderPayments(int orderId) {
+    public static List<Payment> getOrderPayments(int orderId) {
         //Initialize variables
-        ArrayList<ArrayList<Object>> payments = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
         String query = "SELECT PaymentID, Date, Amount, Method " +
                       "FROM tblPayment " +
                       "WHERE OrderID = ?";
 
         //Connecting to the DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), 
-                DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+        try (Connection connection = DatabaseConfig.getConnection("OrderService.getOrderPayments");
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
 
             preparedStatement.setInt(1, orderId);
@@ -213,11 +380,12 @@ public class OrderService
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
                     //Adding all payment info
-                    ArrayList<Object> payment = new ArrayList<>();
-                    payment.add(resultSet.getInt("PaymentID"));
-                    payment.add(resultSet.getDate("Date"));
-                    payment.add(resultSet.getDouble("Amount"));
-                    payment.add(resultSet.getString("Method"));
+                    Payment payment = new Payment();
+                    payment.setPaymentID(resultSet.getInt("PaymentID"));
+                    payment.setOrderID(orderId);
+                    payment.setDate(resultSet.getDate("Date"));
+                    payment.setAmount(resultSet.getDouble("Amount"));
+                    payment.setMethod(resultSet.getString("Method"));
                     payments.add(payment);
                 }
             }
@@ -227,4 +395,29 @@ public class OrderService
 
         return payments;
     }
+
+    /**
+     * Method to check if an order exists
+     * @param id The order's id
+     * @return True if the order exists
+     */
+    public static boolean exists(int id) {
+        return ORDER_IDS.exists(id);
+    }
+
+    /**
+     * Method to check if every one of these orders exists
+     * @param ids The order ids
+     * @return True if all of them exist
+     */
+    public static boolean existsAll(int... ids) {
+        return ORDER_IDS.existsAll(ids);
+    }
+
+    /**
+     * Method to read every order id into memory again, used after bulk loads that may have deleted orders
+     */
+    public static void refreshIds() {
+        ORDER_IDS.reload();
+    }
 }
\ No newline at end of file
@@ -1,16 +1,18 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
 import javax.swing.border.*;
-import java.util.ArrayList;  
+import java.util.ArrayList;
+import java.util.List;  
 
 /**
  * Class to view an order
  * @author Ethan C and Aarav S
  * @version 1.0.0
  */
-public class OrderViewPresentation extends JFrame {
+public class OrderViewPresentation extends JFrame implements ReusableWindow {
+    private final OrderRepository orderRepository = AppContext.get().getOrders();
+
     // Modern color scheme (matching CustomerViewPresentation)
     private static final Color PRIMARY_COLOR = new Color(41, 128, 185);    // Professional blue
     private static final Color SECONDARY_COLOR = new Color(236, 240, 241); // Light gray
@@ -23,9 +25,12 @@ public class OrderViewPresentation extends JFrame {
 
     // styling things
     private JTextField orderIdField, orderDateField, shippingDateField, statusField, shippingMethodField;
-    private JTextField customerNameField, salesTaxField, orderSubtotalField, orderTotalField, discountField;
+    private JTextField customerNameField, salesTaxField, orderSubtotalField, orderTotalField, discountField, searchField;
     private JTable productsTable, paymentsTable;
+    private ListTableModel<OrderProduct> productsModel;
+    private ListTableModel<Payment> paymentsModel;
     private JButton backButton;
+    private SwingWorker<?, ?> searchTask;
 
     /**
      * Constructor initializes the form and components
@@ -37,16 +42,7 @@ public class OrderViewPresentation extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         // Main panel with gradient background
-        JPanel mainPanel = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                g2d.setColor(BACKGROUND_COLOR);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
+        JPanel mainPanel = new BackgroundPanel(new BorderLayout(), BACKGROUND_COLOR);
         mainPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
         setContentPane(mainPanel);
 
@@ -197,7 +193,7 @@ public class OrderViewPresentation extends JFrame {
         gbc.insets = new Insets(5, 5, 5, 5);
         gbc.fill = GridBagConstraints.HORIZONTAL;
 
-        JTextField searchField = createStyledTextField();
+        searchField = createStyledTextField();
         JButton searchButton = createStyledButton("Search", ACCENT_COLOR);
         
         addFormField(panel, "Order ID:", searchField, gbc);
@@ -284,9 +280,13 @@ public class OrderViewPresentation extends JFrame {
         panel.setOpaque(false);
         
         // configuring the UI
-        String[] columnNames = {"Product ID", "Description", "Quantity", "Unit Price ($)", "Total ($)"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-        productsTable = new JTable(model);
+        productsModel = new ListTableModel<OrderProduct>()
+            .addColumn("Product ID", OrderProduct::getProductID)
+            .addColumn("Description", OrderProduct::getDescription)
+            .addColumn("Quantity", OrderProduct::getQuantityOrdered)
+            .addColumn("Unit Price ($)", product -> String.format("%.2f", product.getQuotedPrice()))
+            .addColumn("Total ($)", product -> String.format("%.2f", product.getLineTotal()));
+        productsTable = new JTable(productsModel);
         productsTable.setForeground(TEXT_COLOR);
         productsTable.setBackground(SECONDARY_COLOR);
         productsTable.setGridColor(ACCENT_COLOR);
@@ -310,9 +310,12 @@ public class OrderViewPresentation extends JFrame {
         panel.setOpaque(false);
         
         // configuring the UI
-        String[] columnNames = {"Payment ID", "Date", "Amount ($)", "Method"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-        paymentsTable = new JTable(model);
+        paymentsModel = new ListTableModel<Payment>()
+            .addColumn("Payment ID", Payment::getPaymentID)
+            .addColumn("Date", Payment::getDate)
+            .addColumn("Amount ($)", payment -> String.format("%.2f", payment.getAmount()))
+            .addColumn("Method", Payment::getMethod);
+        paymentsTable = new JTable(paymentsModel);
         paymentsTable.setForeground(TEXT_COLOR);
         paymentsTable.setBackground(SECONDARY_COLOR);
         paymentsTable.setGridColor(ACCENT_COLOR);
@@ -371,29 +374,49 @@ public class OrderViewPresentation extends JFrame {
         panel.add(field, gbc);
     }
 
+    /**
+     * Searches for an order by ID and fills in the form and tables.
+     * All lookups run in the background, a newer search cancels an older one.
+     * @param searchQuery The order ID typed by the user
+     */
     private void searchOrder(String searchQuery) {
+        int orderId;
         try {
-            int orderId = Integer.parseInt(searchQuery);
-            int maxOrderId = OrderService.getOrderCount();
-            
-            // if no orders do this
-            if (maxOrderId == 0) {
-                JOptionPane.showMessageDialog(this,
-                    "Please load an order first",
-                    "Invalid Input",
-                    JOptionPane.WARNING_MESSAGE);
-                return;
+            orderId = Integer.parseInt(searchQuery);
+        // showing user the errors
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this,
+                "Invalid Order ID! Please enter a number.",
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        if (searchTask != null) {
+            searchTask.cancel(true);
+        }
+        searchTask = BackgroundTask.run(this, () -> {
+            // getting the order with its products, and its payments
+            OrderSearchResult result = new OrderSearchResult();
+            result.exists = orderRepository.exists(orderId);
+            if (result.exists) {
+                result.order = orderRepository.getOrderByID(orderId);
+                if (result.order != null) {
+                    result.payments = orderRepository.getOrderPayments(orderId);
+                }
             }
+            return result;
+        }, result -> {
             // if invalid order do this
-            else if (orderId < 0 || orderId > maxOrderId) {
+            if (!result.exists) {
                 JOptionPane.showMessageDialog(this,
-                    "Order ID must be between 0 and " + maxOrderId,
+                    "No order exists with ID " + orderId,
                     "Invalid Input",
                     JOptionPane.WARNING_MESSAGE);
                 return;
             }
 
-            Order order = OrderService.getOrderByID(orderId);
+            Order order = result.order;
             if (order != null) {
                 // Update order details
                 orderDateField.setText(String.valueOf(order.getDate()));
@@ -406,59 +429,54 @@ public class OrderViewPresentation extends JFrame {
                 orderTotalField.setText(String.format("%.2f", order.getOrderTotal()));
                 discountField.setText(String.format("%.2f", order.getDiscount()));
 
-                // Update products table
-                DefaultTableModel productsModel = (DefaultTableModel) productsTable.getModel();
-                productsModel.setRowCount(0); // Clear existing rows
-                ArrayList<ArrayList<Object>> products = OrderService.getOrderProducts(orderId);
-                for (ArrayList<Object> product : products) {
-                    Object[] row = {
-                        product.get(0), // Product ID
-                        product.get(1), // Description
-                        product.get(2), // Quantity
-                        String.format("%.2f", product.get(3)), // Unit Price
-                        String.format("%.2f", product.get(4))  // Total
-                    };
-                    productsModel.addRow(row);
-                }
-
-                // Update payments table
-                DefaultTableModel paymentsModel = (DefaultTableModel) paymentsTable.getModel();
-                paymentsModel.setRowCount(0); // Clear existing rows
-                ArrayList<ArrayList<Object>> payments = OrderService.getOrderPayments(orderId);
-                for (ArrayList<Object> payment : payments) {
-                    Object[] row = {
-                        payment.get(0), // Payment ID
-                        payment.get(1), // Date
-                        String.format("%.2f", payment.get(2)), // Amount
-                        payment.get(3)  // Method
-                    };
-                    paymentsModel.addRow(row);
-                }
+                // Update products and payments tables
+                productsModel.setRows(order.getProducts());
+                paymentsModel.setRows(result.payments);
             } else {
                 JOptionPane.showMessageDialog(this,
                     "Order not found!", "Error",
                     JOptionPane.ERROR_MESSAGE);
             }
-        // showing user the errors
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(this,
-                "Invalid Order ID! Please enter a number.",
-                "Error",
-                JOptionPane.ERROR_MESSAGE);
-        } catch (Exception e) {
+        }, e -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this,
                 "An error occurred while retrieving the order.",
                 "Error",
                 JOptionPane.ERROR_MESSAGE);
-        }
+        });
+    }
+
+    /**
+     * Everything loaded in the background for one order search.
+     */
+    private static class OrderSearchResult {
+        private boolean exists;
+        private Order order;
+        private List<Payment> payments;
     }
 
     /**
      * Back button functionality
      */
     private void backToMainMenu() {
-        dispose();
+        WindowPool.close(this);
+    }
+
+    /**
+     * Clears the search and the order shown, called when the window is reopened
+     */
+    @Override
+    public void reset() {
+        if (searchTask != null) {
+            searchTask.cancel(true);
+        }
+        searchField.setText("");
+        for (JTextField field : new JTextField[]{orderIdField, orderDateField, shippingDateField, statusField,
+                shippingMethodField, customerNameField, salesTaxField, orderSubtotalField, orderTotalField, discountField}) {
+            field.setText("");
+        }
+        productsModel.setRows(new ArrayList<>());
+        paymentsModel.setRows(new ArrayList<>());
     }
 
     /**
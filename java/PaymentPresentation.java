@@ -10,7 +10,11 @@ import java.sql.Date;
  * @author Ethan C and Aarav S
  * @version 1.0.0
  */
-public class PaymentPresentation extends JFrame {
+public class PaymentPresentation extends JFrame implements ReusableWindow {
+    private final CustomerRepository customerRepository = AppContext.get().getCustomers();
+    private final OrderRepository orderRepository = AppContext.get().getOrders();
+    private final PaymentRepository paymentRepository = AppContext.get().getPayments();
+
     private JTextField customerIdField, orderIdField, amountField, cardNumberField, cardExpirationField, cardHolderField, paymentDateField;
     private JComboBox<String> paymentMethodComboBox;
     private JButton submitButton, cancelButton;
@@ -35,16 +39,7 @@ public class PaymentPresentation extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         // Main panel with gradient background
-        JPanel mainPanel = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                g2d.setColor(BACKGROUND_COLOR);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
+        JPanel mainPanel = new BackgroundPanel(new BorderLayout(), BACKGROUND_COLOR);
         mainPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
         setContentPane(mainPanel);
 
@@ -66,7 +61,7 @@ public class PaymentPresentation extends JFrame {
         // payment date is todays date
         initializePaymentDate();
         submitButton.addActionListener(e -> submitPayment());
-        cancelButton.addActionListener(e -> dispose());
+        cancelButton.addActionListener(e -> WindowPool.close(this));
     }
 
     /**
@@ -303,69 +298,16 @@ public class PaymentPresentation extends JFrame {
         cardHolderField.setEnabled(isCardPayment);
     }
 
-    /**
-     * Check if customer id is valid
-     * @param customerId
-     * @return if its valid
-     */
-    private boolean isValidCustomerId(int customerId) {
-        return customerId > 0 && customerId <= CustomerService.getCustomerCount();
-    }
-
-    /**
-     * Check if order id is valid
-     * @param orderId
-     * @return if its valid
-     */
-    private boolean isValidOrderId(int orderId) {
-        return orderId > 0 && orderId <= OrderService.getOrderCount();
-    }
-
     /**
      * Submit a payment
      */
     private void submitPayment() {
         Payment newPayment = new Payment();
+        int customerId;
+        int orderId;
         try {
-            // Validate Customer ID
-            if (CustomerService.getCustomerCount() == 0) {
-                JOptionPane.showMessageDialog(this,
-                    "Please load a customer first",
-                    "Input Error",
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            // if the customer id not in bounds throw error
-            int customerId = Integer.parseInt(customerIdField.getText());
-            if (customerId < 1 || customerId > CustomerService.getCustomerCount()) {
-                JOptionPane.showMessageDialog(this,
-                    "Customer ID must be between 1 and " + CustomerService.getCustomerCount(),
-                    "Input Error",
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            newPayment.setCustomerID(customerId);
-
-            // Validate Order ID
-            if (OrderService.getOrderCount() == 0) {
-                JOptionPane.showMessageDialog(this,
-                    "Please load an order first",
-                    "Input Error",
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            
-            // if order id not in bounds throw error
-            int orderId = Integer.parseInt(orderIdField.getText());
-            if (orderId < 1 || orderId > OrderService.getOrderCount()) {
-                JOptionPane.showMessageDialog(this,
-                    "Order ID must be between 1 and " + OrderService.getOrderCount(),
-                    "Input Error",
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            newPayment.setOrderID(orderId);
+            customerId = Integer.parseInt(customerIdField.getText());
+            orderId = Integer.parseInt(orderIdField.getText());
 
             // Validate Amount
             double amount = Double.parseDouble(amountField.getText());
@@ -402,6 +344,8 @@ public class PaymentPresentation extends JFrame {
             }
 
             // Set payment details
+            newPayment.setCustomerID(customerId);
+            newPayment.setOrderID(orderId);
             newPayment.setAmount(amount);
             newPayment.setDate(paymentDate);
             newPayment.setMethod((String) paymentMethodComboBox.getSelectedItem());
@@ -413,27 +357,68 @@ public class PaymentPresentation extends JFrame {
             }
             newPayment.setCreditCard((String) paymentMethodComboBox.getSelectedItem());
 
-            boolean result = PaymentService.addPayment(newPayment);
-            if (result) {
-                JOptionPane.showMessageDialog(this,
-                    "Payment data saved successfully.",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE);
-                dispose();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                    "Failed to save payment data.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            }
-
         // showing user exceptions
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                 e.getMessage(),
                 "Input Error",
                 JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        // Validate the customer and order IDs in the background, then save
+        BackgroundTask.run(this, () -> new boolean[]{customerRepository.exists(customerId), orderRepository.exists(orderId)}, found -> {
+            // Validate Customer ID
+            if (!found[0]) {
+                JOptionPane.showMessageDialog(this,
+                    "No customer exists with ID " + customerId,
+                    "Input Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            // Validate Order ID
+            if (!found[1]) {
+                JOptionPane.showMessageDialog(this,
+                    "No order exists with ID " + orderId,
+                    "Input Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            BackgroundTask.run(this, () -> paymentRepository.addPayment(newPayment), result -> {
+                if (result) {
+                    JOptionPane.showMessageDialog(this,
+                        "Payment data saved successfully.",
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE);
+                    WindowPool.close(this);
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        "Failed to save payment data.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        });
+        // No second click until the save is done
+        BackgroundTask.disableWhileBusy(this, submitButton);
+    }
+
+    /**
+     * Empties the payment form, called when the window is reopened
+     */
+    @Override
+    public void reset() {
+        customerIdField.setText("");
+        orderIdField.setText("");
+        amountField.setText("");
+        initializePaymentDate();
+        paymentMethodComboBox.setSelectedIndex(0);
+        cardNumberField.setText("");
+        cardExpirationField.setText("");
+        cardHolderField.setText("");
+        updateCardFields();
     }
 
     /**
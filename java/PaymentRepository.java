@@ -0,0 +1,12 @@
+/**
+ * Payment data as the screens see it.
+ * @author Ethan C and Aarav S
+ */
+public interface PaymentRepository {
+    /**
+     * Adds a payment
+     * @param payment The payment
+     * @return True or false
+     */
+    boolean addPayment(Payment payment);
+}
@@ -1,5 +1,5 @@
+import java.math.BigDecimal;
 import java.sql.Connection;  
-import java.sql.DriverManager;  
 import java.sql.PreparedStatement;  
 import java.sql.ResultSet;  
 import java.sql.SQLException;  
@@ -24,7 +24,7 @@ public class PaymentService
         String query = "SELECT PaymentID, OrderID, Amount, Method FROM tblPayment WHERE CustomerID = ?";
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("PaymentService.getAllPayments");  
 
             PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
   
@@ -59,7 +59,7 @@ public class PaymentService
         String query = "SELECT * FROM tblCustomer WHERE ID = ?";  
   	
   		//Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("PaymentService.getPaymentById");  
 
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
   
@@ -88,7 +88,7 @@ public class PaymentService
     }  
 
     /**
-     * Method to add a payment
+     * Method to add a payment, the customer's balance is updated in the same transaction
      * @param payment The Payment
      * @return True or false
      */
@@ -98,29 +98,42 @@ public class PaymentService
         boolean success = false;
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("PaymentService.addPayment");  
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
   	
-  			//Getting all the payment's info
-            preparedStatement.setInt(1, payment.getCustomerID());  
-            preparedStatement.setInt(2, payment.getOrderID());  
-            preparedStatement.setDate(3, payment.getDate());
-            preparedStatement.setString(4, payment.getCardOwner()); 
-            preparedStatement.setDouble(5, payment.getAmount());  
-            preparedStatement.setString(6, payment.getMethod());  
-            preparedStatement.setString(7, payment.getCardNumber());
-            preparedStatement.setDate(8, payment.getCardExpirationDate());
-            preparedStatement.setString(9, payment.getCreditCard());     
+            connection.setAutoCommit(false);
+            try {
+  			    //Getting all the payment's info
+                preparedStatement.setInt(1, payment.getCustomerID());  
+                preparedStatement.setInt(2, payment.getOrderID());  
+                preparedStatement.setDate(3, payment.getDate());
+                preparedStatement.setString(4, payment.getCardOwner()); 
+                preparedStatement.setDouble(5, payment.getAmount());  
+                preparedStatement.setString(6, payment.getMethod());  
+                preparedStatement.setString(7, payment.getCardNumber());
+                preparedStatement.setDate(8, payment.getCardExpirationDate());
+                preparedStatement.setString(9, payment.getCreditCard());     
 
-            //Checking if payment has been added
-            int rowsAffected = preparedStatement.executeUpdate();  
-            if (rowsAffected > 0) {  
-                success = true;
-            }  
+                //Checking if payment has been added
+                int rowsAffected = preparedStatement.executeUpdate();  
+                if (rowsAffected > 0) {  
+                    CustomerBalanceService.addPaymentTotal(connection, payment.getCustomerID(), BigDecimal.valueOf(payment.getAmount()));
+                    connection.commit();
+                    success = true;
+                } else {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         } catch (SQLException e) {  
             e.printStackTrace();  
         }  
 
+        if (success) {
+            CustomerBalanceService.invalidate(payment.getCustomerID());
+        }
         return success;
     }
 }
\ No newline at end of file
@@ -8,7 +8,9 @@ import javax.swing.border.*;
  * @author Ethan C and Aarav S
  * @version 1.0.0
  */
-public class ProductEditPresentation extends JFrame {
+public class ProductEditPresentation extends JFrame implements ReusableWindow {
+    private final ProductRepository productRepository = AppContext.get().getProducts();
+
     private JTextField productIdField, descriptionField, unitPriceField, unitsOnHandField, warehouseIdField;
     private JComboBox<String> classComboBox, editModeComboBox;
     private JButton saveButton, cancelButton, loadProductButton;
@@ -35,16 +37,7 @@ public class ProductEditPresentation extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         // Main panel with solid background
-        JPanel mainPanel = new JPanel(new BorderLayout(10, 10)) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                g2d.setColor(BACKGROUND_COLOR);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
+        JPanel mainPanel = new BackgroundPanel(new BorderLayout(10, 10), BACKGROUND_COLOR);
         mainPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
         setContentPane(mainPanel);
 
@@ -101,7 +94,7 @@ public class ProductEditPresentation extends JFrame {
         buttonPanel.add(cancelButton);
 
         saveButton.addActionListener(e -> saveProduct());
-        cancelButton.addActionListener(e -> dispose());
+        cancelButton.addActionListener(e -> WindowPool.close(this));
 
         return buttonPanel;
     }
@@ -145,17 +138,7 @@ public class ProductEditPresentation extends JFrame {
      */
     private JPanel createGroupedFormPanel() {
         // configuring UI
-        JPanel groupedPanel = new JPanel(new GridBagLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                g2d.setColor(BACKGROUND_COLOR);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
-        groupedPanel.setOpaque(false);
+        JPanel groupedPanel = new BackgroundPanel(new GridBagLayout(), BACKGROUND_COLOR);
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.insets = new Insets(5, 5, 5, 5);
@@ -327,18 +310,18 @@ public class ProductEditPresentation extends JFrame {
             return;
         }
 
-        Product product = ProductService.getProductByID(productId);
-
-        // if not null then set the data in the form to the right values
-        if (product != null)
-        {
-            productIdField.setText(product.getProductID());
-            descriptionField.setText(product.getDescription());
-            unitPriceField.setText(String.valueOf(product.getUnitPrice()));
-            unitsOnHandField.setText(String.valueOf(product.getUnitsOnHand()));
-            classComboBox.setSelectedItem(product.getProductClass());
-            warehouseIdField.setText(String.valueOf(product.getWarehouseID()));
-        }
+        BackgroundTask.run(this, () -> productRepository.getProductByID(productId), product -> {
+            // if not null then set the data in the form to the right values
+            if (product != null)
+            {
+                productIdField.setText(product.getProductID());
+                descriptionField.setText(product.getDescription());
+                unitPriceField.setText(String.valueOf(product.getUnitPrice()));
+                unitsOnHandField.setText(String.valueOf(product.getUnitsOnHand()));
+                classComboBox.setSelectedItem(product.getProductClass());
+                warehouseIdField.setText(String.valueOf(product.getWarehouseID()));
+            }
+        });
     }
 
     /**
@@ -416,22 +399,12 @@ public class ProductEditPresentation extends JFrame {
      * Saving a product
      */
     private void saveProduct() {
+        boolean isEditing = editModeComboBox.getSelectedItem().equals("Yes");
+        String productId = productIdField.getText();
+        double unitPrice;
+        int unitsOnHand;
+        int warehouseId;
         try {
-            boolean isEditing = editModeComboBox.getSelectedItem().equals("Yes");
-            
-            // Product ID validation only when editing
-            if (isEditing) {
-                String productId = productIdField.getText();
-                if (ProductService.getProductCount() == 0) {
-                    showErrorDialog("Please load a product first");
-                    return;
-                }
-                if (productId.isEmpty() || ProductService.getProductByID(productId) == null) {
-                    showErrorDialog("Please enter a valid Product ID");
-                    return;
-                }
-            }
-
             // Basic required field validation (excluding product ID for new products)
             if (descriptionField.getText().isEmpty() || 
                 unitsOnHandField.getText().isEmpty() || 
@@ -442,35 +415,50 @@ public class ProductEditPresentation extends JFrame {
             }
 
             // Unit price validation
-            double unitPrice = Double.parseDouble(unitPriceField.getText());
+            unitPrice = Double.parseDouble(unitPriceField.getText());
             if (unitPrice <= 0) {
                 showErrorDialog("Unit price must be greater than 0.");
                 return;
             }
 
-            // Units on hand validation
-            int unitsOnHand = Integer.parseInt(unitsOnHandField.getText());
-            int totalUnits = ProductService.getTotalUnitsOnHand();
-            if (unitsOnHand < 0 || unitsOnHand > totalUnits) {
-                showErrorDialog("Units on hand must be between 0 and " + totalUnits + ".");
+            unitsOnHand = Integer.parseInt(unitsOnHandField.getText());
+            warehouseId = Integer.parseInt(warehouseIdField.getText());
+
+        // showing user error
+        } catch (NumberFormatException ex) {
+            showErrorDialog("Please ensure all numeric fields contain valid numbers.");
+            return;
+        }
+
+        // Checking the product, stock and warehouse against the DB in the background
+        BackgroundTask.run(this, () -> {
+            ProductChecks checks = new ProductChecks();
+            checks.productExists = !isEditing || (!productId.isEmpty() && productRepository.exists(productId));
+            checks.totalUnits = productRepository.getTotalUnitsOnHand();
+            checks.warehouseExists = productRepository.warehouseExists(warehouseId);
+            return checks;
+        }, checks -> {
+            // Product ID validation only when editing
+            if (!checks.productExists) {
+                showErrorDialog("Please enter a valid Product ID");
                 return;
             }
 
-            // Warehouse ID validation
-            int warehouseId = Integer.parseInt(warehouseIdField.getText());
-            int maxWarehouse = ProductService.getWarehouseCount();
-            if (maxWarehouse == 0) {
-                showErrorDialog("Please load a warehouse first");
+            // Units on hand validation
+            if (unitsOnHand < 0 || unitsOnHand > checks.totalUnits) {
+                showErrorDialog("Units on hand must be between 0 and " + checks.totalUnits + ".");
                 return;
             }
-            else if (warehouseId < 1 || warehouseId > maxWarehouse) {
-                showErrorDialog("Warehouse ID must be between 0 and " + maxWarehouse + ".");
+
+            // Warehouse ID validation
+            if (!checks.warehouseExists) {
+                showErrorDialog("No warehouse exists with ID " + warehouseId + ".");
                 return;
             }
 
             // Create and populate product object
             Product newProduct = new Product();
-            newProduct.setProductID(productIdField.getText());
+            newProduct.setProductID(productId);
             newProduct.setDescription(descriptionField.getText());
             newProduct.setUnitPrice(unitPrice);
             newProduct.setUnitsOnHand(unitsOnHand);
@@ -478,22 +466,38 @@ public class ProductEditPresentation extends JFrame {
             newProduct.setWarehouseID(warehouseId);
 
             // Save the product
-            boolean result = (editModeComboBox.getSelectedItem()).equals("No") 
-                ? ProductService.addProduct(newProduct)
-                : ProductService.editProduct(newProduct);
-
-            if (result) {
-                JOptionPane.showMessageDialog(this, "Product data saved.", "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                dispose();
-            } else {
-                showErrorDialog("Product data not saved.");
-            }
+            BackgroundTask.run(this, () -> isEditing
+                ? productRepository.editProduct(newProduct)
+                : productRepository.addProduct(newProduct), result -> {
+                if (result) {
+                    JOptionPane.showMessageDialog(this, "Product data saved.", "Success", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                    WindowPool.close(this);
+                } else {
+                    showErrorDialog("Product data not saved.");
+                }
+            });
+        });
+        // No second click until the save is done
+        BackgroundTask.disableWhileBusy(this, saveButton);
+    }
 
-        // showing user error
-        } catch (NumberFormatException ex) {
-            showErrorDialog("Please ensure all numeric fields contain valid numbers.");
-        }
+    /**
+     * Everything checked against the DB before a product is saved.
+     */
+    private static class ProductChecks {
+        private boolean productExists;
+        private int totalUnits;
+        private boolean warehouseExists;
+    }
+
+    /**
+     * Clears the form and goes back to adding a new product, called when the window is reopened
+     */
+    @Override
+    public void reset() {
+        editModeComboBox.setSelectedIndex(0);
+        clearForm();
     }
 
     /**
@@ -0,0 +1,46 @@
+/**
+ * Product and warehouse data as the screens see it.
+ * @author Ethan C and Aarav S
+ */
+public interface ProductRepository {
+    /**
+     * Gets all info on one product
+     * @param id The product's id
+     * @return The product, or null if there is no such product
+     */
+    Product getProductByID(String id);
+
+    /**
+     * Gets the total units on hand for all products
+     * @return The total units on hand
+     */
+    int getTotalUnitsOnHand();
+
+    /**
+     * Adds a product
+     * @param product The product
+     * @return True or false
+     */
+    boolean addProduct(Product product);
+
+    /**
+     * Edits a product
+     * @param product The product
+     * @return True or false
+     */
+    boolean editProduct(Product product);
+
+    /**
+     * Checks if a product exists
+     * @param id The product's id
+     * @return True if the product exists
+     */
+    boolean exists(String id);
+
+    /**
+     * Checks if a warehouse exists
+     * @param id The warehouse's id
+     * @return True if the warehouse exists
+     */
+    boolean warehouseExists(int id);
+}
@@ -1,9 +1,9 @@
 import java.sql.Connection;  
-import java.sql.DriverManager;  
 import java.sql.PreparedStatement;  
 import java.sql.ResultSet;  
 import java.sql.SQLException;  
 import java.util.ArrayList;  
+import java.util.Collection;
 import java.util.List;  
 
 /**
@@ -12,6 +12,16 @@ import java.util.List;
  */
 public class ProductService
 {
+    //Warehouse IDs known to exist, so warehouse checks rarely need the DB
+    private static final IdRegistry WAREHOUSE_IDS = new IdRegistry("tblWarehouse", "WarehouseID");
+    //The catalog changes a few times a day but order entry looks products up constantly
+    private static final int MAX_CACHED_PRODUCTS = 5_000;
+    private static final long CACHE_TTL_MS = 5 * 60_000; //picks up changes made by other clients
+    private static final ReadThroughCache<String, Product> PRODUCTS =
+        new ReadThroughCache<>("ProductService.products", MAX_CACHED_PRODUCTS, CACHE_TTL_MS);
+    private static final ReadThroughCache<String, Integer> CATALOG_TOTALS =
+        new ReadThroughCache<>("ProductService.catalogTotals", 2, CACHE_TTL_MS);
+
     /**
      * Method to get all the products
      * @return A list of all products
@@ -23,7 +33,7 @@ public class ProductService
         String query = "SELECT * FROM tblProduct";  
         
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("ProductService.getAllProducts");  
              PreparedStatement preparedStatement = connection.prepareStatement(query);  
              ResultSet resultSet = preparedStatement.executeQuery()) {  
             
@@ -48,18 +58,27 @@ public class ProductService
     }
 
     /**
-     * Method to get all info on one product
+     * Method to get all info on one product, answered from the cache when possible
      * @param id The product's id
-     * @return The product
+     * @return A copy of the product, or null if there is no such product
      */
     public static Product getProductByID(String id)
+    {
+        Product product = PRODUCTS.get(id, ProductService::loadProduct);
+        return product != null ? copy(product) : null;
+    }
+
+    /**
+     * Reads one product from the DB
+     */
+    private static Product loadProduct(String id)
     {
         //Initialize variables
         Product product = null;
         String query = "SELECT * FROM tblProduct WHERE ProductID = ?";
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("ProductService.getProductByID");  
 
             PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
   
@@ -94,7 +113,7 @@ public class ProductService
         boolean success = false;
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("ProductService.addProduct");  
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
     
             //Getting all the product's info 
@@ -109,24 +128,36 @@ public class ProductService
             int rowsAffected = preparedStatement.executeUpdate();  
             if (rowsAffected > 0) {  
                 success = true;
+                SearchIndexes.productSaved(product);
             }  
         } catch (SQLException e) {  
             e.printStackTrace();  
         }  
 
+        invalidate(List.of(product.getProductID()));
+
         return success;
     }
 
     /**
-     * Method to get the count of all products
+     * Method to get the count of all products, answered from the cache when possible
      * @return The count of products
      */
     public static int getProductCount() {
-        int productCount = 0;
+        Integer productCount = CATALOG_TOTALS.get("ProductCount", key -> loadProductCount());
+        return productCount != null ? productCount : 0;
+    }
+
+    /**
+     * Counts the products in the DB
+     * @return The count, or null if it could not be read
+     */
+    private static Integer loadProductCount() {
+        Integer productCount = null;
         String query = "SELECT COUNT(*) AS ProductCount FROM tblProduct";
 
         // Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+        try (Connection connection = DatabaseConfig.getConnection("ProductService.getProductCount");
              PreparedStatement preparedStatement = connection.prepareStatement(query);
              ResultSet resultSet = preparedStatement.executeQuery()) {
 
@@ -141,15 +172,24 @@ public class ProductService
     }
 
     /**
-     * Method to get the total units on hand for all products
+     * Method to get the total units on hand for all products, answered from the cache when possible
      * @return The total units on hand
      */
     public static int getTotalUnitsOnHand() {
-        int totalUnitsOnHand = 0;
+        Integer totalUnitsOnHand = CATALOG_TOTALS.get("TotalUnitsOnHand", key -> loadTotalUnitsOnHand());
+        return totalUnitsOnHand != null ? totalUnitsOnHand : 0;
+    }
+
+    /**
+     * Adds up the units on hand in the DB
+     * @return The total, or null if it could not be read
+     */
+    private static Integer loadTotalUnitsOnHand() {
+        Integer totalUnitsOnHand = null;
         String query = "SELECT SUM(UnitsOnHand) AS TotalUnitsOnHand FROM tblProduct";
 
         // Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+        try (Connection connection = DatabaseConfig.getConnection("ProductService.getTotalUnitsOnHand");
              PreparedStatement preparedStatement = connection.prepareStatement(query);
              ResultSet resultSet = preparedStatement.executeQuery()) {
 
@@ -176,7 +216,7 @@ public class ProductService
         boolean success = false;
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("ProductService.editProduct");  
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
     
             //Getting all the products's info
@@ -191,11 +231,14 @@ public class ProductService
             int rowsAffected = preparedStatement.executeUpdate();  
             if (rowsAffected > 0) {  
                 success = true;
+                SearchIndexes.productSaved(product);
             }  
         } catch (SQLException e) {  
             e.printStackTrace();  
         }  
 
+        invalidate(List.of(product.getProductID()));
+
         return success;
     }
 
@@ -208,7 +251,7 @@ public class ProductService
         String query = "SELECT COUNT(*) AS WarehouseCount FROM tblWarehouse";
 
         // Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+        try (Connection connection = DatabaseConfig.getConnection("ProductService.getWarehouseCount");
              PreparedStatement preparedStatement = connection.prepareStatement(query);
              ResultSet resultSet = preparedStatement.executeQuery()) {
 
@@ -222,4 +265,95 @@ public class ProductService
 
         return warehouseCount;
     }
+
+    /**
+     * Method to check if a product exists, answered from the cache when possible
+     * @param id The product's id
+     * @return True if the product exists
+     */
+    public static boolean exists(String id) {
+        return PRODUCTS.get(id, ProductService::loadProduct) != null;
+    }
+
+    /**
+     * Method to check if a warehouse exists
+     * @param id The warehouse's id
+     * @return True if the warehouse exists
+     */
+    public static boolean warehouseExists(int id) {
+        return WAREHOUSE_IDS.exists(id);
+    }
+
+    /**
+     * Method to fill the product cache and the warehouse IDs ahead of use, called at startup.
+     * Reads as many products as the cache holds with one query.
+     */
+    public static void preloadCache() {
+        String query = "SELECT * FROM tblProduct ORDER BY ProductID LIMIT ?";
+
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("ProductService.preloadCache");
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            preparedStatement.setInt(1, MAX_CACHED_PRODUCTS);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    Product product = new Product();
+                    product.setProductID(resultSet.getString("ProductID"));
+                    product.setDescription(resultSet.getString("Description"));
+                    product.setUnitPrice(resultSet.getDouble("UnitPrice"));
+                    product.setUnitsOnHand(resultSet.getInt("UnitsOnHand"));
+                    product.setProductClass(resultSet.getString("Class"));
+                    product.setWarehouseID(resultSet.getInt("WarehouseID"));
+                    PRODUCTS.put(product.getProductID(), product);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        getTotalUnitsOnHand();
+        WAREHOUSE_IDS.reload();
+    }
+
+    /**
+     * Drops cached products and the catalog totals, called once changes to them have been saved
+     * @param productIds The products that changed
+     */
+    static void invalidate(Collection<String> productIds) {
+        for (String productId : productIds) {
+            PRODUCTS.invalidate(productId);
+        }
+        CATALOG_TOTALS.invalidateAll();
+    }
+
+    /**
+     * Method to empty the product cache, used after bulk loads that bypass the services
+     */
+    public static void clearCache() {
+        PRODUCTS.invalidateAll();
+        CATALOG_TOTALS.invalidateAll();
+    }
+
+    /**
+     * Method to get the product caches' hit and miss counts
+     * @return One line per cache
+     */
+    public static String cacheReport() {
+        return PRODUCTS.report() + CATALOG_TOTALS.report();
+    }
+
+    /**
+     * Copies a cached product, so callers changing their copy do not change the cache
+     */
+    private static Product copy(Product product) {
+        Product copy = new Product();
+        copy.setProductID(product.getProductID());
+        copy.setDescription(product.getDescription());
+        copy.setUnitPrice(product.getUnitPrice());
+        copy.setUnitsOnHand(product.getUnitsOnHand());
+        copy.setProductClass(product.getProductClass());
+        copy.setWarehouseID(product.getWarehouseID());
+        return copy;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,325 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-query timing for everything the services send to the database.
+ * Service methods borrow their connection with DatabaseConfig.getConnection("Service.method"),
+ * which hands back a connection that times how long it took to borrow and how long every
+ * statement run on it took, and counts rows and errors, all under that query name.
+ * The numbers can be read in-process with get/getAll or written to a file with dump.
+ * Turn it off with -Dhomeproducts.stats=false.
+ * @author Ethan C and Aarav S
+ */
+public final class QueryStats {
+    private static final boolean ENABLED = !"false".equals(System.getProperty("homeproducts.stats"));
+    private static final Map<String, Metric> METRICS = new ConcurrentHashMap<>();
+
+    private QueryStats() {
+    }
+
+    /**
+     * The numbers recorded for one query name.
+     */
+    public static class Metric {
+        private final String name;
+        private final LatencyHistogram executeLatency = new LatencyHistogram();
+        private final LatencyHistogram acquireLatency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        Metric(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the time taken by each statement execution
+         * @return The execution latency histogram
+         */
+        public LatencyHistogram getExecuteLatency() {
+            return executeLatency;
+        }
+
+        /**
+         * Gets the time taken to borrow a connection from the pool
+         * @return The connection acquire latency histogram
+         */
+        public LatencyHistogram getAcquireLatency() {
+            return acquireLatency;
+        }
+
+        /**
+         * Gets the rows read from result sets plus rows changed by updates
+         * @return The row count
+         */
+        public long getRows() {
+            return rows.sum();
+        }
+
+        /**
+         * Gets how many statements or connection borrows failed
+         * @return The error count
+         */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        @Override
+        public String toString() {
+            long executions = executeLatency.getCount();
+            return String.format(Locale.ROOT, "%-50s %9d %7d %11.1f %9.3f %9.3f %9.3f %9.3f %9.3f",
+                name, executions, getErrors(), executions == 0 ? 0.0 : getRows() / (double) executions,
+                executeLatency.getMeanMillis(), executeLatency.getPercentileMillis(50),
+                executeLatency.getPercentileMillis(99), executeLatency.getMaxMillis(),
+                acquireLatency.getPercentileMillis(99));
+        }
+    }
+
+    /**
+     * Gets the numbers recorded for one query
+     * @param queryName The query name, like "OrderService.getOrderByID"
+     * @return The metric, or null if the query has not run
+     */
+    public static Metric get(String queryName) {
+        return METRICS.get(queryName);
+    }
+
+    /**
+     * Gets the numbers for every query that has run
+     * @return The metrics sorted by name
+     */
+    public static List<Metric> getAll() {
+        List<Metric> metrics = new ArrayList<>(METRICS.values());
+        metrics.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return metrics;
+    }
+
+    /**
+     * Clears everything recorded so far
+     */
+    public static void reset() {
+        METRICS.clear();
+    }
+
+    /**
+     * Builds a plain text table of every query
+     * @return The report
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-50s %9s %7s %11s %9s %9s %9s %9s %9s%n",
+            "Query", "Execs", "Errors", "Rows/exec", "Mean ms", "p50 ms", "p99 ms", "Max ms", "Acq p99"));
+        for (Metric metric : getAll()) {
+            report.append(metric).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    /**
+     * Method to write the report to a file, adding to what is already there
+     * @param file The file to write
+     * @throws IOException If the file cannot be written
+     */
+    public static void dump(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+            writer.println("Query stats at " + LocalDateTime.now());
+            writer.print(report());
+            writer.println();
+        }
+    }
+
+    /**
+     * Checks if timings are being recorded, they are unless started with -Dhomeproducts.stats=false
+     * @return True if timings are recorded
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Records a call that is not a single query, such as a repository method
+     * @param name The name to record under
+     * @param nanos How long the call took
+     * @param failed True if the call threw
+     */
+    static void recordCall(String name, long nanos, boolean failed) {
+        if (ENABLED) {
+            Metric metric = metric(name);
+            metric.executeLatency.record(nanos);
+            if (failed) {
+                metric.errors.increment();
+            }
+        }
+    }
+
+    /**
+     * Records a failure to borrow a connection
+     * @param queryName The query the connection was for
+     */
+    static void recordError(String queryName) {
+        if (ENABLED) {
+            metric(queryName).errors.increment();
+        }
+    }
+
+    /**
+     * Wraps a freshly borrowed connection so the statements run on it are timed
+     * @param queryName The query name to record under
+     * @param connection The borrowed connection
+     * @param acquireNanos How long borrowing it took
+     * @return The instrumented connection
+     */
+    static Connection instrument(String queryName, Connection connection, long acquireNanos) {
+        if (!ENABLED) {
+            return connection;
+        }
+        Metric metric = metric(queryName);
+        metric.acquireLatency.record(acquireNanos);
+        return (Connection) proxy(Connection.class, connection, new ConnectionHandler(connection, metric));
+    }
+
+    private static Metric metric(String queryName) {
+        return METRICS.computeIfAbsent(queryName, Metric::new);
+    }
+
+    private static Object proxy(Class<?> type, Object target, InvocationHandler handler) {
+        return Proxy.newProxyInstance(QueryStats.class.getClassLoader(), interfacesOf(type, target), handler);
+    }
+
+    /**
+     * The proxy has to implement the JDBC subinterface (PreparedStatement, CallableStatement)
+     * the real object implements, so callers can still cast to it
+     */
+    private static Class<?>[] interfacesOf(Class<?> type, Object target) {
+        List<Class<?>> interfaces = new ArrayList<>();
+        interfaces.add(type);
+        for (Class<?> candidate : new Class<?>[]{PreparedStatement.class, CallableStatement.class}) {
+            if (type.isAssignableFrom(candidate) && candidate.isInstance(target)) {
+                interfaces.add(candidate);
+            }
+        }
+        return interfaces.toArray(new Class<?>[0]);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Hands out instrumented statements, everything else goes straight to the connection
+     */
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final Metric metric;
+
+        ConnectionHandler(Connection connection, Metric metric) {
+            this.connection = connection;
+            this.metric = metric;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryStats.invoke(connection, method, args);
+            if (result instanceof Statement) {
+                return proxy(Statement.class, result, new StatementHandler((Statement) result, metric));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Times the execute calls and counts the rows they touch
+     */
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Metric metric;
+
+        StatementHandler(Statement statement, Metric metric) {
+            this.statement = statement;
+            this.metric = metric;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return QueryStats.invoke(statement, method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = QueryStats.invoke(statement, method, args);
+            } catch (SQLException e) {
+                metric.errors.increment();
+                throw e;
+            } finally {
+                metric.executeLatency.record(System.nanoTime() - start);
+            }
+
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, result, new ResultSetHandler((ResultSet) result, metric));
+            } else if (result instanceof Integer) {
+                metric.rows.add((Integer) result);
+            } else if (result instanceof Long) {
+                metric.rows.add((Long) result);
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    metric.rows.add(Math.max(0, count));
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    metric.rows.add(Math.max(0, count));
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Counts the rows read
+     */
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final Metric metric;
+
+        ResultSetHandler(ResultSet resultSet, Metric metric) {
+            this.resultSet = resultSet;
+            this.metric = metric;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryStats.invoke(resultSet, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                metric.rows.increment();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small in-memory cache that loads values on a miss, for data that is read far more often than it changes.
+ * Entries expire after a fixed time so changes made by other clients are picked up, and the services
+ * drop entries themselves as soon as they change them. Once full, the least recently used entry is evicted.
+ * Hits and misses are counted so the cache can be checked to be worth keeping.
+ * @param <K> The key type
+ * @param <V> The value type
+ * @author Ethan C and Aarav S
+ */
+public class ReadThroughCache<K, V> {
+    private final String name;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    // Bumped on every invalidation, so a value loaded while it changed is not kept
+    private long generation;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an empty cache
+     * @param name The name shown in reports, like "ProductService.products"
+     * @param maxSize The most entries kept
+     * @param ttlMillis How long an entry is used before it is loaded again
+     */
+    public ReadThroughCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets a value, loading it if it is not cached or has expired.
+     * The loader runs without holding the lock, so a slow query does not hold up other lookups.
+     * @param key The key
+     * @param loader Loads the value on a miss, returning null if it could not be loaded or does not exist
+     * @return The value, or null if the loader returned null
+     */
+    public V get(K key, Function<K, V> loader) {
+        long generationBeforeLoad;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+                hits++;
+                return entry.value;
+            }
+            misses++;
+            generationBeforeLoad = generation;
+        }
+
+        // Nulls are not cached, so missing rows are found once they are added and failed loads are retried
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == generationBeforeLoad) {
+                    entries.put(key, new Entry<>(value, System.nanoTime()));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Stores a value read some other way, such as a bulk load at startup, without counting a hit or miss
+     * @param key The key
+     * @param value The value, ignored if null
+     */
+    public synchronized void put(K key, V value) {
+        if (value != null) {
+            entries.put(key, new Entry<>(value, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Gets a value to pass to put() once a value has been read some other way
+     * @return The current generation
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores a value read some other way, such as a join that also returned it, unless an entry
+     * was dropped while it was being read
+     * @param key The key
+     * @param value The value, ignored if null
+     * @param generationBeforeRead What getGeneration() returned before the read started
+     */
+    public synchronized void put(K key, V value, long generationBeforeRead) {
+        if (generation == generationBeforeRead) {
+            put(key, value);
+        }
+    }
+
+    /**
+     * Drops one entry, called once a change to it has been saved
+     * @param key The key
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every entry
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Gets how many lookups were answered from the cache
+     * @return The hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets how many lookups had to load the value
+     * @return The miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache
+     * @return The hit rate from 0 to 1, 0 if there have been no lookups
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Formats the cache's size and hit rate as one line
+     * @return The report line
+     */
+    public synchronized String report() {
+        return String.format("%-40s %6d entries %10d hits %10d misses %6.1f%% hit rate%n",
+            name, entries.size(), hits, misses, getHitRate() * 100);
+    }
+
+    /**
+     * A cached value and when it was loaded
+     */
+    private static class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
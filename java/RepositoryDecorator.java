@@ -0,0 +1,15 @@
+/**
+ * Wraps a repository in another layer, such as timing or caching.
+ * AppContext passes every repository through its decorators when it is created.
+ * @author Ethan C and Aarav S
+ */
+public interface RepositoryDecorator {
+    /**
+     * Wraps a repository
+     * @param type The repository interface
+     * @param repository The repository to wrap
+     * @param <T> The repository type
+     * @return A repository of the same type that adds this layer, or the same repository
+     */
+    <T> T decorate(Class<T> type, T repository);
+}
@@ -0,0 +1,10 @@
+/**
+ * A window that WindowPool can hide and show again instead of building a new one each time.
+ * @author Ethan C and Aarav S
+ */
+public interface ReusableWindow {
+    /**
+     * Puts the window back to how it looks when first opened, called before it is shown again
+     */
+    void reset();
+}
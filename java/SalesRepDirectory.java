@@ -0,0 +1,302 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory copy of tblSalesRep together with its ManagerID tree.
+ * There are only a few thousand reps, so all of them are read once on first use and lookups,
+ * counts and manager chains are answered from memory after that. SalesRepService puts reps it
+ * adds or edits straight back in, and a rep that is not known yet (added by another clerk) is
+ * read with a primary key lookup and kept.
+ * @author Ethan C and Aarav S
+ */
+public class SalesRepDirectory {
+    private final Map<Integer, SalesRep> reps = new HashMap<>();
+    // Manager ID to the IDs of the reps who report to them
+    private final Map<Integer, List<Integer>> directReports = new HashMap<>();
+    private boolean loaded;
+
+    /**
+     * Gets a sales rep
+     * @param id The sales rep's id
+     * @return A copy of the rep, or null if there is no such rep
+     */
+    public SalesRep get(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        synchronized (this) {
+            ensureLoaded();
+            SalesRep salesRep = reps.get(id);
+            if (salesRep != null) {
+                return copy(salesRep);
+            }
+        }
+
+        // Not seen yet, ask the DB with a primary key lookup
+        SalesRep salesRep = load(id);
+        if (salesRep != null) {
+            put(salesRep);
+        }
+        return salesRep;
+    }
+
+    /**
+     * Gets every sales rep
+     * @return Copies of all the reps, by ID
+     */
+    public synchronized List<SalesRep> getAll() {
+        ensureLoaded();
+        List<SalesRep> all = new ArrayList<>(reps.size());
+        for (SalesRep salesRep : reps.values()) {
+            all.add(copy(salesRep));
+        }
+        all.sort(Comparator.comparingInt(SalesRep::getSalesRepID));
+        return all;
+    }
+
+    /**
+     * Checks if a sales rep exists
+     * @param id The sales rep's id
+     * @return True if the rep exists
+     */
+    public boolean contains(int id) {
+        synchronized (this) {
+            ensureLoaded();
+            if (reps.containsKey(id)) {
+                return true;
+            }
+        }
+        return get(id) != null;
+    }
+
+    /**
+     * Gets the number of sales reps
+     * @return The count of reps
+     */
+    public synchronized int size() {
+        ensureLoaded();
+        return reps.size();
+    }
+
+    /**
+     * Gets the IDs of a rep's managers, their manager's manager and so on up to the top of the tree
+     * @param id The sales rep's id
+     * @return The manager IDs, nearest first, empty if the rep has no manager
+     */
+    public synchronized List<Integer> getManagerChain(int id) {
+        ensureLoaded();
+        List<Integer> chain = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        seen.add(id);
+
+        SalesRep salesRep = reps.get(id);
+        // Stops at a rep with no manager, a manager we do not know, or a loop in the data
+        while (salesRep != null && salesRep.getManagerID() > 0 && seen.add(salesRep.getManagerID())) {
+            chain.add(salesRep.getManagerID());
+            salesRep = reps.get(salesRep.getManagerID());
+        }
+        return chain;
+    }
+
+    /**
+     * Gets the reps who report straight to a manager
+     * @param managerId The manager's sales rep id
+     * @return The IDs of their direct reports
+     */
+    public synchronized List<Integer> getDirectReports(int managerId) {
+        ensureLoaded();
+        return new ArrayList<>(directReports.getOrDefault(managerId, Collections.emptyList()));
+    }
+
+    /**
+     * Gets every rep under a manager, at any depth
+     * @param managerId The manager's sales rep id
+     * @return The IDs of everyone under them, nearest levels first
+     */
+    public synchronized List<Integer> getAllReports(int managerId) {
+        ensureLoaded();
+        List<Integer> all = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        seen.add(managerId);
+
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.add(managerId);
+        while (!pending.isEmpty()) {
+            for (int report : directReports.getOrDefault(pending.poll(), Collections.emptyList())) {
+                if (seen.add(report)) {
+                    all.add(report);
+                    pending.add(report);
+                }
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Adds or replaces a rep, called once their row has been saved
+     * @param salesRep The rep as saved
+     */
+    public synchronized void put(SalesRep salesRep) {
+        if (salesRep.getSalesRepID() <= 0) {
+            return;
+        }
+        SalesRep previous = reps.put(salesRep.getSalesRepID(), copy(salesRep));
+        if (previous != null) {
+            unlink(previous);
+        }
+        link(salesRep);
+    }
+
+    /**
+     * Reads every rep again, used after bulk loads that bypass the services
+     */
+    public void reload() {
+        Map<Integer, SalesRep> all = loadAll();
+        if (all == null) {
+            return;
+        }
+        synchronized (this) {
+            replaceAll(all);
+        }
+    }
+
+    /**
+     * Reads every rep the first time the directory is used.
+     * Loading holds the lock so callers wait for it rather than all reading the table at once.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        Map<Integer, SalesRep> all = loadAll();
+        if (all == null) {
+            // DB is down, answer from what we have and try again next time
+            return;
+        }
+        replaceAll(all);
+    }
+
+    private void replaceAll(Map<Integer, SalesRep> all) {
+        reps.clear();
+        directReports.clear();
+        reps.putAll(all);
+        for (SalesRep salesRep : reps.values()) {
+            link(salesRep);
+        }
+        loaded = true;
+    }
+
+    private void link(SalesRep salesRep) {
+        if (salesRep.getManagerID() > 0 && salesRep.getManagerID() != salesRep.getSalesRepID()) {
+            directReports.computeIfAbsent(salesRep.getManagerID(), key -> new ArrayList<>()).add(salesRep.getSalesRepID());
+        }
+    }
+
+    private void unlink(SalesRep salesRep) {
+        List<Integer> reports = directReports.get(salesRep.getManagerID());
+        if (reports != null) {
+            reports.remove(Integer.valueOf(salesRep.getSalesRepID()));
+            if (reports.isEmpty()) {
+                directReports.remove(salesRep.getManagerID());
+            }
+        }
+    }
+
+    /**
+     * Reads the whole table
+     * @return The reps by ID, or null if they could not be read
+     */
+    private static Map<Integer, SalesRep> loadAll() {
+        Map<Integer, SalesRep> all = new HashMap<>();
+        String query = "SELECT * FROM tblSalesRep";
+
+        try (Connection connection = DatabaseConfig.getConnection("SalesRepDirectory.loadAll");
+             PreparedStatement preparedStatement = connection.prepareStatement(query);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+
+            while (resultSet.next()) {
+                SalesRep salesRep = read(resultSet);
+                all.put(salesRep.getSalesRepID(), salesRep);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return all;
+    }
+
+    /**
+     * Reads one rep
+     * @return The rep, or null if there is no such rep or it could not be read
+     */
+    private static SalesRep load(int id) {
+        String query = "SELECT * FROM tblSalesRep WHERE SalesRepID = ?";
+
+        try (Connection connection = DatabaseConfig.getConnection("SalesRepDirectory.load");
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            preparedStatement.setInt(1, id);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return read(resultSet);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    private static SalesRep read(ResultSet resultSet) throws SQLException {
+        SalesRep salesRep = new SalesRep();
+        salesRep.setSalesRepID(resultSet.getInt("SalesRepID"));
+        salesRep.setLastName(resultSet.getString("LastName"));
+        salesRep.setFirstName(resultSet.getString("FirstName"));
+        salesRep.setBusinessNumber(resultSet.getString("BusinessNumber"));
+        salesRep.setCellNumber(resultSet.getString("CellNumber"));
+        salesRep.setHomeNumber(resultSet.getString("HomeNumber"));
+        salesRep.setFaxNumber(resultSet.getString("FaxNumber"));
+        salesRep.setTitle(resultSet.getString("Title"));
+        salesRep.setStreet(resultSet.getString("Street"));
+        salesRep.setCity(resultSet.getString("City"));
+        salesRep.setState(resultSet.getString("State"));
+        salesRep.setZipCode(resultSet.getString("ZipCode"));
+        salesRep.setCommission(resultSet.getDouble("Commission"));
+        salesRep.setManagerID(resultSet.getInt("ManagerID"));
+        return salesRep;
+    }
+
+    /**
+     * Copies a rep, so callers changing their copy do not change the directory
+     */
+    private static SalesRep copy(SalesRep salesRep) {
+        SalesRep copy = new SalesRep();
+        copy.setSalesRepID(salesRep.getSalesRepID());
+        copy.setLastName(salesRep.getLastName());
+        copy.setFirstName(salesRep.getFirstName());
+        copy.setBusinessNumber(salesRep.getBusinessNumber());
+        copy.setCellNumber(salesRep.getCellNumber());
+        copy.setHomeNumber(salesRep.getHomeNumber());
+        copy.setFaxNumber(salesRep.getFaxNumber());
+        copy.setTitle(salesRep.getTitle());
+        copy.setStreet(salesRep.getStreet());
+        copy.setCity(salesRep.getCity());
+        copy.setState(salesRep.getState());
+        copy.setZipCode(salesRep.getZipCode());
+        copy.setCommission(salesRep.getCommission());
+        copy.setManagerID(salesRep.getManagerID());
+        return copy;
+    }
+}
@@ -8,7 +8,9 @@ import javax.swing.border.*;
  * @author Ethan C and Aarav S
  * @version 1.0.0
  */
-public class SalesRepEditPresentation extends JFrame {
+public class SalesRepEditPresentation extends JFrame implements ReusableWindow {
+    private final SalesRepRepository salesRepRepository = AppContext.get().getSalesReps();
+
     private JTextField salesRepIdField, firstNameField, lastNameField, businessNumberField, cellNumberField, homeNumberField, faxNumberField;
     private JTextField businessStreetField, businessCityField, businessZipCodeField, commissionField, managerIdField;
     private JComboBox<String> titleComboBox, stateComboBox, editModeComboBox;
@@ -37,18 +39,7 @@ public class SalesRepEditPresentation extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         // Main panel with gradient background
-        JPanel mainPanel = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                
-                // Solid blue-grey background
-                g2d.setColor(BACKGROUND_COLOR);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
+        JPanel mainPanel = new BackgroundPanel(new BorderLayout(), BACKGROUND_COLOR);
         mainPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
         setContentPane(mainPanel);
 
@@ -106,7 +97,7 @@ public class SalesRepEditPresentation extends JFrame {
 
         // adding functionality
         saveButton.addActionListener(e -> saveSalesRep());
-        cancelButton.addActionListener(e -> dispose());
+        cancelButton.addActionListener(e -> WindowPool.close(this));
 
         return buttonPanel;
     }
@@ -387,20 +378,25 @@ public class SalesRepEditPresentation extends JFrame {
         try {
             // loading data into the DB
             int salesRepId = Integer.parseInt(salesRepIdField.getText());
-            SalesRep salesRep = SalesRepService.getSalesRepByID(salesRepId);
-            lastNameField.setText(salesRep.getLastName());
-            firstNameField.setText(salesRep.getFirstName());
-            businessNumberField.setText(salesRep.getBusinessNumber());
-            cellNumberField.setText(salesRep.getCellNumber());
-            homeNumberField.setText(salesRep.getHomeNumber());
-            faxNumberField.setText(salesRep.getFaxNumber());
-            titleComboBox.setSelectedItem(salesRep.getTitle());
-            businessStreetField.setText(salesRep.getStreet());
-            businessCityField.setText(salesRep.getCity());
-            businessZipCodeField.setText(salesRep.getZipCode());
-            stateComboBox.setSelectedItem(salesRep.getState());
-            commissionField.setText(String.valueOf(salesRep.getCommission()));
-            managerIdField.setText(String.valueOf(salesRep.getManagerID()));
+            BackgroundTask.run(this, () -> salesRepRepository.getSalesRepByID(salesRepId), salesRep -> {
+                if (salesRep == null) {
+                    JOptionPane.showMessageDialog(this, "Sales rep not found.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                lastNameField.setText(salesRep.getLastName());
+                firstNameField.setText(salesRep.getFirstName());
+                businessNumberField.setText(salesRep.getBusinessNumber());
+                cellNumberField.setText(salesRep.getCellNumber());
+                homeNumberField.setText(salesRep.getHomeNumber());
+                faxNumberField.setText(salesRep.getFaxNumber());
+                titleComboBox.setSelectedItem(salesRep.getTitle());
+                businessStreetField.setText(salesRep.getStreet());
+                businessCityField.setText(salesRep.getCity());
+                businessZipCodeField.setText(salesRep.getZipCode());
+                stateComboBox.setSelectedItem(salesRep.getState());
+                commissionField.setText(String.valueOf(salesRep.getCommission()));
+                managerIdField.setText(String.valueOf(salesRep.getManagerID()));
+            });
         // if error then show this
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "Please enter a valid Customer ID (integer).", "Input Error", JOptionPane.ERROR_MESSAGE);
@@ -432,27 +428,26 @@ public class SalesRepEditPresentation extends JFrame {
      * Validate input
      */
     private void addInputValidation() {
-        // validating fields
+        // validating fields, the range check runs in the background
         salesRepIdField.addFocusListener(new FocusAdapter() {
             public void focusLost(FocusEvent e) {
-                if (!salesRepIdField.getText().isEmpty()) {
+                String text = salesRepIdField.getText();
+                if (!text.isEmpty()) {
                     try {
-                        int id = Integer.parseInt(salesRepIdField.getText());
-                        int maxId = SalesRepService.getSalesRepCount();
-                        // must have a sales rep
-                        if (maxId == 0) {
-                            JOptionPane.showMessageDialog(SalesRepEditPresentation.this,
-                                "Please load a sales rep first", 
-                                "Input Error", JOptionPane.ERROR_MESSAGE);
-                            salesRepIdField.setText("");
-                        }
-                        // sales rep must be in bounds
-                        else if (id < 1 || id > maxId) {
-                            JOptionPane.showMessageDialog(SalesRepEditPresentation.this,
-                                "Sales Rep ID must be between 1 and " + maxId, 
-                                "Input Error", JOptionPane.ERROR_MESSAGE);
-                            salesRepIdField.setText("");
-                        }
+                        int id = Integer.parseInt(text);
+                        BackgroundTask.run(SalesRepEditPresentation.this, () -> salesRepRepository.exists(id), exists -> {
+                            // the user has already typed something else
+                            if (!text.equals(salesRepIdField.getText())) {
+                                return;
+                            }
+                            // sales rep must exist
+                            if (!exists) {
+                                JOptionPane.showMessageDialog(SalesRepEditPresentation.this,
+                                    "No sales rep exists with ID " + id, 
+                                    "Input Error", JOptionPane.ERROR_MESSAGE);
+                                salesRepIdField.setText("");
+                            }
+                        });
                     // showing user this error
                     } catch (NumberFormatException ex) {
                         JOptionPane.showMessageDialog(SalesRepEditPresentation.this,
@@ -464,27 +459,26 @@ public class SalesRepEditPresentation extends JFrame {
             }
         });
 
-        // validating manager id
+        // validating manager id, the range check runs in the background
         managerIdField.addFocusListener(new FocusAdapter() {
             public void focusLost(FocusEvent e) {
-                if (!managerIdField.getText().isEmpty()) {
+                String text = managerIdField.getText();
+                if (!text.isEmpty()) {
                     try {
-                        int id = Integer.parseInt(managerIdField.getText());
-                        int maxId = SalesRepService.getSalesRepCount();
-                        // must have a possible manager
-                        if (maxId == 0) {
-                            JOptionPane.showMessageDialog(SalesRepEditPresentation.this,
-                                "Please load a sales rep first", 
-                                "Input Error", JOptionPane.ERROR_MESSAGE);
-                            salesRepIdField.setText("");
-                        }
-                        // manager must be in bounds
-                        else if (id < 1 || id > maxId) {
-                            JOptionPane.showMessageDialog(SalesRepEditPresentation.this,
-                                "Manager ID must be between 1 and " + maxId, 
-                                "Input Error", JOptionPane.ERROR_MESSAGE);
-                            managerIdField.setText("");
-                        }
+                        int id = Integer.parseInt(text);
+                        BackgroundTask.run(SalesRepEditPresentation.this, () -> salesRepRepository.exists(id), exists -> {
+                            // the user has already typed something else
+                            if (!text.equals(managerIdField.getText())) {
+                                return;
+                            }
+                            // manager must exist
+                            if (!exists) {
+                                JOptionPane.showMessageDialog(SalesRepEditPresentation.this,
+                                    "No sales rep exists with ID " + id, 
+                                    "Input Error", JOptionPane.ERROR_MESSAGE);
+                                managerIdField.setText("");
+                            }
+                        });
                     // show user this error
                     } catch (NumberFormatException ex) {
                         JOptionPane.showMessageDialog(SalesRepEditPresentation.this,
@@ -629,27 +623,11 @@ public class SalesRepEditPresentation extends JFrame {
             return;
         }
 
-        // Validate manager ID if provided
+        // Validate manager ID format if provided
+        int managerId = 0;
         if (!managerIdField.getText().isEmpty()) {
             try {
-                int managerId = Integer.parseInt(managerIdField.getText());
-                int maxId = SalesRepService.getSalesRepCount();
-                // must have a manager loaded
-                if (maxId == 0) {
-                    JOptionPane.showMessageDialog(this,
-                        "No sales representatives exist in the system.",
-                        "Input Error",
-                        JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-                // manager id must be in bounds
-                if (managerId < 1 || managerId > maxId) {
-                    JOptionPane.showMessageDialog(this,
-                        "Manager ID must be between 1 and " + maxId,
-                        "Input Error",
-                        JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
+                managerId = Integer.parseInt(managerIdField.getText());
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this,
                     "Please enter a valid manager ID.",
@@ -659,9 +637,10 @@ public class SalesRepEditPresentation extends JFrame {
             }
         }
 
-        // If all validations pass, create and save the SalesRep
+        // If all validations pass, create the SalesRep
+        SalesRep newSalesRep = new SalesRep();
+        boolean isNew = editModeComboBox.getSelectedItem().equals("New Sales Rep");
         try {
-            SalesRep newSalesRep = new SalesRep();
             // loading data into DB
             newSalesRep.setFirstName(firstNameField.getText());
             newSalesRep.setLastName(lastNameField.getText());
@@ -675,30 +654,9 @@ public class SalesRepEditPresentation extends JFrame {
             newSalesRep.setState((String)stateComboBox.getSelectedItem());
             newSalesRep.setZipCode(businessZipCodeField.getText());
             newSalesRep.setCommission(Double.parseDouble(commissionField.getText()));
-            
-            if (!managerIdField.getText().isEmpty()) {
-                newSalesRep.setManagerID(Integer.parseInt(managerIdField.getText()));
-            }
-
-            boolean result;
-            if (editModeComboBox.getSelectedItem().equals("New Sales Rep")) {
-                result = SalesRepService.addSalesRep(newSalesRep);
-            } else {
+            newSalesRep.setManagerID(managerId);
+            if (!isNew) {
                 newSalesRep.setSalesRepID(Integer.parseInt(salesRepIdField.getText()));
-                result = SalesRepService.editSalesRep(newSalesRep);
-            }
-
-            if (result) {
-                JOptionPane.showMessageDialog(this, 
-                    "Sales rep data saved successfully.", 
-                    "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                clearForm();
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                    "Failed to save sales rep data.", 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
             }
         // show user this error
         } catch (Exception ex) {
@@ -706,9 +664,51 @@ public class SalesRepEditPresentation extends JFrame {
                 "An error occurred while saving the sales rep: " + ex.getMessage(),
                 "Error",
                 JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        // Validate manager ID against the DB in the background, then save
+        boolean hasManager = !managerIdField.getText().isEmpty();
+        BackgroundTask.run(this, () -> !hasManager || salesRepRepository.exists(newSalesRep.getManagerID()), managerExists -> {
+            // manager id must exist
+            if (!managerExists) {
+                JOptionPane.showMessageDialog(this,
+                    "No sales rep exists with ID " + newSalesRep.getManagerID(),
+                    "Input Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            BackgroundTask.run(this, () -> isNew
+                ? salesRepRepository.addSalesRep(newSalesRep)
+                : salesRepRepository.editSalesRep(newSalesRep), result -> {
+                if (result) {
+                    JOptionPane.showMessageDialog(this, 
+                        "Sales rep data saved successfully.", 
+                        "Success", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                    clearForm();
+                } else {
+                    JOptionPane.showMessageDialog(this, 
+                        "Failed to save sales rep data.", 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        });
+        // No second click until the save is done
+        BackgroundTask.disableWhileBusy(this, saveButton);
     }
     
+    /**
+     * Clears the form and goes back to adding a new sales rep, called when the window is reopened
+     */
+    @Override
+    public void reset() {
+        editModeComboBox.setSelectedIndex(0);
+        clearForm();
+    }
+
     /**
      * Main method to launch the application.
      * @param args Command line arguments (not used)
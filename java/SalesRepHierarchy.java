@@ -0,0 +1,117 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The sales rep org chart as flat arrays, for working out totals over each manager's team.
+ * Reps are numbered 0 to size() - 1, each with the number of their manager, and listed in an
+ * order where every manager comes before the reps under them. Walking that order backwards and
+ * adding each rep's figures into their manager's adds up every team in one pass.
+ * A rep whose manager is missing, is themselves, or is part of a loop is treated as a top level rep.
+ * @author Ethan C and Aarav S
+ */
+public class SalesRepHierarchy {
+    private final int[] ids;
+    private final int[] parents;
+    private final int[] topDown;
+    private final Map<Integer, Integer> indexes = new HashMap<>();
+
+    /**
+     * Builds the chart from the reps' manager IDs
+     * @param salesReps Every sales rep
+     */
+    public SalesRepHierarchy(List<SalesRep> salesReps) {
+        int size = salesReps.size();
+        ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = salesReps.get(i).getSalesRepID();
+            indexes.put(ids[i], i);
+        }
+
+        // Children of each rep as linked lists in two arrays, so nothing is allocated per rep
+        int[] managers = new int[size];
+        int[] firstChild = new int[size];
+        int[] nextSibling = new int[size];
+        Arrays.fill(firstChild, -1);
+        for (int i = 0; i < size; i++) {
+            Integer manager = indexes.get(salesReps.get(i).getManagerID());
+            managers[i] = manager != null && manager != i ? manager : -1;
+            if (managers[i] >= 0) {
+                nextSibling[i] = firstChild[managers[i]];
+                firstChild[managers[i]] = i;
+            }
+        }
+
+        // Breadth first from the top level reps, then from anyone left over, who must be in a loop
+        parents = new int[size];
+        topDown = new int[size];
+        boolean[] placed = new boolean[size];
+        int count = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int start = 0; start < size; start++) {
+                if (placed[start] || (pass == 0 && managers[start] >= 0)) {
+                    continue;
+                }
+                placed[start] = true;
+                parents[start] = -1;
+                int head = count;
+                topDown[count++] = start;
+                while (head < count) {
+                    int rep = topDown[head++];
+                    for (int child = firstChild[rep]; child >= 0; child = nextSibling[child]) {
+                        if (!placed[child]) {
+                            placed[child] = true;
+                            parents[child] = rep;
+                            topDown[count++] = child;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of reps in the chart
+     * @return The rep count
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Gets the sales rep ID of a numbered rep
+     * @param index The rep's number
+     * @return The sales rep ID
+     */
+    public int getSalesRepID(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Gets the number of a rep
+     * @param salesRepId The sales rep ID
+     * @return The rep's number, or -1 if the rep is not in the chart
+     */
+    public int indexOf(int salesRepId) {
+        Integer index = indexes.get(salesRepId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Gets the number of a rep's manager
+     * @param index The rep's number
+     * @return The manager's number, or -1 for a top level rep
+     */
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * Gets the reps in an order where every manager comes before the reps under them
+     * @return The rep numbers, walk it backwards to add teams up from the bottom
+     */
+    public int[] getTopDownOrder() {
+        return topDown.clone();
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Sales rep data as the screens see it.
+ * @author Ethan C and Aarav S
+ */
+public interface SalesRepRepository {
+    /**
+     * Gets all the information on one sales rep
+     * @param id The sales rep's id
+     * @return The sales rep, or null if there is no such rep
+     */
+    SalesRep getSalesRepByID(int id);
+
+    /**
+     * Adds a sales rep
+     * @param salesRep The sales rep, their SalesRepID is set when they are added
+     * @return True or false
+     */
+    boolean addSalesRep(SalesRep salesRep);
+
+    /**
+     * Edits a sales rep
+     * @param salesRep The sales rep
+     * @return True or false
+     */
+    boolean editSalesRep(SalesRep salesRep);
+
+    /**
+     * Checks if a sales rep exists
+     * @param id The sales rep's id
+     * @return True if the sales rep exists
+     */
+    boolean exists(int id);
+}
@@ -0,0 +1,149 @@
+/**
+ * Represents one sales rep's figures, both for their own customers and for their whole team:
+ * themselves and every rep under them in the manager hierarchy.
+ * @author Ethan C and Aarav S
+ * @version 1.0
+ */
+public class SalesRepRollup {
+    private final int salesRepID;
+    private final String name;
+    private final int teamSize;
+    private final int customers;
+    private final int teamCustomers;
+    private final int orders;
+    private final int teamOrders;
+    private final double orderTotal;
+    private final double teamOrderTotal;
+    private final double commissionOwed;
+    private final double teamCommissionOwed;
+
+    /**
+     * Creates a rollup with all its figures.
+     *
+     * @param salesRepID the ID of the sales rep.
+     * @param name the sales rep's first and last name.
+     * @param teamSize the number of reps under this rep, at any depth.
+     * @param customers the number of customers assigned to the rep.
+     * @param teamCustomers the number of customers assigned to the rep's team.
+     * @param orders the number of orders placed by the rep's customers.
+     * @param teamOrders the number of orders placed by the team's customers.
+     * @param orderTotal the value of the rep's orders.
+     * @param teamOrderTotal the value of the team's orders.
+     * @param commissionOwed the commission the rep has earned on their orders.
+     * @param teamCommissionOwed the commission earned across the team.
+     */
+    public SalesRepRollup(int salesRepID, String name, int teamSize, int customers, int teamCustomers,
+            int orders, int teamOrders, double orderTotal, double teamOrderTotal,
+            double commissionOwed, double teamCommissionOwed) {
+        this.salesRepID = salesRepID;
+        this.name = name;
+        this.teamSize = teamSize;
+        this.customers = customers;
+        this.teamCustomers = teamCustomers;
+        this.orders = orders;
+        this.teamOrders = teamOrders;
+        this.orderTotal = orderTotal;
+        this.teamOrderTotal = teamOrderTotal;
+        this.commissionOwed = commissionOwed;
+        this.teamCommissionOwed = teamCommissionOwed;
+    }
+
+    /**
+     * Gets the ID of the sales rep.
+     *
+     * @return the sales rep ID as an integer.
+     */
+    public int getSalesRepID() {
+        return salesRepID;
+    }
+
+    /**
+     * Gets the sales rep's first and last name.
+     *
+     * @return the name as a string.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of reps under this rep, at any depth.
+     *
+     * @return the team size, not counting the rep.
+     */
+    public int getTeamSize() {
+        return teamSize;
+    }
+
+    /**
+     * Gets the number of customers assigned to the rep.
+     *
+     * @return the customer count.
+     */
+    public int getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Gets the number of customers assigned to the rep and everyone under them.
+     *
+     * @return the team's customer count.
+     */
+    public int getTeamCustomers() {
+        return teamCustomers;
+    }
+
+    /**
+     * Gets the number of orders placed by the rep's customers.
+     *
+     * @return the order count.
+     */
+    public int getOrders() {
+        return orders;
+    }
+
+    /**
+     * Gets the number of orders placed by the customers of the rep and everyone under them.
+     *
+     * @return the team's order count.
+     */
+    public int getTeamOrders() {
+        return teamOrders;
+    }
+
+    /**
+     * Gets the value of the orders placed by the rep's customers.
+     *
+     * @return the order total as a double.
+     */
+    public double getOrderTotal() {
+        return orderTotal;
+    }
+
+    /**
+     * Gets the value of the orders placed by the customers of the rep and everyone under them.
+     *
+     * @return the team's order total as a double.
+     */
+    public double getTeamOrderTotal() {
+        return teamOrderTotal;
+    }
+
+    /**
+     * Gets the commission the rep has earned, their commission rate times their order total.
+     *
+     * @return the commission owed as a double.
+     */
+    public double getCommissionOwed() {
+        return commissionOwed;
+    }
+
+    /**
+     * Gets the commission earned by the rep and everyone under them.
+     *
+     * @return the team's commission owed as a double.
+     */
+    public double getTeamCommissionOwed() {
+        return teamCommissionOwed;
+    }
+}
@@ -1,9 +1,12 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;  
-import java.sql.DriverManager;  
 import java.sql.PreparedStatement;  
 import java.sql.ResultSet;  
 import java.sql.SQLException;  
+import java.sql.Statement;
 import java.util.ArrayList;  
+import java.util.Arrays;
 import java.util.List;  
 
 /**
@@ -12,81 +15,25 @@ import java.util.List;
  */
 public class SalesRepService
 {
+    //Every rep and the manager tree, so lookups rarely need the DB
+    private static final SalesRepDirectory DIRECTORY = new SalesRepDirectory();
+
     /**
-     * Method to get all the sales reps and some of their information
+     * Method to get all the sales reps, answered from the directory
      * @return A list of all sales reps
      */
     public static List<SalesRep> getAllSalesReps()
     {
-        //Initialize variables
-        List<SalesRep> salesreps = new ArrayList<>();  
-        String query = "SELECT SalesRepID, FirstName, LastName, BusinessNumber, Title FROM tblSalesRep";  
-        
-        //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
-             PreparedStatement preparedStatement = connection.prepareStatement(query);  
-             ResultSet resultSet = preparedStatement.executeQuery()) {  
-            
-            //Looping through all salesReps
-            while (resultSet.next()) {  
-                //Getting all information from each salesRep
-                SalesRep salesrep = new SalesRep();  
-                salesrep.setSalesRepID(resultSet.getInt("SalesRepID"));
-                salesrep.setFirstName(resultSet.getString("FirstName"));
-                salesrep.setLastName(resultSet.getString("LastName"));
-                salesrep.setBusinessNumber(resultSet.getString("BusinessNumber"));
-                salesrep.setTitle(resultSet.getString("Title"));
-
-                salesreps.add(salesrep);  
-            }  
-        } catch (SQLException e) {  
-            e.printStackTrace();  
-        }  
-  
-        return salesreps;  
+        return DIRECTORY.getAll();
     }
 
     /**
-     * Method to get all the information on one sales rep
+     * Method to get all the information on one sales rep, answered from the directory
      * @param id The sales rep's id
-     * @return The sales rep
+     * @return The sales rep, or null if there is no such rep
      */
     public static SalesRep getSalesRepByID(int id) {  
-        //Initialize variables
-        SalesRep salesRep = null;  
-        String query = "SELECT * FROM tblSalesRep WHERE SalesRepID = ?";  
-    
-        //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
-
-            PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
-  
-            preparedStatement.setInt(1, id);  
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {  
-                if (resultSet.next()) {  
-                    //Grabbing all info from the sales rep
-                    salesRep = new SalesRep();  
-                    salesRep.setSalesRepID(resultSet.getInt("SalesRepID"));
-                    salesRep.setLastName(resultSet.getString("LastName"));
-                    salesRep.setFirstName(resultSet.getString("FirstName"));  
-                    salesRep.setBusinessNumber(resultSet.getString("BusinessNumber"));
-                    salesRep.setCellNumber(resultSet.getString("CellNumber"));    
-                    salesRep.setHomeNumber(resultSet.getString("HomeNumber"));
-                    salesRep.setFaxNumber(resultSet.getString("FaxNumber"));  
-                    salesRep.setTitle(resultSet.getString("Title"));  
-                    salesRep.setStreet(resultSet.getString("Street"));  
-                    salesRep.setCity(resultSet.getString("City"));  
-                    salesRep.setState(resultSet.getString("State"));  
-                    salesRep.setZipCode(resultSet.getString("ZipCode"));  
-                    salesRep.setCommission(resultSet.getDouble("Commission"));  
-                    salesRep.setManagerID(resultSet.getInt("ManagerID")); 
-                }  
-            }  
-        } catch (SQLException e) {  
-            e.printStackTrace();  
-        }  
-  
-        return salesRep;  
+        return DIRECTORY.get(id);
     }  
     
     /**
@@ -100,8 +47,8 @@ public class SalesRepService
         boolean success = false;
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
+        try (Connection connection = DatabaseConfig.getConnection("SalesRepService.addSalesRep");  
+             PreparedStatement preparedStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {  
   	
   			//Getting all the sales rep's info
             preparedStatement.setString(1, salesrep.getLastName());  
@@ -122,6 +69,15 @@ public class SalesRepService
             int rowsAffected = preparedStatement.executeUpdate();  
             if (rowsAffected > 0) {  
                 success = true;
+
+                //Remembering the new ID so it validates without a lookup
+                try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        salesrep.setSalesRepID(keys.getInt(1));
+                    }
+                }
+                DIRECTORY.put(salesrep);
+                SearchIndexes.salesRepSaved(salesrep);
             }  
         } catch (SQLException e) {  
             e.printStackTrace();  
@@ -131,28 +87,11 @@ public class SalesRepService
     }
 
     /**
-     * Method to get the count of sales reps in the database
+     * Method to get the count of sales reps, answered from the directory
      * @return The total number of sales reps
      */
     public static int getSalesRepCount() {
-        // Initialize variables
-        int count = 0;
-        String query = "SELECT COUNT(*) AS SalesRepCount FROM tblSalesRep";
-
-        // Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
-             PreparedStatement preparedStatement = connection.prepareStatement(query);
-             ResultSet resultSet = preparedStatement.executeQuery()) {
-
-            // Retrieve the count from the result set
-            if (resultSet.next()) {
-                count = resultSet.getInt("SalesRepCount");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return count;
+        return DIRECTORY.size();
     }
 
     /**
@@ -169,7 +108,7 @@ public class SalesRepService
         boolean success = false;
 
         //Connecting to SQL DB
-        try (Connection connection = DriverManager.getConnection(DatabaseConfig.getDbUrl(), DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());  
+        try (Connection connection = DatabaseConfig.getConnection("SalesRepService.editSalesRep");  
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {  
     
             //Getting all the sales rep's info
@@ -192,6 +131,8 @@ public class SalesRepService
             int rowsAffected = preparedStatement.executeUpdate();  
             if (rowsAffected > 0) {  
                 success = true;
+                DIRECTORY.put(salesRep);
+                SearchIndexes.salesRepSaved(salesRep);
             }  
         } catch (SQLException e) {  
             e.printStackTrace();  
@@ -199,4 +140,148 @@ public class SalesRepService
 
         return success;
     }
+
+    /**
+     * Method to check if a sales rep exists
+     * @param id The sales rep's id
+     * @return True if the sales rep exists
+     */
+    public static boolean exists(int id) {
+        return DIRECTORY.contains(id);
+    }
+
+    /**
+     * Method to check if every one of these sales reps exists
+     * @param ids The sales rep ids
+     * @return True if all of them exist
+     */
+    public static boolean existsAll(int... ids) {
+        for (int id : ids) {
+            if (!DIRECTORY.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method to get a sales rep's managers, up to the top of the hierarchy
+     * @param id The sales rep's id
+     * @return The manager IDs, nearest first
+     */
+    public static List<Integer> getManagerChain(int id) {
+        return DIRECTORY.getManagerChain(id);
+    }
+
+    /**
+     * Method to get the reps who report straight to a manager
+     * @param managerId The manager's sales rep id
+     * @return The IDs of their direct reports
+     */
+    public static List<Integer> getDirectReports(int managerId) {
+        return DIRECTORY.getDirectReports(managerId);
+    }
+
+    /**
+     * Method to get every rep under a manager, at any depth
+     * @param managerId The manager's sales rep id
+     * @return The IDs of everyone under them
+     */
+    public static List<Integer> getAllReports(int managerId) {
+        return DIRECTORY.getAllReports(managerId);
+    }
+
+    /**
+     * Method to work out customers, orders and commission for every sales rep and for each manager's team.
+     * The DB adds up each rep's own figures in two grouped queries, then the figures are added up the
+     * manager hierarchy in memory in one pass, so the whole org chart takes two round trips.
+     * @return A rollup for every sales rep, by ID, or an empty list if the figures could not be read
+     */
+    public static List<SalesRepRollup> getHierarchyRollups() {
+        //Initialize variables
+        List<SalesRep> salesReps = DIRECTORY.getAll();
+        SalesRepHierarchy hierarchy = new SalesRepHierarchy(salesReps);
+        int size = hierarchy.size();
+        int[] customers = new int[size];
+        int[] orders = new int[size];
+        BigDecimal[] orderTotals = new BigDecimal[size];
+        Arrays.fill(orderTotals, BigDecimal.ZERO);
+        String customerQuery = "SELECT SalesRepID, COUNT(*) AS Customers FROM tblCustomer GROUP BY SalesRepID";
+        String orderQuery = "SELECT C.SalesRepID, COUNT(DISTINCT O.OrderID) AS Orders, " +
+            "COALESCE(SUM(PO.QuantityOrdered * PO.QuotedPrice), 0) AS OrderTotal " +
+            "FROM tblOrder AS O " +
+            "JOIN tblCustomer AS C ON C.CustomerID = O.CustomerID " +
+            "LEFT JOIN tblProductsOrder AS PO ON PO.OrderID = O.OrderID " +
+            "GROUP BY C.SalesRepID";
+
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection("SalesRepService.getHierarchyRollups")) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(customerQuery);
+                 ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    int index = hierarchy.indexOf(resultSet.getInt("SalesRepID"));
+                    if (index >= 0) {
+                        customers[index] = resultSet.getInt("Customers");
+                    }
+                }
+            }
+            try (PreparedStatement preparedStatement = connection.prepareStatement(orderQuery);
+                 ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    int index = hierarchy.indexOf(resultSet.getInt("SalesRepID"));
+                    if (index >= 0) {
+                        orders[index] = resultSet.getInt("Orders");
+                        orderTotals[index] = resultSet.getBigDecimal("OrderTotal");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+
+        //Own commission, then everything added into the manager's team from the bottom of the tree up
+        int[] teamSizes = new int[size];
+        int[] teamCustomers = customers.clone();
+        int[] teamOrders = orders.clone();
+        BigDecimal[] teamOrderTotals = orderTotals.clone();
+        BigDecimal[] commissions = new BigDecimal[size];
+        BigDecimal[] teamCommissions = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            commissions[i] = orderTotals[i].multiply(BigDecimal.valueOf(salesReps.get(i).getCommission()));
+            teamCommissions[i] = commissions[i];
+        }
+        int[] topDown = hierarchy.getTopDownOrder();
+        for (int i = size - 1; i >= 0; i--) {
+            int rep = topDown[i];
+            int manager = hierarchy.getParent(rep);
+            if (manager >= 0) {
+                teamSizes[manager] += teamSizes[rep] + 1;
+                teamCustomers[manager] += teamCustomers[rep];
+                teamOrders[manager] += teamOrders[rep];
+                teamOrderTotals[manager] = teamOrderTotals[manager].add(teamOrderTotals[rep]);
+                teamCommissions[manager] = teamCommissions[manager].add(teamCommissions[rep]);
+            }
+        }
+
+        List<SalesRepRollup> rollups = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SalesRep salesRep = salesReps.get(i);
+            rollups.add(new SalesRepRollup(salesRep.getSalesRepID(), salesRep.getFirstName() + " " + salesRep.getLastName(),
+                teamSizes[i], customers[i], teamCustomers[i], orders[i], teamOrders[i],
+                money(orderTotals[i]), money(teamOrderTotals[i]), money(commissions[i]), money(teamCommissions[i])));
+        }
+        return rollups;
+    }
+
+    /**
+     * Method to read every sales rep into memory again, used after bulk loads
+     */
+    public static void refreshIds() {
+        DIRECTORY.reload();
+    }
+
+    private static double money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Creates the Home Products tables by running the scripts in the MySQL folder, so a fresh database
+ * (a scratch MySQL schema, or an embedded database such as H2 in MySQL mode) can be set up from code.
+ * "USE" and "CREATE DATABASE" statements are skipped, the tables go into whatever database the
+ * connection URL points at. Outside MySQL the comments on keys and indexes are dropped, H2 only
+ * accepts comments on columns and tables.
+ * @author Ethan C and Aarav S
+ */
+public final class SchemaLoader {
+    public static final String TABLES_SCRIPT = "HomeProductsTables.sql";
+    public static final String FOREIGN_KEYS_SCRIPT = "HomeProductsForeignKeys.sql";
+    //A COMMENT '...' closing a PRIMARY KEY, INDEX, KEY or UNIQUE line
+    private static final Pattern KEY_COMMENT = Pattern.compile(
+        "(?im)^(\\s*(?:PRIMARY\\s+KEY|UNIQUE|INDEX|KEY)\\b[^'\\n]*\\))\\s*COMMENT\\s+'(?:[^']|'')*'");
+
+    private SchemaLoader() {
+    }
+
+    /**
+     * Method to create every table and then the foreign keys between them
+     * @param connection The connection to the empty database
+     * @param scriptFolder The folder holding the scripts, normally "MySQL"
+     * @return The number of statements run
+     * @throws IOException If a script could not be read
+     * @throws SQLException If a statement failed
+     */
+    public static int createSchema(Connection connection, Path scriptFolder) throws IOException, SQLException {
+        return run(connection, scriptFolder.resolve(TABLES_SCRIPT))
+            + run(connection, scriptFolder.resolve(FOREIGN_KEYS_SCRIPT));
+    }
+
+    /**
+     * Method to run every statement in a script
+     * @param connection The connection to run them on
+     * @param script The script
+     * @return The number of statements run
+     * @throws IOException If the script could not be read
+     * @throws SQLException If a statement failed, naming the statement
+     */
+    public static int run(Connection connection, Path script) throws IOException, SQLException {
+        int count = 0;
+        boolean mySql = DatabaseConfig.isMySql();
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : split(Files.readString(script, StandardCharsets.UTF_8))) {
+                String upper = sql.toUpperCase();
+                if (upper.startsWith("USE ") || upper.startsWith("CREATE DATABASE")) {
+                    continue;
+                }
+                if (!mySql) {
+                    sql = KEY_COMMENT.matcher(sql).replaceAll("$1");
+                }
+                try {
+                    statement.execute(sql);
+                } catch (SQLException e) {
+                    throw new SQLException("Failed running " + script.getFileName() + ": " + sql, e);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Splits a script into statements on semicolons, dropping "--" comments.
+     * Semicolons and dashes inside quoted text are left alone.
+     */
+    static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (quote != 0) {
+                current.append(c);
+                if (c == quote) {
+                    // A doubled quote is an escaped quote, not the end of the text
+                    if (i + 1 < script.length() && script.charAt(i + 1) == quote) {
+                        current.append(script.charAt(++i));
+                    } else {
+                        quote = 0;
+                    }
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+                current.append(c);
+            } else if (c == '-' && i + 1 < script.length() && script.charAt(i + 1) == '-') {
+                // Skip to the end of the line
+                while (i + 1 < script.length() && script.charAt(i + 1) != '\n') {
+                    i++;
+                }
+            } else if (c == ';') {
+                addStatement(statements, current);
+            } else {
+                current.append(c);
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String sql = current.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+        current.setLength(0);
+    }
+
+    /**
+     * Creates the tables in the database set with -Dhomeproducts.db.url
+     * @param args Optionally the folder holding the scripts, "MySQL" by default
+     */
+    public static void main(String[] args) {
+        Path folder = Path.of(args.length > 0 ? args[0] : "MySQL");
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            System.out.println("Ran " + createSchema(connection, folder) + " statements against " + DatabaseConfig.getDbUrl());
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+}
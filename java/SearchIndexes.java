@@ -0,0 +1,231 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Type-ahead search indexes for customers, products and sales reps.
+ * The indexes are filled once at startup by streaming the tables, then kept up to date by the
+ * services whenever they save a row, so suggestions never go to the DB. Until the first load has
+ * finished no suggestions are given and the screens fall back to their normal search.
+ * Rows saved while a load is running are applied again to the new indexes before they are used.
+ * @author Ethan C and Aarav S
+ */
+public final class SearchIndexes {
+    private static final Object LOCK = new Object();
+
+    private static volatile Indexes current;
+    // Changes made while a load is running, null when no load is running
+    private static List<Consumer<Indexes>> pendingChanges;
+
+    /**
+     * One full set of indexes
+     */
+    private static final class Indexes {
+        private final TypeAheadIndex<Integer> customers = TypeAheadIndex.withIntKeys();
+        private final TypeAheadIndex<String> products = new TypeAheadIndex<>();
+        private final TypeAheadIndex<Integer> salesReps = TypeAheadIndex.withIntKeys();
+    }
+
+    private SearchIndexes() {
+    }
+
+    /**
+     * Method to build the indexes from the DB, replacing any loaded before
+     * @throws SQLException If the customers or products could not be read
+     */
+    public static synchronized void load() throws SQLException {
+        long start = System.nanoTime();
+        synchronized (LOCK) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        try {
+            Indexes indexes = new Indexes();
+            loadCustomers(indexes.customers);
+            loadProducts(indexes.products);
+            indexes.salesReps.beginBulkLoad();
+            for (SalesRep salesRep : SalesRepService.getAllSalesReps()) {
+                putSalesRep(indexes.salesReps, salesRep);
+            }
+            indexes.salesReps.compact();
+
+            synchronized (LOCK) {
+                for (Consumer<Indexes> change : pendingChanges) {
+                    change.accept(indexes);
+                }
+                current = indexes;
+            }
+            System.out.println("Search indexes loaded " + indexes.customers.size() + " customers, "
+                + indexes.products.size() + " products and " + indexes.salesReps.size() + " sales reps in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } finally {
+            synchronized (LOCK) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    /**
+     * Method to build the indexes again after rows were written behind the services' backs,
+     * like a bulk import. Does nothing if they were never loaded.
+     */
+    public static void reloadIfLoaded() {
+        if (current == null) {
+            return;
+        }
+        try {
+            load();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Method to check if the indexes can be searched yet
+     * @return True or false
+     */
+    public static boolean isLoaded() {
+        return current != null;
+    }
+
+    /**
+     * Method to suggest customers by name, company, email or city
+     * @param text The text typed so far
+     * @param limit The most suggestions returned
+     * @return The suggestions keyed by customer ID, empty if the indexes are not loaded
+     */
+    public static List<TypeAheadIndex.Suggestion<Integer>> suggestCustomers(String text, int limit) {
+        Indexes indexes = current;
+        return indexes == null ? new ArrayList<>() : indexes.customers.suggest(text, limit);
+    }
+
+    /**
+     * Method to suggest products by ID, description or class
+     * @param text The text typed so far
+     * @param limit The most suggestions returned
+     * @return The suggestions keyed by product ID, empty if the indexes are not loaded
+     */
+    public static List<TypeAheadIndex.Suggestion<String>> suggestProducts(String text, int limit) {
+        Indexes indexes = current;
+        return indexes == null ? new ArrayList<>() : indexes.products.suggest(text, limit);
+    }
+
+    /**
+     * Method to suggest sales reps by name
+     * @param text The text typed so far
+     * @param limit The most suggestions returned
+     * @return The suggestions keyed by sales rep ID, empty if the indexes are not loaded
+     */
+    public static List<TypeAheadIndex.Suggestion<Integer>> suggestSalesReps(String text, int limit) {
+        Indexes indexes = current;
+        return indexes == null ? new ArrayList<>() : indexes.salesReps.suggest(text, limit);
+    }
+
+    /**
+     * Called by CustomerService after a customer was added or edited
+     * @param customer The customer saved
+     */
+    static void customerSaved(Customer customer) {
+        change(indexes -> putCustomer(indexes.customers, customer.getCustomerID(), customer.getFirstName(),
+            customer.getLastName(), customer.getCompany(), customer.getEmail(), customer.getCity()));
+    }
+
+    /**
+     * Called by ProductService after a product was added or edited
+     * @param product The product saved
+     */
+    static void productSaved(Product product) {
+        change(indexes -> putProduct(indexes.products, product.getProductID(), product.getDescription(),
+            product.getProductClass()));
+    }
+
+    /**
+     * Called by SalesRepService after a sales rep was added or edited
+     * @param salesRep The sales rep saved
+     */
+    static void salesRepSaved(SalesRep salesRep) {
+        change(indexes -> putSalesRep(indexes.salesReps, salesRep));
+    }
+
+    /**
+     * Applies a change to the indexes in use, and to the ones being loaded if a load is running
+     */
+    private static void change(Consumer<Indexes> change) {
+        synchronized (LOCK) {
+            if (current != null) {
+                change.accept(current);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    private static void loadCustomers(TypeAheadIndex<Integer> index) throws SQLException {
+        String query = "SELECT CustomerID, FirstName, LastName, Company, Email, City FROM tblCustomer";
+
+        //Connecting to SQL DB, not instrumented as QueryStats would add a proxy call to every row
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Streams rows instead of reading the whole table into memory
+            preparedStatement.setFetchSize(DatabaseConfig.getStreamingFetchSize());
+            index.beginBulkLoad();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    putCustomer(index, resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3),
+                        resultSet.getString(4), resultSet.getString(5), resultSet.getString(6));
+                }
+            }
+            index.compact();
+        }
+    }
+
+    private static void loadProducts(TypeAheadIndex<String> index) throws SQLException {
+        String query = "SELECT ProductID, Description, Class FROM tblProduct";
+
+        //Connecting to SQL DB
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            preparedStatement.setFetchSize(DatabaseConfig.getStreamingFetchSize());
+            index.beginBulkLoad();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    putProduct(index, resultSet.getString(1), resultSet.getString(2), resultSet.getString(3));
+                }
+            }
+            index.compact();
+        }
+    }
+
+    private static void putCustomer(TypeAheadIndex<Integer> index, int id, String firstName, String lastName,
+                                    String company, String email, String city) {
+        StringBuilder label = new StringBuilder();
+        label.append(lastName).append(", ").append(firstName);
+        if (company != null && !company.isBlank()) {
+            label.append(" - ").append(company);
+        }
+        if (city != null && !city.isBlank()) {
+            label.append(" (").append(city).append(")");
+        }
+        label.append(" #").append(id);
+        index.put(id, label.toString(), lastName, firstName, company, email, city);
+    }
+
+    private static void putProduct(TypeAheadIndex<String> index, String id, String description, String productClass) {
+        index.put(id, id + " - " + description + " (" + productClass + ")", id, description, productClass);
+    }
+
+    private static void putSalesRep(TypeAheadIndex<Integer> index, SalesRep salesRep) {
+        index.put(salesRep.getSalesRepID(),
+            salesRep.getLastName() + ", " + salesRep.getFirstName() + " (#" + salesRep.getSalesRepID() + ")",
+            salesRep.getLastName(), salesRep.getFirstName());
+    }
+}
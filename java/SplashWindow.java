@@ -0,0 +1,46 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+
+/**
+ * Small undecorated window shown while the application starts, with a line saying what is loading.
+ * It is kept to a few labels so it can be put on screen before anything heavy is loaded.
+ * @author Ethan C and Aarav S
+ */
+public class SplashWindow extends JWindow {
+    private static final Color HEADER_COLOR = new Color(52, 73, 94); // Dark slate
+    private static final Color TEXT_COLOR = new Color(236, 240, 241); // Light gray
+
+    private final JLabel statusLabel;
+
+    /**
+     * Creates the splash, centred on the screen
+     */
+    public SplashWindow() {
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBackground(HEADER_COLOR);
+        panel.setBorder(new EmptyBorder(25, 30, 20, 30));
+
+        JLabel titleLabel = new JLabel("Home Products Inc", JLabel.CENTER);
+        titleLabel.setFont(new Font("Segoe UI Light", Font.BOLD, 26));
+        titleLabel.setForeground(Color.WHITE);
+        panel.add(titleLabel, BorderLayout.CENTER);
+
+        statusLabel = new JLabel("Starting...", JLabel.CENTER);
+        statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        statusLabel.setForeground(TEXT_COLOR);
+        panel.add(statusLabel, BorderLayout.SOUTH);
+
+        setContentPane(panel);
+        setSize(380, 140);
+        setLocationRelativeTo(null);
+    }
+
+    /**
+     * Shows what is being loaded
+     * @param status The text to show
+     */
+    public void setStatus(String status) {
+        statusLabel.setText(status);
+    }
+}
@@ -0,0 +1,137 @@
+import javax.swing.*;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Starts the application: a splash is put up straight away, then the slow parts of startup run at
+ * the same time in the background. The main menu is shown as soon as what it needs (the background
+ * image and the window classes) is ready, while the connection pool, the reference data caches and
+ * the search indexes carry on loading behind it. Summary tables left empty by the sample data script
+ * are filled in. Each phase is timed, printed once startup is
+ * finished and recorded in QueryStats as "Startup.&lt;phase&gt;".
+ * @author Ethan C and Aarav S
+ */
+public class StartupPipeline {
+    // Loaded ahead so opening the first windows does not wait on the class loader
+    private static final String[] WINDOW_CLASSES = {
+        "MainMenuPresentation", "CustomerViewPresentation", "CustomerEditPresentation", "OrderViewPresentation",
+        "OrderEditPresentation", "PaymentPresentation", "ProductEditPresentation", "SalesRepEditPresentation",
+        "CustomerTableModel", "ListTableModel", "WindowPool", "BackgroundTask",
+        "javax.swing.JTable", "javax.swing.JComboBox", "javax.swing.JScrollPane", "javax.swing.JTextArea",
+        "javax.swing.JOptionPane", "javax.swing.table.DefaultTableModel"
+    };
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> timings = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "StartupPipeline-phase");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CompletableFuture<Void> menuShown = new CompletableFuture<>();
+    // Only touched on the EDT
+    private SplashWindow splash;
+
+    /**
+     * One part of startup
+     */
+    private interface Phase {
+        void run() throws Exception;
+    }
+
+    /**
+     * Method to show the splash and start every phase, returns straight away
+     */
+    public void start() {
+        SwingUtilities.invokeLater(() -> {
+            splash = new SplashWindow();
+            splash.setVisible(true);
+            record("Splash shown", startNanos);
+        });
+
+        CompletableFuture<Void> image = phase("Background image", () -> BackgroundPanel.loadImage().join());
+        CompletableFuture<Void> classes = phase("Window classes", StartupPipeline::loadClasses);
+        CompletableFuture<Void> pool = phase("Connection pool", DatabaseConfig::warmUp);
+        CompletableFuture<Void> salesReps = phase("Sales reps", SalesRepService::getSalesRepCount);
+        CompletableFuture<Void> products = phase("Products and warehouses", ProductService::preloadCache);
+        CompletableFuture<Void> searchIndexes = phase("Search indexes", SearchIndexes::load);
+        CompletableFuture<Void> searchWords = phase("Customer search words", CustomerService::prepareSearchWords);
+        CompletableFuture<Void> balances = phase("Customer balances", CustomerBalanceService::prepare);
+
+        CompletableFuture.allOf(image, classes).whenComplete((result, e) -> SwingUtilities.invokeLater(this::showMainMenu));
+        CompletableFuture.allOf(image, classes, pool, salesReps, products, searchIndexes, searchWords, balances, menuShown).whenComplete((result, e) -> {
+            executor.shutdown();
+            System.out.print(report());
+        });
+    }
+
+    /**
+     * Runs one phase in the background, timing it. A failed phase is reported and startup carries on,
+     * whatever it was loading is then loaded when first used.
+     */
+    private CompletableFuture<Void> phase(String name, Phase phase) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                phase.run();
+                failed = false;
+            } catch (SQLException e) {
+                System.err.println("Startup could not " + name.toLowerCase() + ": " + e.getMessage());
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                QueryStats.recordCall("Startup." + name, System.nanoTime() - start, failed);
+                record(name, start);
+                SwingUtilities.invokeLater(() -> {
+                    if (splash != null) {
+                        splash.setStatus("Loaded " + name.toLowerCase());
+                    }
+                });
+            }
+        }, executor);
+    }
+
+    private static void loadClasses() throws ClassNotFoundException {
+        ClassLoader loader = StartupPipeline.class.getClassLoader();
+        for (String className : WINDOW_CLASSES) {
+            Class.forName(className, true, loader);
+        }
+    }
+
+    /**
+     * Swaps the splash for the main menu
+     */
+    private void showMainMenu() {
+        try {
+            new MainMenuPresentation();
+            record("Main menu shown", startNanos);
+        } finally {
+            if (splash != null) {
+                splash.dispose();
+                splash = null;
+            }
+            menuShown.complete(null);
+        }
+    }
+
+    private synchronized void record(String name, long startNanos) {
+        timings.put(name, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Gets how long each phase took so far
+     * @return One line per phase
+     */
+    public synchronized String report() {
+        StringBuilder report = new StringBuilder("Startup timings:\n");
+        for (Map.Entry<String, Long> timing : timings.entrySet()) {
+            report.append(String.format("  %-26s %6d ms%n", timing.getKey(), timing.getValue()));
+        }
+        return report.toString();
+    }
+}
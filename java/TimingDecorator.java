@@ -0,0 +1,34 @@
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Times every repository call and records it in QueryStats as "CustomerRepository.getCustomerByID" and so on.
+ * Unlike the query timings this is the time the screen waited, cache hits and all.
+ * @author Ethan C and Aarav S
+ */
+public class TimingDecorator implements RepositoryDecorator {
+    @Override
+    public <T> T decorate(Class<T> type, T repository) {
+        if (!QueryStats.isEnabled()) {
+            return repository;
+        }
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(repository, args);
+            }
+            String name = type.getSimpleName() + "." + method.getName();
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = method.invoke(repository, args);
+                failed = false;
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                QueryStats.recordCall(name, System.nanoTime() - start, failed);
+            }
+        });
+        return type.cast(proxy);
+    }
+}
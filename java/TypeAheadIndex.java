@@ -0,0 +1,717 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory inverted index answering type-ahead prefix searches, such as "mar joh" for Mary Johnson.
+ * <p>
+ * Each distinct word is stored once, packed with the others into one sorted char array, and the
+ * documents containing it are a plain int array, so a prefix is a binary search followed by walking
+ * neighbouring words. Labels are packed into one byte array the same way. This keeps the index to a
+ * few small arrays per word rather than several objects. Integer keys, like customer IDs, can be kept in
+ * plain int arrays as well (see withIntKeys), which keeps a customer to about 160 bytes.
+ * <p>
+ * Words added after the arrays were built wait in a small map and are merged in once enough have
+ * piled up. A changed document is added again under a new number and the old number, found through
+ * the key table, is marked removed rather than searching every posting list for it. Once removed documents
+ * make up a quarter of the index the arrays are rebuilt without them. All methods are synchronized,
+ * a search only takes a fraction of a millisecond.
+ * @param <K> The document key, like a customer ID
+ * @author Ethan C and Aarav S
+ */
+public class TypeAheadIndex<K> {
+    private static final int MERGE_THRESHOLD = 4096;
+    private static final int INITIAL_DOCUMENTS = 1024;
+    // Removed documents are dropped once they are this share of the index, and there are enough to bother
+    private static final double MAX_REMOVED_FRACTION = 0.25;
+    private static final int MIN_REMOVED_TO_REBUILD = 256;
+
+    // Sorted words, word i is wordChars[wordStarts[i]] up to wordStarts[i + 1]
+    private char[] wordChars = new char[0];
+    private int[] wordStarts = {0};
+    private int wordCount;
+    // Per word, its length in slot 0 then the document numbers containing it in order
+    private int[][] postings = new int[0][];
+    // Words added since the arrays were last merged
+    private Map<String, int[]> recentWords = new HashMap<>();
+    private boolean bulkLoading;
+
+    // Per document number, label i is labelBytes[labelStarts[i]] up to labelStarts[i + 1]
+    private int[] labelStarts = new int[INITIAL_DOCUMENTS + 1];
+    private byte[] labelBytes = new byte[INITIAL_DOCUMENTS * 32];
+    private int documentCount;
+    private int liveCount;
+    private final BitSet removed = new BitSet();
+    // The key of each document number, and the live document number of each key
+    private final KeyTable<K> keys;
+
+    /**
+     * Creates an empty index for any kind of key
+     */
+    public TypeAheadIndex() {
+        this(new ObjectKeys<>());
+    }
+
+    private TypeAheadIndex(KeyTable<K> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Creates an empty index whose keys are kept as plain ints rather than Integer objects.
+     * Integer.MIN_VALUE cannot be used as a key.
+     * @return The index
+     */
+    public static TypeAheadIndex<Integer> withIntKeys() {
+        return new TypeAheadIndex<>(new IntKeys());
+    }
+
+    /**
+     * One search result.
+     * @param <K> The document key
+     */
+    public static class Suggestion<K> {
+        private final K key;
+        private final String label;
+
+        Suggestion(K key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        /**
+         * Gets the key of the document found
+         * @return The key
+         */
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * Gets the text to show for the document
+         * @return The label
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Starts loading many documents, words are only merged in by compact()
+     */
+    public synchronized void beginBulkLoad() {
+        bulkLoading = true;
+    }
+
+    /**
+     * Adds a document, replacing any document with the same key
+     * @param key The document key
+     * @param label The text shown when the document is suggested
+     * @param fields The values whose words the document is found by, nulls are skipped
+     */
+    public synchronized void put(K key, String label, String... fields) {
+        remove(key);
+
+        int document = documentCount;
+        if (document + 1 == labelStarts.length) {
+            int capacity = document + Math.max(document >> 1, 16);
+            labelStarts = Arrays.copyOf(labelStarts, capacity + 1);
+        }
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        int start = labelStarts[document];
+        if (start + bytes.length > labelBytes.length) {
+            labelBytes = Arrays.copyOf(labelBytes, Math.max(start + bytes.length, labelBytes.length + (labelBytes.length >> 1)));
+        }
+        System.arraycopy(bytes, 0, labelBytes, start, bytes.length);
+        labelStarts[document + 1] = start + bytes.length;
+        keys.add(key, document);
+        documentCount++;
+        liveCount++;
+
+        for (String field : fields) {
+            for (String word : CustomerMatcher.words(field)) {
+                addPosting(word, document);
+            }
+        }
+    }
+
+    /**
+     * Removes a document
+     * @param key The document key
+     */
+    public synchronized void remove(K key) {
+        int document = keys.remove(key);
+        if (document < 0) {
+            return;
+        }
+        removed.set(document);
+        liveCount--;
+        if (!bulkLoading && tooManyRemoved()) {
+            dropRemoved();
+        }
+    }
+
+    /**
+     * Gets the number of documents
+     * @return The count of documents
+     */
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    /**
+     * Gets the number of distinct words
+     * @return The count of words
+     */
+    public synchronized int getWordCount() {
+        return wordCount + recentWords.size();
+    }
+
+    /**
+     * Finds the documents with a word starting with every word typed. Documents come in the order of
+     * the word they matched on, so an exact match comes before longer words.
+     * @param text The text typed so far
+     * @param limit The most suggestions returned
+     * @return The suggestions, empty if nothing was typed
+     */
+    public synchronized List<Suggestion<K>> suggest(String text, int limit) {
+        List<Suggestion<K>> suggestions = new ArrayList<>();
+        List<String> terms = CustomerMatcher.terms(text);
+        if (terms.isEmpty() || limit <= 0) {
+            return suggestions;
+        }
+
+        // The word with the fewest matches picks the documents, the others filter them. A single word
+        // is not counted, as a short prefix can cover many thousands of words and only a few are needed.
+        List<Matches> matches = new ArrayList<>();
+        for (String term : terms) {
+            matches.add(new Matches(term));
+        }
+        Matches driver = matches.get(0);
+        List<BitSet> filters = new ArrayList<>();
+        if (matches.size() > 1) {
+            long fewest = Long.MAX_VALUE;
+            for (Matches match : matches) {
+                long count = match.countPostings();
+                if (count == 0) {
+                    return suggestions;
+                }
+                if (count < fewest) {
+                    fewest = count;
+                    driver = match;
+                }
+            }
+            for (Matches match : matches) {
+                if (match != driver) {
+                    filters.add(match.toBitSet());
+                }
+            }
+        }
+
+        BitSet seen = new BitSet();
+        for (int word = 0; word < driver.size(); word++) {
+            int[] list = driver.get(word);
+            for (int i = 1; i <= list[0]; i++) {
+                int document = list[i];
+                if (removed.get(document) || seen.get(document) || !passes(document, filters)) {
+                    continue;
+                }
+                seen.set(document);
+                String label = new String(labelBytes, labelStarts[document],
+                    labelStarts[document + 1] - labelStarts[document], StandardCharsets.UTF_8);
+                suggestions.add(new Suggestion<>(keys.keyOf(document), label));
+                if (suggestions.size() == limit) {
+                    return suggestions;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Merges any waiting words and trims spare room, called once a bulk load is done
+     */
+    public synchronized void compact() {
+        bulkLoading = false;
+        if (tooManyRemoved()) {
+            dropRemoved();
+        }
+        mergeRecentWords();
+        for (int i = 0; i < wordCount; i++) {
+            int[] list = postings[i];
+            if (list.length > list[0] + 1) {
+                postings[i] = Arrays.copyOf(list, list[0] + 1);
+            }
+        }
+        keys.trim(documentCount);
+        labelStarts = Arrays.copyOf(labelStarts, documentCount + 1);
+        labelBytes = Arrays.copyOf(labelBytes, labelStarts[documentCount]);
+    }
+
+    private boolean tooManyRemoved() {
+        int removedCount = documentCount - liveCount;
+        return removedCount >= MIN_REMOVED_TO_REBUILD && removedCount > documentCount * MAX_REMOVED_FRACTION;
+    }
+
+    /**
+     * Renumbers the live documents from 0 and rebuilds the arrays without the removed ones.
+     * Document numbers keep their order, so every postings list stays sorted.
+     */
+    private void dropRemoved() {
+        mergeRecentWords();
+
+        // Labels and keys of the live documents, under their new numbers
+        int[] renumbered = new int[documentCount];
+        int capacity = liveCount + Math.max(liveCount >> 1, 16);
+        int[] liveLabelStarts = new int[capacity + 1];
+        byte[] liveLabelBytes = new byte[labelStarts[documentCount]];
+        int live = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (removed.get(document)) {
+                renumbered[document] = -1;
+                continue;
+            }
+            int start = labelStarts[document];
+            int length = labelStarts[document + 1] - start;
+            System.arraycopy(labelBytes, start, liveLabelBytes, liveLabelStarts[live], length);
+            liveLabelStarts[live + 1] = liveLabelStarts[live] + length;
+            renumbered[document] = live;
+            live++;
+        }
+        keys.renumber(renumbered, documentCount);
+
+        // Postings under the new numbers, words left without documents are dropped
+        char[] liveChars = new char[wordStarts[wordCount]];
+        int[] liveStarts = new int[wordCount + 1];
+        int[][] livePostings = new int[wordCount][];
+        int liveWords = 0;
+        for (int word = 0; word < wordCount; word++) {
+            int[] list = postings[word];
+            int size = 0;
+            for (int i = 1; i <= list[0]; i++) {
+                int document = renumbered[list[i]];
+                if (document >= 0) {
+                    list[++size] = document;
+                }
+            }
+            if (size == 0) {
+                continue;
+            }
+            list[0] = size;
+            int start = wordStarts[word];
+            int length = wordStarts[word + 1] - start;
+            System.arraycopy(wordChars, start, liveChars, liveStarts[liveWords], length);
+            liveStarts[liveWords + 1] = liveStarts[liveWords] + length;
+            livePostings[liveWords++] = list.length > size + 1 ? Arrays.copyOf(list, size + 1) : list;
+        }
+
+        wordChars = Arrays.copyOf(liveChars, liveStarts[liveWords]);
+        wordStarts = Arrays.copyOf(liveStarts, liveWords + 1);
+        postings = Arrays.copyOf(livePostings, liveWords);
+        wordCount = liveWords;
+        labelStarts = liveLabelStarts;
+        labelBytes = Arrays.copyOf(liveLabelBytes, Math.max(liveLabelStarts[live], INITIAL_DOCUMENTS * 32));
+        documentCount = live;
+        removed.clear();
+    }
+
+    /**
+     * Where the index keeps its keys: the key of each document number, and the live document of each key
+     */
+    private interface KeyTable<K> {
+        /**
+         * Records the key of a new document, which is now the live document for the key
+         */
+        void add(K key, int document);
+
+        /**
+         * Forgets a key, its document keeps its key until the documents are renumbered
+         * @return The key's live document, or -1 if it had none
+         */
+        int remove(K key);
+
+        K keyOf(int document);
+
+        /**
+         * Moves every document to renumbered[document], dropping those renumbered to -1
+         */
+        void renumber(int[] renumbered, int documentCount);
+
+        /**
+         * Drops spare room beyond the documents there are
+         */
+        void trim(int documentCount);
+    }
+
+    /**
+     * Keys of any type, in an array and a HashMap
+     */
+    private static final class ObjectKeys<K> implements KeyTable<K> {
+        private Object[] keys = new Object[INITIAL_DOCUMENTS];
+        private final Map<K, Integer> documents = new HashMap<>();
+
+        @Override
+        public void add(K key, int document) {
+            if (document == keys.length) {
+                keys = Arrays.copyOf(keys, document + Math.max(document >> 1, 16));
+            }
+            keys[document] = key;
+            documents.put(key, document);
+        }
+
+        @Override
+        public int remove(K key) {
+            Integer document = documents.remove(key);
+            return document == null ? -1 : document;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K keyOf(int document) {
+            return (K) keys[document];
+        }
+
+        @Override
+        public void renumber(int[] renumbered, int documentCount) {
+            Object[] live = new Object[Math.max(keys.length, INITIAL_DOCUMENTS)];
+            for (int document = 0; document < documentCount; document++) {
+                if (renumbered[document] >= 0) {
+                    live[renumbered[document]] = keys[document];
+                }
+            }
+            keys = live;
+            for (Map.Entry<K, Integer> entry : documents.entrySet()) {
+                entry.setValue(renumbered[entry.getValue()]);
+            }
+        }
+
+        @Override
+        public void trim(int documentCount) {
+            keys = Arrays.copyOf(keys, documentCount);
+        }
+    }
+
+    /**
+     * Int keys in an int array, and an open addressing table from key to document with linear probing,
+     * so no Integer or map entry objects are kept per document
+     */
+    private static final class IntKeys implements KeyTable<Integer> {
+        private static final int FREE = Integer.MIN_VALUE;
+
+        private int[] keys = new int[INITIAL_DOCUMENTS];
+        // Slot i holds tableKeys[i] and its document tableDocuments[i], the capacity is a power of two
+        private int[] tableKeys = newTable(INITIAL_DOCUMENTS * 2);
+        private int[] tableDocuments = new int[INITIAL_DOCUMENTS * 2];
+        private int tableSize;
+
+        @Override
+        public void add(Integer key, int document) {
+            if (key == FREE) {
+                throw new IllegalArgumentException("Integer.MIN_VALUE cannot be used as a key");
+            }
+            if (document == keys.length) {
+                keys = Arrays.copyOf(keys, document + Math.max(document >> 1, 16));
+            }
+            keys[document] = key;
+            put(key, document);
+        }
+
+        @Override
+        public int remove(Integer key) {
+            int mask = tableKeys.length - 1;
+            int slot = slot(key, mask);
+            while (tableKeys[slot] != key) {
+                if (tableKeys[slot] == FREE) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int document = tableDocuments[slot];
+            tableSize--;
+
+            // Shift later keys of the same run back, so lookups never stop early at the gap
+            int gap = slot;
+            for (int next = (gap + 1) & mask; tableKeys[next] != FREE; next = (next + 1) & mask) {
+                int home = slot(tableKeys[next], mask);
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    tableKeys[gap] = tableKeys[next];
+                    tableDocuments[gap] = tableDocuments[next];
+                    gap = next;
+                }
+            }
+            tableKeys[gap] = FREE;
+            return document;
+        }
+
+        @Override
+        public Integer keyOf(int document) {
+            return keys[document];
+        }
+
+        @Override
+        public void renumber(int[] renumbered, int documentCount) {
+            int[] live = new int[Math.max(keys.length, INITIAL_DOCUMENTS)];
+            for (int document = 0; document < documentCount; document++) {
+                if (renumbered[document] >= 0) {
+                    live[renumbered[document]] = keys[document];
+                }
+            }
+            keys = live;
+            for (int slot = 0; slot < tableKeys.length; slot++) {
+                if (tableKeys[slot] != FREE) {
+                    tableDocuments[slot] = renumbered[tableDocuments[slot]];
+                }
+            }
+        }
+
+        @Override
+        public void trim(int documentCount) {
+            keys = Arrays.copyOf(keys, documentCount);
+        }
+
+        private void put(int key, int document) {
+            // Kept at most two thirds full
+            if ((tableSize + 1) * 3 > tableKeys.length * 2) {
+                int[] oldKeys = tableKeys;
+                int[] oldDocuments = tableDocuments;
+                tableKeys = newTable(oldKeys.length * 2);
+                tableDocuments = new int[oldKeys.length * 2];
+                tableSize = 0;
+                for (int slot = 0; slot < oldKeys.length; slot++) {
+                    if (oldKeys[slot] != FREE) {
+                        put(oldKeys[slot], oldDocuments[slot]);
+                    }
+                }
+            }
+
+            int mask = tableKeys.length - 1;
+            int slot = slot(key, mask);
+            while (tableKeys[slot] != FREE && tableKeys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (tableKeys[slot] == FREE) {
+                tableKeys[slot] = key;
+                tableSize++;
+            }
+            tableDocuments[slot] = document;
+        }
+
+        private static int[] newTable(int capacity) {
+            int[] table = new int[capacity];
+            Arrays.fill(table, FREE);
+            return table;
+        }
+
+        /**
+         * Spreads sequential IDs over the table
+         */
+        private static int slot(int key, int mask) {
+            int hash = key * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+
+    private static boolean passes(int document, List<BitSet> filters) {
+        for (BitSet filter : filters) {
+            if (!filter.get(document)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The words starting with one prefix, in word order
+     */
+    private final class Matches {
+        private final int from;
+        private final int to;
+        // Only built when recently added words match too, otherwise the sorted range is used directly
+        private final List<int[]> merged;
+
+        Matches(String prefix) {
+            // Every word starting with the prefix sorts between the prefix and the prefix followed by the highest char
+            from = insertionPoint(prefix);
+            to = insertionPoint(prefix + Character.MAX_VALUE);
+
+            List<String> recent = new ArrayList<>();
+            for (String word : recentWords.keySet()) {
+                if (word.startsWith(prefix)) {
+                    recent.add(word);
+                }
+            }
+            if (recent.isEmpty()) {
+                merged = null;
+                return;
+            }
+            recent.sort(null);
+
+            // Merge the two sorted sources
+            merged = new ArrayList<>(to - from + recent.size());
+            int i = from;
+            for (String word : recent) {
+                while (i < to && compareWord(i, word) < 0) {
+                    merged.add(postings[i++]);
+                }
+                merged.add(recentWords.get(word));
+            }
+            while (i < to) {
+                merged.add(postings[i++]);
+            }
+        }
+
+        int size() {
+            return merged != null ? merged.size() : to - from;
+        }
+
+        int[] get(int index) {
+            return merged != null ? merged.get(index) : postings[from + index];
+        }
+
+        long countPostings() {
+            long count = 0;
+            for (int i = 0; i < size(); i++) {
+                count += get(i)[0];
+            }
+            return count;
+        }
+
+        BitSet toBitSet() {
+            BitSet documents = new BitSet(documentCount);
+            for (int word = 0; word < size(); word++) {
+                int[] list = get(word);
+                for (int i = 1; i <= list[0]; i++) {
+                    documents.set(list[i]);
+                }
+            }
+            return documents;
+        }
+    }
+
+    /**
+     * Binary search for a word in the sorted words
+     * @return The word's index, or -(insertion point) - 1 if it is not there
+     */
+    private int find(String word) {
+        int low = 0;
+        int high = wordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = compareWord(middle, word);
+            if (compare < 0) {
+                low = middle + 1;
+            } else if (compare > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int insertionPoint(String word) {
+        int index = find(word);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Compares sorted word i with a word the same way String.compareTo does
+     */
+    private int compareWord(int index, String word) {
+        int start = wordStarts[index];
+        int length = wordStarts[index + 1] - start;
+        int shorter = Math.min(length, word.length());
+        for (int i = 0; i < shorter; i++) {
+            int difference = wordChars[start + i] - word.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - word.length();
+    }
+
+    private void addPosting(String word, int document) {
+        int index = find(word);
+        if (index >= 0) {
+            postings[index] = append(postings[index], document);
+            return;
+        }
+        int[] list = recentWords.get(word);
+        recentWords.put(word, append(list == null ? new int[2] : list, document));
+        if (!bulkLoading && recentWords.size() >= MERGE_THRESHOLD) {
+            mergeRecentWords();
+        }
+    }
+
+    /**
+     * Adds a document to a postings array, growing it when full. Skips a word repeated in one document.
+     */
+    private static int[] append(int[] list, int document) {
+        int size = list[0];
+        if (size > 0 && list[size] == document) {
+            return list;
+        }
+        if (size + 1 == list.length) {
+            list = Arrays.copyOf(list, list.length + Math.max(2, list.length >> 1));
+        }
+        list[size + 1] = document;
+        list[0] = size + 1;
+        return list;
+    }
+
+    /**
+     * Merges the recently added words into the sorted arrays
+     */
+    private void mergeRecentWords() {
+        if (recentWords.isEmpty()) {
+            return;
+        }
+        String[] recent = recentWords.keySet().toArray(new String[0]);
+        Arrays.sort(recent);
+        int recentChars = 0;
+        for (String word : recent) {
+            recentChars += word.length();
+        }
+
+        int mergedCount = wordCount + recent.length;
+        char[] mergedChars = new char[wordStarts[wordCount] + recentChars];
+        int[] mergedStarts = new int[mergedCount + 1];
+        int[][] mergedPostings = new int[mergedCount][];
+        int i = 0;
+        int merged = 0;
+        for (String word : recent) {
+            while (i < wordCount && compareWord(i, word) < 0) {
+                int start = wordStarts[i];
+                int length = wordStarts[i + 1] - start;
+                System.arraycopy(wordChars, start, mergedChars, mergedStarts[merged], length);
+                mergedStarts[merged + 1] = mergedStarts[merged] + length;
+                mergedPostings[merged++] = postings[i++];
+            }
+            word.getChars(0, word.length(), mergedChars, mergedStarts[merged]);
+            mergedStarts[merged + 1] = mergedStarts[merged] + word.length();
+            mergedPostings[merged++] = recentWords.get(word);
+        }
+        while (i < wordCount) {
+            int start = wordStarts[i];
+            int length = wordStarts[i + 1] - start;
+            System.arraycopy(wordChars, start, mergedChars, mergedStarts[merged], length);
+            mergedStarts[merged + 1] = mergedStarts[merged] + length;
+            mergedPostings[merged++] = postings[i++];
+        }
+
+        wordChars = mergedChars;
+        wordStarts = mergedStarts;
+        postings = mergedPostings;
+        wordCount = mergedCount;
+        // A new map, as a cleared one keeps its table and searches walk all of it
+        recentWords = new HashMap<>();
+    }
+}
@@ -0,0 +1,182 @@
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Live suggestions under a text field. Suggestions are looked up once typing pauses rather than on
+ * every key, and shown in a popup that never takes the focus, so typing carries on in the field.
+ * Up and Down move through the list, Enter or a click chooses and Escape closes it. The lookup
+ * runs on the Event Dispatch Thread, so it must be an in-memory search like TypeAheadIndex.
+ * @param <T> The type of suggestion, shown with its toString()
+ * @author Ethan C and Aarav S
+ */
+public final class TypeAheadPopup<T> {
+    public static final int DELAY_MILLIS = 150;
+
+    private final JTextField field;
+    private final Function<String, List<T>> source;
+    private final Consumer<T> onChoose;
+    private final DefaultListModel<T> model = new DefaultListModel<>();
+    private final JList<T> list = new JList<>(model);
+    private final JPopupMenu popup = new JPopupMenu();
+    private final Timer timer;
+    // Set while the field is changed by choosing, so that does not look up suggestions again
+    private boolean choosing;
+
+    private TypeAheadPopup(JTextField field, Function<String, List<T>> source, Consumer<T> onChoose) {
+        this.field = field;
+        this.source = source;
+        this.onChoose = onChoose;
+
+        timer = new Timer(DELAY_MILLIS, e -> update());
+        timer.setRepeats(false);
+
+        list.setFocusable(false);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFont(field.getFont());
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(list));
+    }
+
+    /**
+     * Method to add suggestions to a text field
+     * @param field The text field
+     * @param source Gets the suggestions for the text typed
+     * @param onChoose Called with the suggestion chosen
+     * @param <T> The type of suggestion
+     * @return The popup, to hide it when the window is reset
+     */
+    public static <T> TypeAheadPopup<T> install(JTextField field, Function<String, List<T>> source, Consumer<T> onChoose) {
+        TypeAheadPopup<T> typeAhead = new TypeAheadPopup<>(field, source, onChoose);
+        typeAhead.listen();
+        return typeAhead;
+    }
+
+    /**
+     * Method to close the suggestions and forget any lookup waiting to run
+     */
+    public void hide() {
+        timer.stop();
+        popup.setVisible(false);
+    }
+
+    private void listen() {
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                changed();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                changed();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+
+        // Key listeners run before the field's own key bindings, so a consumed Enter does not also search
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) {
+                    return;
+                }
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        select(Math.min(list.getSelectedIndex() + 1, model.getSize() - 1));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        select(Math.max(list.getSelectedIndex() - 1, 0));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        if (list.getSelectedValue() != null) {
+                            choose(list.getSelectedValue());
+                            e.consume();
+                        }
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        hide();
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                hide();
+            }
+        });
+
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    choose(model.getElementAt(index));
+                }
+            }
+        });
+    }
+
+    /**
+     * Restarts the wait after every key, so the lookup only runs once typing pauses
+     */
+    private void changed() {
+        if (!choosing) {
+            timer.restart();
+        }
+    }
+
+    private void update() {
+        String text = field.getText();
+        List<T> suggestions = text.isBlank() ? List.of() : source.apply(text);
+        if (suggestions.isEmpty() || !field.isShowing()) {
+            popup.setVisible(false);
+            return;
+        }
+
+        model.clear();
+        model.addAll(suggestions);
+        list.setVisibleRowCount(suggestions.size());
+        list.clearSelection();
+        popup.pack();
+        popup.setPopupSize(Math.max(field.getWidth(), popup.getPreferredSize().width), popup.getPreferredSize().height);
+        if (popup.isVisible()) {
+            popup.setVisible(false);
+        }
+        popup.show(field, 0, field.getHeight());
+    }
+
+    private void select(int index) {
+        list.setSelectedIndex(index);
+        list.ensureIndexIsVisible(index);
+    }
+
+    private void choose(T suggestion) {
+        hide();
+        choosing = true;
+        try {
+            onChoose.accept(suggestion);
+        } finally {
+            choosing = false;
+        }
+    }
+}
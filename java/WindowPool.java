@@ -0,0 +1,108 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the main menu's windows around after they are closed so they open instantly next time.
+ * A closed window is hidden rather than disposed and kept as the idle window for its class, then
+ * reset and shown again when that window is next opened. Opening a window whose idle copy is already
+ * in use builds a second one, which is disposed when closed if another copy is already idle.
+ * Windows can also be built ahead of time, one per event so the menu stays responsive.
+ * Everything here runs on the Event Dispatch Thread.
+ * @author Ethan C and Aarav S
+ */
+public final class WindowPool {
+    // Hidden windows ready to be shown again, one per class
+    private static final Map<Class<?>, JFrame> IDLE = new HashMap<>();
+    // Windows the pool looks after
+    private static final Set<Window> MANAGED = Collections.newSetFromMap(new WeakHashMap<>());
+    // Windows that have been shown, so need resetting before they are shown again
+    private static final Set<Window> USED = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private WindowPool() {
+    }
+
+    /**
+     * Method to show a window, reusing the idle one if there is one
+     * @param type The window class
+     * @param factory Builds a new window if none is idle
+     * @param <T> The window type
+     * @return The window shown
+     */
+    public static <T extends JFrame & ReusableWindow> T open(Class<T> type, Supplier<T> factory) {
+        T window = type.cast(IDLE.remove(type));
+        if (window == null) {
+            window = adopt(factory.get());
+        } else if (USED.contains(window)) {
+            window.reset();
+        }
+        USED.add(window);
+
+        window.setLocationRelativeTo(null);
+        window.setVisible(true);
+        window.toFront();
+        return window;
+    }
+
+    /**
+     * Method to build a window ahead of time, on a later event so the caller is not held up
+     * @param type The window class
+     * @param factory Builds the window
+     * @param <T> The window type
+     */
+    public static <T extends JFrame & ReusableWindow> void prebuildLater(Class<T> type, Supplier<T> factory) {
+        SwingUtilities.invokeLater(() -> {
+            if (!IDLE.containsKey(type)) {
+                IDLE.put(type, adopt(factory.get()));
+            }
+        });
+    }
+
+    /**
+     * Method to close a window, hiding it if the pool looks after it and disposing it otherwise
+     * @param window The window
+     */
+    public static void close(Window window) {
+        if (MANAGED.contains(window)) {
+            window.setVisible(false);
+        } else {
+            window.dispose();
+        }
+    }
+
+    /**
+     * Makes closing the window hide it and hand it back to the pool
+     */
+    private static <T extends JFrame> T adopt(T window) {
+        window.setDefaultCloseOperation(WindowConstants.HIDE_ON_CLOSE);
+        window.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                returned(window);
+            }
+        });
+        MANAGED.add(window);
+        return window;
+    }
+
+    /**
+     * Keeps a closed window as its class's idle window, or disposes it if there already is one
+     */
+    private static void returned(JFrame window) {
+        // Hiding does not fire windowClosed, so stop its work here
+        BackgroundTask.cancelAll(window);
+        if (IDLE.containsKey(window.getClass())) {
+            MANAGED.remove(window);
+            window.dispose();
+        } else {
+            IDLE.put(window.getClass(), window);
+        }
+    }
+}
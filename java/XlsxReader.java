@@ -0,0 +1,264 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Minimal streaming reader for .xlsx workbooks.
+ * Sheets are read row by row with a StAX parser straight out of the zip file, so memory use
+ * does not grow with the number of rows. Only the shared strings table is kept in memory.
+ * @author Ethan C and Aarav S
+ */
+public class XlsxReader implements AutoCloseable {
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final ZipFile zip;
+    private final XMLInputFactory factory;
+    private final Map<String, String> sheetPaths = new LinkedHashMap<>();
+    private final List<String> sharedStrings = new ArrayList<>();
+
+    /**
+     * Handles one row of a sheet.
+     */
+    public interface RowHandler {
+        /**
+         * Called for every row in the sheet
+         * @param rowNumber The 1-based row number
+         * @param cells The cell values by column, empty cells are null
+         * @throws SQLException If the row could not be written
+         */
+        void row(int rowNumber, String[] cells) throws SQLException;
+    }
+
+    /**
+     * Opens a workbook and reads its sheet list and shared strings
+     * @param file The .xlsx file
+     * @throws IOException If the file is not a readable workbook
+     */
+    public XlsxReader(File file) throws IOException {
+        zip = new ZipFile(file);
+        factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        try {
+            readSheetList();
+            readSharedStrings();
+        } catch (XMLStreamException e) {
+            zip.close();
+            throw new IOException("Malformed workbook " + file.getName(), e);
+        } catch (IOException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the names of the sheets in workbook order
+     * @return The sheet names
+     */
+    public List<String> getSheetNames() {
+        return new ArrayList<>(sheetPaths.keySet());
+    }
+
+    /**
+     * Streams every row of a sheet to a handler
+     * @param sheetName The sheet to read
+     * @param handler Called once per row
+     * @throws IOException If the sheet cannot be read
+     * @throws SQLException If the handler fails
+     */
+    public void readSheet(String sheetName, RowHandler handler) throws IOException, SQLException {
+        String path = sheetPaths.get(sheetName);
+        if (path == null) {
+            throw new IOException("Workbook has no sheet named " + sheetName);
+        }
+
+        try (InputStream in = open(path)) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            try {
+                List<String> cells = new ArrayList<>();
+                int rowNumber = 0;
+                int column = 0;
+                String type = null;
+                StringBuilder value = null;
+                boolean inPhonetic = false;
+
+                while (xml.hasNext()) {
+                    int event = xml.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "row":
+                                cells.clear();
+                                String r = xml.getAttributeValue(null, "r");
+                                rowNumber = r != null ? Integer.parseInt(r) : rowNumber + 1;
+                                break;
+                            case "c":
+                                column = columnIndex(xml.getAttributeValue(null, "r"), cells.size());
+                                type = xml.getAttributeValue(null, "t");
+                                value = null;
+                                break;
+                            case "v":
+                                value = new StringBuilder(xml.getElementText());
+                                break;
+                            case "rPh":
+                                inPhonetic = true;
+                                break;
+                            case "t":
+                                // Inline strings can be several rich text runs, phonetic hints are not part of the text
+                                if (!inPhonetic) {
+                                    if (value == null) {
+                                        value = new StringBuilder();
+                                    }
+                                    value.append(xml.getElementText());
+                                }
+                                break;
+                            default:
+                                break;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (xml.getLocalName().equals("c")) {
+                            while (cells.size() <= column) {
+                                cells.add(null);
+                            }
+                            cells.set(column, cellValue(type, value));
+                        } else if (xml.getLocalName().equals("row")) {
+                            handler.row(rowNumber, cells.toArray(new String[0]));
+                        } else if (xml.getLocalName().equals("rPh")) {
+                            inPhonetic = false;
+                        }
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed sheet " + sheetName, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+
+    /**
+     * Maps sheet names to their part names using the workbook and its relationships
+     */
+    private void readSheetList() throws IOException, XMLStreamException {
+        Map<String, String> targets = new HashMap<>();
+        try (InputStream in = open("xl/_rels/workbook.xml.rels")) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("Relationship")) {
+                    String target = xml.getAttributeValue(null, "Target");
+                    // Targets are relative to xl/ unless they start at the package root
+                    targets.put(xml.getAttributeValue(null, "Id"),
+                        target.startsWith("/") ? target.substring(1) : "xl/" + target);
+                }
+            }
+            xml.close();
+        }
+
+        try (InputStream in = open("xl/workbook.xml")) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("sheet")) {
+                    String target = targets.get(xml.getAttributeValue(RELATIONSHIPS_NS, "id"));
+                    if (target != null) {
+                        sheetPaths.put(xml.getAttributeValue(null, "name"), target);
+                    }
+                }
+            }
+            xml.close();
+        }
+    }
+
+    /**
+     * Loads the shared strings table, rich text runs are joined and phonetic hints skipped
+     */
+    private void readSharedStrings() throws IOException, XMLStreamException {
+        if (zip.getEntry("xl/sharedStrings.xml") == null) {
+            return;
+        }
+        try (InputStream in = open("xl/sharedStrings.xml")) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            StringBuilder current = null;
+            boolean inPhonetic = false;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if (name.equals("si")) {
+                        current = new StringBuilder();
+                    } else if (name.equals("rPh")) {
+                        inPhonetic = true;
+                    } else if (name.equals("t") && current != null && !inPhonetic) {
+                        current.append(xml.getElementText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if (name.equals("si")) {
+                        sharedStrings.add(current.toString());
+                        current = null;
+                    } else if (name.equals("rPh")) {
+                        inPhonetic = false;
+                    }
+                }
+            }
+            xml.close();
+        }
+    }
+
+    /**
+     * Opens a part of the workbook package
+     */
+    private InputStream open(String path) throws IOException {
+        ZipEntry entry = zip.getEntry(path);
+        if (entry == null) {
+            throw new IOException("Workbook is missing " + path);
+        }
+        return zip.getInputStream(entry);
+    }
+
+    /**
+     * Turns a raw cell value into text, looking up shared strings
+     */
+    private String cellValue(String type, StringBuilder value) {
+        if (value == null || value.length() == 0) {
+            return null;
+        }
+        if ("s".equals(type)) {
+            return sharedStrings.get(Integer.parseInt(value.toString()));
+        }
+        return value.toString();
+    }
+
+    /**
+     * Gets the 0-based column from a cell reference such as "AB12"
+     * @param reference The cell reference, may be missing
+     * @param next The column to use when the reference is missing
+     * @return The column index
+     */
+    private static int columnIndex(String reference, int next) {
+        if (reference == null) {
+            return next;
+        }
+        int column = 0;
+        for (int i = 0; i < reference.length() && Character.isLetter(reference.charAt(i)); i++) {
+            column = column * 26 + (reference.charAt(i) - 'A' + 1);
+        }
+        return column - 1;
+    }
+}